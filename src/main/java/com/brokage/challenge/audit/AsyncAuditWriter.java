@@ -0,0 +1,347 @@
+package com.brokage.challenge.audit;
+
+import com.brokage.challenge.util.ThreadFactories;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Takes audit records off the caller's thread: they are queued on a bounded lock-free queue and a single background
+ * writer inserts them with JDBC batch inserts once {@code batch-size} records are waiting or the oldest has waited
+ * {@code flush-interval}. The audited operation no longer pays for an insert; {@link AuditService} only queues a
+ * success once the audited transaction committed.
+ * <p>
+ * A full queue applies the overflow policy. Spilled records, and batches whose insert failed, are appended to the
+ * spill file and re-inserted once the writer is idle again. Shutdown waits until the queue and the spill file are
+ * written; records arriving after that are inserted on the caller's thread.
+ */
+@Component
+@ConditionalOnProperty(prefix = "audit", name = "writer", havingValue = "async")
+public class AsyncAuditWriter implements AuditWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncAuditWriter.class);
+
+    static final String INSERT_AUDIT_LOG = "INSERT INTO audit_logs " +
+            "(operation, entity_type, entity_id, customer_id, details, status, timestamp, error_message) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final long BLOCK_PAUSE_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long REPLAY_RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    public enum OverflowPolicy {
+        // Wait for the writer to make room
+        BLOCK,
+        // Count the record in audit.dropped and carry on
+        DROP,
+        // Append the record to the spill file
+        SPILL
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflow;
+    private final Path spillFile;
+    private final Path replayFile;
+
+    private final Queue<AuditLog> queue = new ConcurrentLinkedQueue<>();
+    // Reserved slots; a producer claims one before adding, so the queue never exceeds capacity
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Thread writer;
+    private volatile boolean stopping;
+
+    // Request threads write the spill file under this lock; a monitor would pin their carriers on virtual threads
+    private final ReentrantLock spillLock = new ReentrantLock();
+    // Guarded by spillLock
+    private BufferedWriter spillOut;
+    private volatile boolean spillPending;
+
+    private final Counter droppedCounter;
+    private final Counter spilledCounter;
+
+    public AsyncAuditWriter(JdbcTemplate jdbcTemplate,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${audit.async.capacity:10000}") int capacity,
+                            @Value("${audit.async.batch-size:500}") int batchSize,
+                            @Value("${audit.async.flush-interval:200ms}") Duration flushInterval,
+                            @Value("${audit.async.overflow:SPILL}") OverflowPolicy overflow,
+                            @Value("${audit.async.spill-file:${java.io.tmpdir}/brokage-audit-spill.ndjson}") Path spillFile) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.overflow = overflow;
+        this.spillFile = spillFile;
+        this.replayFile = spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+        // Left behind by a crash or a failed replay
+        this.spillPending = Files.exists(spillFile) || Files.exists(replayFile);
+        this.writer = ThreadFactories.named("audit-writer", false).newThread(this::run);
+
+        Gauge.builder("audit.queue.depth", queued, AtomicInteger::get)
+                .description("Audit records waiting for the background writer")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.dropped")
+                .description("Audit records discarded because the queue was full or could not be spilled")
+                .register(meterRegistry);
+        this.spilledCounter = Counter.builder("audit.spilled")
+                .description("Audit records written to the spill file instead of the queue")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        writer.start();
+        log.info("Async audit writer started, batch size {}, flush interval {} ms, overflow {}",
+                batchSize, TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos), overflow);
+    }
+
+    @Override
+    public void write(AuditLog auditLog) {
+        if (stopping) {
+            insert(List.of(auditLog));
+            return;
+        }
+        if (enqueue(auditLog)) {
+            return;
+        }
+        switch (overflow) {
+            case DROP -> droppedCounter.increment();
+            case SPILL -> spill(List.of(auditLog));
+            case BLOCK -> {
+                LockSupport.unpark(writer);
+                while (!enqueue(auditLog)) {
+                    if (stopping) {
+                        insert(List.of(auditLog));
+                        return;
+                    }
+                    LockSupport.parkNanos(this, BLOCK_PAUSE_NANOS);
+                }
+            }
+        }
+    }
+
+    @Override
+    public int backlog() {
+        return queued.get();
+    }
+
+    private boolean enqueue(AuditLog auditLog) {
+        int current;
+        do {
+            current = queued.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!queued.compareAndSet(current, current + 1));
+        queue.add(auditLog);
+        if (current + 1 == batchSize) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    private void run() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        long deadline = 0;
+        long nextReplay = System.nanoTime();
+        while (true) {
+            AuditLog next = queue.poll();
+            if (next != null) {
+                queued.decrementAndGet();
+                if (batch.isEmpty()) {
+                    deadline = System.nanoTime() + flushIntervalNanos;
+                }
+                batch.add(next);
+                if (batch.size() < batchSize) {
+                    continue;
+                }
+            } else if (batch.isEmpty()) {
+                if (stopping) {
+                    break;
+                }
+                // Idle: catch up on spilled records, at most once a second while inserts keep failing
+                if (spillPending && System.nanoTime() - nextReplay >= 0) {
+                    replaySpill();
+                    nextReplay = System.nanoTime() + REPLAY_RETRY_NANOS;
+                    continue;
+                }
+                LockSupport.parkNanos(this, flushIntervalNanos);
+                continue;
+            } else if (!stopping && deadline - System.nanoTime() > 0) {
+                LockSupport.parkNanos(this, deadline - System.nanoTime());
+                continue;
+            }
+            flush(batch);
+            batch.clear();
+        }
+        replaySpill();
+    }
+
+    private void flush(List<AuditLog> batch) {
+        try {
+            insert(batch);
+        } catch (Exception e) {
+            log.error("Audit batch insert of {} records failed, spilling them: {}", batch.size(), e.getMessage(), e);
+            spill(batch);
+        }
+    }
+
+    private void insert(List<AuditLog> batch) {
+        jdbcTemplate.batchUpdate(INSERT_AUDIT_LOG, batch, batch.size(), (ps, auditLog) -> {
+            ps.setString(1, auditLog.getOperation());
+            ps.setString(2, auditLog.getEntityType());
+            ps.setObject(3, auditLog.getEntityId(), Types.BIGINT);
+            ps.setString(4, auditLog.getCustomerId());
+            ps.setString(5, auditLog.getDetails());
+            ps.setString(6, auditLog.getStatus().name());
+            ps.setObject(7, auditLog.getTimestamp().atOffset(ZoneOffset.UTC));
+            ps.setString(8, auditLog.getErrorMessage());
+        });
+    }
+
+    private void spill(List<AuditLog> records) {
+        spillLock.lock();
+        try {
+            try {
+                if (spillOut == null) {
+                    spillOut = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+                for (AuditLog auditLog : records) {
+                    spillOut.write(objectMapper.writeValueAsString(auditLog));
+                    spillOut.newLine();
+                }
+                spillOut.flush();
+                spillPending = true;
+                spilledCounter.increment(records.size());
+            } catch (IOException e) {
+                log.error("Could not spill {} audit records to {}, dropping them: {}",
+                        records.size(), spillFile, e.getMessage(), e);
+                droppedCounter.increment(records.size());
+            }
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /**
+     * Re-inserts spilled records. The spill file is first renamed, so producers keep spilling into a fresh one; if the
+     * insert fails, the renamed file is kept and retried, which may insert a part of it twice but never loses it.
+     */
+    private void replaySpill() {
+        try {
+            spillLock.lock();
+            try {
+                if (spillOut != null) {
+                    spillOut.close();
+                    spillOut = null;
+                }
+                if (Files.exists(spillFile) && !Files.exists(replayFile)) {
+                    Files.move(spillFile, replayFile);
+                }
+                spillPending = Files.exists(spillFile);
+            } finally {
+                spillLock.unlock();
+            }
+            if (!Files.exists(replayFile)) {
+                return;
+            }
+
+            long replayed = 0;
+            try (BufferedReader in = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+                List<AuditLog> batch = new ArrayList<>(batchSize);
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    batch.add(objectMapper.readValue(line, AuditLog.class));
+                    if (batch.size() == batchSize) {
+                        insert(batch);
+                        replayed += batch.size();
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    insert(batch);
+                    replayed += batch.size();
+                }
+            }
+            Files.delete(replayFile);
+            log.info("Re-inserted {} spilled audit records", replayed);
+        } catch (Exception e) {
+            spillPending = true;
+            log.error("Replaying spilled audit records from {} failed, will retry: {}", replayFile, e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        if (writer.isAlive()) {
+            LockSupport.unpark(writer);
+            writer.join();
+        }
+        // Records a producer queued after the writer's last poll, or all of them if it never started
+        List<AuditLog> rest = new ArrayList<>();
+        AuditLog next;
+        while ((next = queue.poll()) != null) {
+            queued.decrementAndGet();
+            rest.add(next);
+        }
+        if (!rest.isEmpty()) {
+            flush(rest);
+        }
+        if (spillPending) {
+            replaySpill();
+        }
+        spillLock.lock();
+        try {
+            if (spillOut != null) {
+                try {
+                    spillOut.close();
+                } catch (IOException e) {
+                    log.warn("Could not close audit spill file {}: {}", spillFile, e.getMessage());
+                }
+                spillOut = null;
+            }
+        } finally {
+            spillLock.unlock();
+        }
+        log.info("Async audit writer stopped");
+    }
+}
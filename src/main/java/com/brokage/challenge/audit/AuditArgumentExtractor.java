@@ -0,0 +1,143 @@
+package com.brokage.challenge.audit;
+
+import com.brokage.challenge.dto.CreateOrder;
+import com.brokage.challenge.entity.Order;
+import com.brokage.challenge.enums.OrderStatus;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * What {@link AuditAspect} reads from the arguments of one {@code @Auditable} method, resolved from its declared
+ * parameter types: the first {@link CreateOrder} or {@link Order} parameter supplies the customer, the first
+ * {@link Long} or {@link Order} parameter the entity id, and the details are the {@code Long} parameters followed by
+ * the first order parameter. Each call then reads fixed positions instead of testing every argument.
+ * <p>
+ * Details come back as a {@link Supplier}; the string is only built when the record is persisted. Arguments that
+ * may still change during the call, i.e. an {@link Order}, are captured up front.
+ */
+final class AuditArgumentExtractor {
+
+    private static final String UNKNOWN_CUSTOMER = "unknown";
+    private static final Supplier<String> NO_DETAILS = () -> "";
+
+    private final Function<Object[], String> customerId;
+    private final Function<Object[], Long> entityId;
+    private final Function<Object[], Supplier<String>> details;
+    // Whether the method can return an Order, whose id then replaces the argument one
+    private final boolean orderResult;
+
+    private AuditArgumentExtractor(Function<Object[], String> customerId, Function<Object[], Long> entityId,
+                                   Function<Object[], Supplier<String>> details, boolean orderResult) {
+        this.customerId = customerId;
+        this.entityId = entityId;
+        this.details = details;
+        this.orderResult = orderResult;
+    }
+
+    static AuditArgumentExtractor forMethod(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Function<Object[], String> customerId = args -> UNKNOWN_CUSTOMER;
+        Function<Object[], Long> entityId = args -> null;
+        List<Function<Object[], Supplier<String>>> detailParts = new ArrayList<>();
+
+        boolean customerFound = false;
+        boolean entityIdFound = false;
+        boolean detailsClosed = false;
+        for (int i = 0; i < types.length; i++) {
+            int index = i;
+            Class<?> type = types[i];
+            if (CreateOrder.class.isAssignableFrom(type)) {
+                if (!customerFound) {
+                    customerId = args -> args[index] == null ? UNKNOWN_CUSTOMER : ((CreateOrder) args[index]).customer();
+                    customerFound = true;
+                }
+                if (!detailsClosed) {
+                    detailParts.add(args -> createOrderDetails((CreateOrder) args[index]));
+                    detailsClosed = true;
+                }
+            } else if (Order.class.isAssignableFrom(type)) {
+                if (!customerFound) {
+                    customerId = args -> args[index] == null ? UNKNOWN_CUSTOMER : ((Order) args[index]).getCustomerId();
+                    customerFound = true;
+                }
+                if (!entityIdFound) {
+                    entityId = args -> args[index] == null ? null : ((Order) args[index]).getId();
+                    entityIdFound = true;
+                }
+                if (!detailsClosed) {
+                    detailParts.add(args -> orderDetails((Order) args[index]));
+                    detailsClosed = true;
+                }
+            } else if (type == Long.class || type == long.class) {
+                if (!entityIdFound) {
+                    entityId = args -> (Long) args[index];
+                    entityIdFound = true;
+                }
+                if (!detailsClosed) {
+                    detailParts.add(args -> entityIdDetails((Long) args[index]));
+                }
+            }
+        }
+
+        Class<?> returnType = method.getReturnType();
+        boolean orderResult = Order.class.isAssignableFrom(returnType) || returnType.isAssignableFrom(Order.class);
+        return new AuditArgumentExtractor(customerId, entityId, combine(detailParts), orderResult);
+    }
+
+    String customerId(Object[] args) {
+        return customerId.apply(args);
+    }
+
+    Long entityId(Object[] args) {
+        return entityId.apply(args);
+    }
+
+    Supplier<String> details(Object[] args) {
+        return details.apply(args);
+    }
+
+    Long entityId(Object result, Long argumentEntityId) {
+        return orderResult && result instanceof Order order ? order.getId() : argumentEntityId;
+    }
+
+    private static Function<Object[], Supplier<String>> combine(List<Function<Object[], Supplier<String>>> parts) {
+        if (parts.isEmpty()) {
+            return args -> NO_DETAILS;
+        }
+        if (parts.size() == 1) {
+            return parts.getFirst();
+        }
+        return args -> {
+            List<Supplier<String>> captured = new ArrayList<>(parts.size());
+            for (Function<Object[], Supplier<String>> part : parts) {
+                captured.add(part.apply(args));
+            }
+            return () -> {
+                StringBuilder details = new StringBuilder();
+                captured.forEach(part -> details.append(part.get()));
+                return details.toString();
+            };
+        };
+    }
+
+    private static Supplier<String> createOrderDetails(CreateOrder createOrder) {
+        return createOrder == null ? NO_DETAILS : () -> AuditDetails.describe(createOrder);
+    }
+
+    private static Supplier<String> orderDetails(Order order) {
+        if (order == null) {
+            return NO_DETAILS;
+        }
+        Long id = order.getId();
+        OrderStatus status = order.getStatus();
+        return () -> AuditDetails.describe(id, status);
+    }
+
+    private static Supplier<String> entityIdDetails(Long id) {
+        return id == null ? NO_DETAILS : () -> "Entity ID: " + id;
+    }
+}
@@ -1,20 +1,31 @@
 package com.brokage.challenge.audit;
 
-import com.brokage.challenge.dto.CreateOrder;
-import com.brokage.challenge.entity.Order;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
 @Aspect
 @Component
 public class AuditAspect {
     
     private final AuditService auditService;
+    private final AuditPolicyService auditPolicyService;
+    // Argument extractor and success policy per audited method, resolved on its first call
+    private final Map<Method, AuditedMethod> auditedMethods = new ConcurrentHashMap<>();
+    
+    private record AuditedMethod(AuditArgumentExtractor extractor, AuditPolicy policy) {
+    }
     
-    public AuditAspect(AuditService auditService) {
+    public AuditAspect(AuditService auditService, AuditPolicyService auditPolicyService) {
         this.auditService = auditService;
+        this.auditPolicyService = auditPolicyService;
     }
     
     @Around("@annotation(auditable)")
@@ -22,20 +33,21 @@ public class AuditAspect {
         String operation = auditable.operation();
         String entityType = auditable.entityType();
         
+        AuditedMethod audited = audited(((MethodSignature) joinPoint.getSignature()).getMethod(), auditable);
+        AuditArgumentExtractor extractor = audited.extractor();
         Object[] args = joinPoint.getArgs();
-        String customerId = extractCustomerId(args);
-        Long entityId = extractEntityId(args);
-        String details = buildDetails(args);
+        String customerId = extractor.customerId(args);
+        Long entityId = extractor.entityId(args);
+        Supplier<String> details = extractor.details(args);
         
         try {
             Object result = joinPoint.proceed();
             
             // Extract entity ID from result if available
-            if (result instanceof Order) {
-                entityId = ((com.brokage.challenge.entity.Order) result).getId();
-            }
+            entityId = extractor.entityId(result, entityId);
             
-            auditService.logSuccess(operation, entityType, entityId, customerId, details);
+            // Successes follow the operation's policy; failures below are always recorded
+            auditPolicyService.recordSuccess(audited.policy(), entityId, customerId, details);
             return result;
             
         } catch (Exception e) {
@@ -44,51 +56,9 @@ public class AuditAspect {
         }
     }
     
-    private String extractCustomerId(Object[] args) {
-        // Try to extract customer ID from CreateOrder or Order objects
-        for (Object arg : args) {
-            if (arg instanceof CreateOrder createOrder) {
-                return createOrder.customer();
-            }
-            if (arg instanceof Order order) {
-                return order.getCustomerId();
-            }
-        }
-        return "unknown";
-    }
-    
-    private Long extractEntityId(Object[] args) {
-        // Try to extract entity ID from Long parameters or Order objects
-        for (Object arg : args) {
-            if (arg instanceof Long) {
-                return (Long) arg;
-            }
-            if (arg instanceof Order order) {
-                return order.getId();
-            }
-        }
-        return null;
-    }
-    
-    private String buildDetails(Object[] args) {
-        StringBuilder details = new StringBuilder();
-        for (Object arg : args) {
-            if (arg instanceof CreateOrder createOrder) {
-                details.append("Order: ").append(createOrder.side())
-                       .append(" ").append(createOrder.asset())
-                       .append(" Size: ").append(createOrder.size())
-                       .append(" Price: ").append(createOrder.price());
-                break;
-            }
-            if (arg instanceof Order order) {
-                details.append("Order ID: ").append(order.getId())
-                       .append(" Status: ").append(order.getStatus());
-                break;
-            }
-            if (arg instanceof Long) {
-                details.append("Entity ID: ").append(arg);
-            }
-        }
-        return details.toString();
+    private AuditedMethod audited(Method method, Auditable auditable) {
+        AuditedMethod audited = auditedMethods.get(method);
+        return audited != null ? audited : auditedMethods.computeIfAbsent(method, m ->
+                new AuditedMethod(AuditArgumentExtractor.forMethod(m), auditPolicyService.policyFor(auditable)));
     }
 }
@@ -0,0 +1,27 @@
+package com.brokage.challenge.audit;
+
+import com.brokage.challenge.dto.CreateOrder;
+import com.brokage.challenge.entity.Order;
+import com.brokage.challenge.enums.OrderStatus;
+
+public final class AuditDetails {
+
+    private AuditDetails() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static String describe(CreateOrder createOrder) {
+        return "Order: " + createOrder.side() +
+                " " + createOrder.asset() +
+                " Size: " + createOrder.size() +
+                " Price: " + createOrder.price();
+    }
+
+    public static String describe(Order order) {
+        return describe(order.getId(), order.getStatus());
+    }
+
+    public static String describe(Long orderId, OrderStatus status) {
+        return "Order ID: " + orderId + " Status: " + status;
+    }
+}
@@ -7,7 +7,11 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -15,9 +19,14 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.Instant;
+import java.util.function.Supplier;
 
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+        @Index(name = "idx_audit_logs_customer_timestamp", columnList = "customer_id, timestamp, id"),
+        @Index(name = "idx_audit_logs_operation_status_timestamp", columnList = "operation, status, timestamp, id"),
+        @Index(name = "idx_audit_logs_timestamp", columnList = "timestamp")
+})
 @Getter
 @Setter
 @Builder
@@ -53,4 +62,22 @@ public class AuditLog {
     
     @Column
     private String errorMessage;
+    
+    // Renders details on first read, so records that are never persisted never build the string
+    @Transient
+    @JsonIgnore
+    private Supplier<String> detailsSource;
+    
+    public String getDetails() {
+        if (details == null && detailsSource != null) {
+            details = detailsSource.get();
+            detailsSource = null;
+        }
+        return details;
+    }
+    
+    @PrePersist
+    void renderDetails() {
+        getDetails();
+    }
 }
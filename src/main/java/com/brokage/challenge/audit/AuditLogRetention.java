@@ -0,0 +1,75 @@
+package com.brokage.challenge.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Retention of the {@code audit_logs} table written by the {@code jpa} and {@code async} writers; the segment writer
+ * drops whole files instead. H2 cannot partition a table, so expired partitions cannot simply be dropped: rows older
+ * than {@code audit.table.retention} are deleted in chunks of at most {@code audit.table.delete-batch-size}, one
+ * transaction per chunk, so a long backlog never turns into one huge delete holding its locks.
+ */
+@Component
+@ConditionalOnExpression("'${audit.writer:jpa}' != 'segment'")
+public class AuditLogRetention {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLogRetention.class);
+
+    private final AuditRepository auditRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int deleteBatchSize;
+    private final Counter deletedCounter;
+
+    public AuditLogRetention(AuditRepository auditRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${audit.table.retention:90d}") Duration retention,
+                             @Value("${audit.table.delete-batch-size:10000}") int deleteBatchSize) {
+        this.auditRepository = auditRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.deleteBatchSize = deleteBatchSize;
+        this.deletedCounter = Counter.builder("audit.table.deleted")
+                .description("Audit records deleted from audit_logs by retention")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${audit.table.cleanup-interval:1h}")
+    public void purgeExpired() {
+        if (retention.isZero()) {
+            return;
+        }
+        long removed = purgeBefore(Instant.now().minus(retention));
+        if (removed > 0) {
+            log.info("Removed {} audit records older than {}", removed, retention);
+        }
+    }
+
+    /**
+     * Deletes the records with a timestamp before {@code cutoff}, a chunk at a time until a chunk comes back short.
+     */
+    long purgeBefore(Instant cutoff) {
+        long removed = 0;
+        int deleted;
+        do {
+            Integer chunk = transactionTemplate.execute(status ->
+                    auditRepository.deleteTimestampBefore(cutoff, deleteBatchSize));
+            deleted = chunk == null ? 0 : chunk;
+            removed += deleted;
+            deletedCounter.increment(deleted);
+        } while (deleted == deleteBatchSize);
+        return removed;
+    }
+}
@@ -0,0 +1,18 @@
+package com.brokage.challenge.audit;
+
+/**
+ * How the successful calls of an audited operation are recorded; failures are always recorded one by one.
+ * Declared from the most to the least expensive.
+ */
+public enum AuditMode {
+    // One record per call
+    FULL,
+    // One record per sample-every calls, marked as sampled
+    SAMPLE,
+    // One record per customer and aggregate interval holding the count
+    AGGREGATE;
+
+    AuditMode cheaperOf(AuditMode other) {
+        return compareTo(other) >= 0 ? this : other;
+    }
+}
@@ -0,0 +1,8 @@
+package com.brokage.challenge.audit;
+
+import java.util.List;
+
+public record AuditPageResponse(
+            List<AuditLog> records,
+            String nextCursor
+        ) {}
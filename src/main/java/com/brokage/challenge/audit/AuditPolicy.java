@@ -0,0 +1,48 @@
+package com.brokage.challenge.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Success-path recording policy of one audited operation, resolved once from {@link Auditable} and configuration.
+ */
+final class AuditPolicy {
+
+    private final String operation;
+    private final String entityType;
+    private final AuditMode success;
+    private final AuditMode underLoad;
+    private final int sampleEvery;
+    private final AtomicLong calls = new AtomicLong();
+
+    AuditPolicy(String operation, String entityType, AuditMode success, AuditMode underLoad, int sampleEvery) {
+        if (sampleEvery < 1) {
+            throw new IllegalArgumentException("sample-every of " + operation + " must be at least 1: " + sampleEvery);
+        }
+        this.operation = operation;
+        this.entityType = entityType;
+        this.success = success;
+        this.underLoad = success.cheaperOf(underLoad);
+        this.sampleEvery = sampleEvery;
+    }
+
+    String operation() {
+        return operation;
+    }
+
+    String entityType() {
+        return entityType;
+    }
+
+    int sampleEvery() {
+        return sampleEvery;
+    }
+
+    AuditMode mode(boolean loaded) {
+        return loaded ? underLoad : success;
+    }
+
+    // The first call and every sampleEvery-th after it
+    boolean sampled() {
+        return calls.getAndIncrement() % sampleEvery == 0;
+    }
+}
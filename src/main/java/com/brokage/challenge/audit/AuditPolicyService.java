@@ -0,0 +1,205 @@
+package com.brokage.challenge.audit;
+
+import com.brokage.challenge.util.ThreadFactories;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Applies the per-operation {@link AuditPolicy} to successful audited calls. Successes are recorded in full, sampled,
+ * or counted per customer and written as one record per {@code audit.policy.aggregate-interval}.
+ * <p>
+ * When the audit writer's backlog reaches {@code audit.policy.backlog-threshold} every operation falls back to the
+ * cheaper of its own mode and {@code audit.policy.under-load}, until the backlog drains below half the threshold.
+ * Both switches are written to the audit trail as {@code AUDIT_POLICY} records, so a gap in success records can be
+ * told apart from a gap in traffic.
+ */
+@Service
+public class AuditPolicyService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditPolicyService.class);
+
+    static final String POLICY_OPERATION = "AUDIT_POLICY";
+    static final String POLICY_ENTITY_TYPE = "AuditPolicy";
+    private static final int DEFAULT_SAMPLE_EVERY = 100;
+
+    private final AuditService auditService;
+    private final AuditWriter auditWriter;
+    private final Environment environment;
+    private final AuditMode underLoadMode;
+    private final int backlogThreshold;
+    private final ScheduledExecutorService flusher =
+            Executors.newSingleThreadScheduledExecutor(ThreadFactories.named("audit-aggregate", false));
+
+    // One policy per operation, however many methods and services audit it, so they share its sample counter
+    private final Map<String, AuditPolicy> policies = new ConcurrentHashMap<>();
+    private final AtomicBoolean underLoad = new AtomicBoolean();
+    // Successes counted since the last flush, per operation and customer; every flush drains it
+    private final Map<AggregateKey, Long> aggregates = new ConcurrentHashMap<>();
+    private volatile Instant aggregateStart = Instant.now();
+
+    private final Counter sampledOutCounter;
+    private final Counter aggregatedCounter;
+
+    private record AggregateKey(String operation, String entityType, String customerId) {
+    }
+
+    public AuditPolicyService(AuditService auditService,
+                              AuditWriter auditWriter,
+                              Environment environment,
+                              MeterRegistry meterRegistry,
+                              @Value("${audit.policy.under-load:AGGREGATE}") AuditMode underLoadMode,
+                              @Value("${audit.policy.backlog-threshold:5000}") int backlogThreshold,
+                              @Value("${audit.policy.aggregate-interval:1m}") Duration aggregateInterval) {
+        this.auditService = auditService;
+        this.auditWriter = auditWriter;
+        this.environment = environment;
+        this.underLoadMode = underLoadMode;
+        this.backlogThreshold = backlogThreshold;
+
+        Gauge.builder("audit.policy.under-load", underLoad, loaded -> loaded.get() ? 1 : 0)
+                .description("1 while the audit backlog has switched successes to the cheaper mode")
+                .register(meterRegistry);
+        this.sampledOutCounter = Counter.builder("audit.sampled.out")
+                .description("Successful audited calls left out by sampling")
+                .register(meterRegistry);
+        this.aggregatedCounter = Counter.builder("audit.aggregated")
+                .description("Successful audited calls counted into aggregate records")
+                .register(meterRegistry);
+        flusher.scheduleWithFixedDelay(this::flushAggregates,
+                aggregateInterval.toMillis(), aggregateInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the policy of an audited method's operation; {@code audit.policy.operations.<operation>.success} and
+     * {@code .sample-every} override the annotation. Whichever caller uses an operation first resolves its policy.
+     */
+    AuditPolicy policyFor(Auditable auditable) {
+        return policyFor(auditable.operation(), auditable.entityType(), auditable.success(), auditable.sampleEvery());
+    }
+
+    private AuditPolicy policyFor(String operation, String entityType, AuditMode success, int sampleEvery) {
+        AuditPolicy policy = policies.get(operation);
+        return policy != null ? policy
+                : policies.computeIfAbsent(operation, op -> resolve(op, entityType, success, sampleEvery));
+    }
+
+    private AuditPolicy resolve(String operation, String entityType, AuditMode success, int sampleEvery) {
+        String prefix = "audit.policy.operations." + operation + ".";
+        AuditPolicy policy = new AuditPolicy(operation, entityType,
+                environment.getProperty(prefix + "success", AuditMode.class, success),
+                underLoadMode,
+                environment.getProperty(prefix + "sample-every", Integer.class, sampleEvery));
+        log.info("Audit policy for {}: successes {}, {} under load, sample every {}", operation,
+                policy.mode(false), policy.mode(true), policy.sampleEvery());
+        return policy;
+    }
+
+    /**
+     * For services that audit outside {@code @Auditable}, e.g. per order of a batch. The operation's policy is shared
+     * with any {@code @Auditable} method of the same operation; resolved here first, it comes from configuration
+     * alone and defaults to {@link AuditMode#FULL}.
+     */
+    public void recordSuccess(String operation, String entityType, Long entityId, String customerId,
+                              Supplier<String> details) {
+        recordSuccess(policyFor(operation, entityType, AuditMode.FULL, DEFAULT_SAMPLE_EVERY),
+                entityId, customerId, details);
+    }
+
+    void recordSuccess(AuditPolicy policy, Long entityId, String customerId, Supplier<String> details) {
+        // Only committed calls are sampled or counted; a rolled-back one is recorded as a failure
+        AuditService.onCompletion(() -> applyPolicy(policy, entityId, customerId, details),
+                () -> auditService.logFailure(policy.operation(), policy.entityType(), entityId, customerId, details,
+                        AuditService.ROLLED_BACK));
+    }
+
+    private void applyPolicy(AuditPolicy policy, Long entityId, String customerId, Supplier<String> details) {
+        switch (policy.mode(underLoad())) {
+            case FULL -> auditService.logSuccess(policy.operation(), policy.entityType(), entityId, customerId, details);
+            case SAMPLE -> {
+                if (policy.sampled()) {
+                    int every = policy.sampleEvery();
+                    auditService.logSuccess(policy.operation(), policy.entityType(), entityId, customerId,
+                            () -> details.get() + " (sampled 1 in " + every + ")");
+                } else {
+                    sampledOutCounter.increment();
+                }
+            }
+            case AGGREGATE -> {
+                aggregates.merge(new AggregateKey(policy.operation(), policy.entityType(), customerId), 1L, Long::sum);
+                aggregatedCounter.increment();
+            }
+        }
+    }
+
+    /**
+     * Checks the writer's backlog against the threshold, recording a switch in either direction.
+     */
+    boolean underLoad() {
+        int backlog = auditWriter.backlog();
+        boolean loaded = underLoad.get();
+        if (!loaded && backlog >= backlogThreshold && underLoad.compareAndSet(false, true)) {
+            recordSwitch("Audit backlog " + backlog + " reached " + backlogThreshold
+                    + ", successes now recorded as " + underLoadMode + " at most");
+            return true;
+        }
+        if (loaded && backlog < backlogThreshold / 2 && underLoad.compareAndSet(true, false)) {
+            recordSwitch("Audit backlog " + backlog + " below " + backlogThreshold / 2
+                    + ", successes recorded as configured again");
+            return false;
+        }
+        return loaded;
+    }
+
+    private void recordSwitch(String details) {
+        log.warn(details);
+        auditService.logSuccess(POLICY_OPERATION, POLICY_ENTITY_TYPE, null, null, details);
+    }
+
+    /**
+     * Writes one record per operation and customer holding the successes counted since the previous flush, removing
+     * the counts it writes so customers that went quiet do not stay in memory.
+     */
+    void flushAggregates() {
+        Instant start = aggregateStart;
+        Instant end = Instant.now();
+        aggregateStart = end;
+        try {
+            for (AggregateKey key : aggregates.keySet()) {
+                // remove and merge are atomic per key: a racing increment lands before the removal or starts anew
+                Long count = aggregates.remove(key);
+                if (count == null) {
+                    continue;
+                }
+                auditService.logSuccess(key.operation(), key.entityType(), null, key.customerId(),
+                        "Aggregated " + count + " successful calls between " + start + " and " + end);
+            }
+        } catch (Exception e) {
+            log.error("Writing aggregated audit records failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flushAggregates();
+    }
+}
@@ -0,0 +1,24 @@
+package com.brokage.challenge.audit;
+
+import java.time.Instant;
+
+/**
+ * Filter for reading audit records; {@code null} components match everything. {@code from} is inclusive,
+ * {@code to} exclusive.
+ */
+public record AuditQuery(
+            String customerId,
+            String operation,
+            AuditStatus status,
+            Instant from,
+            Instant to
+        ) {
+
+    public boolean matches(AuditLog auditLog) {
+        return (customerId == null || customerId.equals(auditLog.getCustomerId()))
+                && (operation == null || operation.equals(auditLog.getOperation()))
+                && (status == null || status == auditLog.getStatus())
+                && (from == null || !auditLog.getTimestamp().isBefore(from))
+                && (to == null || auditLog.getTimestamp().isBefore(to));
+    }
+}
@@ -0,0 +1,27 @@
+package com.brokage.challenge.audit;
+
+import org.springframework.data.domain.Slice;
+
+import java.time.Instant;
+import java.util.stream.Stream;
+
+/**
+ * Audit queries built from the filters actually given. A customer filter leads with
+ * {@code idx_audit_logs_customer_timestamp}, an operation filter with {@code idx_audit_logs_operation_status_timestamp};
+ * both keep the time range a single index range scan. Rows are projected into detached {@link AuditLog}s, so
+ * nothing is held by the persistence context.
+ */
+public interface AuditQueryRepository {
+
+    /**
+     * One page in {@code (timestamp, id)} order, starting strictly after the given position. Reads at most
+     * {@code pageSize + 1} rows to tell whether another page follows; no count query.
+     */
+    Slice<AuditLog> findPage(AuditQuery query, Instant afterTimestamp, long afterId, int pageSize);
+
+    /**
+     * Every match in {@code (timestamp, id)} order from a database cursor. Must be consumed, and closed, inside a
+     * transaction.
+     */
+    Stream<AuditLog> stream(AuditQuery query);
+}
@@ -0,0 +1,116 @@
+package com.brokage.challenge.audit;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+class AuditQueryRepositoryImpl implements AuditQueryRepository {
+
+    private static final int FETCH_SIZE = 500;
+    private static final String[] COLUMNS = {
+            "id", "operation", "entityType", "entityId", "customerId", "details", "status", "timestamp", "errorMessage"
+    };
+
+    private final EntityManager entityManager;
+
+    AuditQueryRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<AuditLog> findPage(AuditQuery query, Instant afterTimestamp, long afterId, int pageSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteria = cb.createTupleQuery();
+        Root<AuditLog> a = criteria.from(AuditLog.class);
+        Path<Instant> timestamp = a.get("timestamp");
+        Path<Long> id = a.get("id");
+
+        List<Predicate> where = where(cb, a, query);
+        where.add(cb.or(cb.greaterThan(timestamp, afterTimestamp),
+                cb.and(cb.equal(timestamp, afterTimestamp), cb.greaterThan(id, afterId))));
+        select(cb, criteria, a, where);
+
+        List<AuditLog> rows = entityManager.createQuery(criteria).setMaxResults(pageSize + 1).getResultStream()
+                .map(AuditQueryRepositoryImpl::toAuditLog)
+                .toList();
+        boolean hasNext = rows.size() > pageSize;
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageSize) : rows, PageRequest.of(0, pageSize), hasNext);
+    }
+
+    @Override
+    public Stream<AuditLog> stream(AuditQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteria = cb.createTupleQuery();
+        Root<AuditLog> a = criteria.from(AuditLog.class);
+        select(cb, criteria, a, where(cb, a, query));
+
+        return entityManager.createQuery(criteria)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(AuditQueryRepositoryImpl::toAuditLog);
+    }
+
+    private static List<Predicate> where(CriteriaBuilder cb, Root<AuditLog> a, AuditQuery query) {
+        Path<Instant> timestamp = a.get("timestamp");
+        List<Predicate> where = new ArrayList<>();
+        // Equality columns first, in index order, then the range
+        if (query.customerId() != null) {
+            where.add(cb.equal(a.get("customerId"), query.customerId()));
+        }
+        if (query.operation() != null) {
+            where.add(cb.equal(a.get("operation"), query.operation()));
+        }
+        if (query.status() != null) {
+            where.add(cb.equal(a.get("status"), query.status()));
+        }
+        if (query.from() != null) {
+            where.add(cb.greaterThanOrEqualTo(timestamp, query.from()));
+        }
+        if (query.to() != null) {
+            where.add(cb.lessThan(timestamp, query.to()));
+        }
+        return where;
+    }
+
+    private static void select(CriteriaBuilder cb, CriteriaQuery<Tuple> criteria, Root<AuditLog> a,
+                               List<Predicate> where) {
+        List<Selection<?>> columns = new ArrayList<>(COLUMNS.length);
+        for (String column : COLUMNS) {
+            columns.add(a.get(column).alias(column));
+        }
+        criteria.multiselect(columns)
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.asc(a.get("timestamp")), cb.asc(a.get("id")));
+    }
+
+    private static AuditLog toAuditLog(Tuple row) {
+        return AuditLog.builder()
+                .id(row.get("id", Long.class))
+                .operation(row.get("operation", String.class))
+                .entityType(row.get("entityType", String.class))
+                .entityId(row.get("entityId", Long.class))
+                .customerId(row.get("customerId", String.class))
+                .details(row.get("details", String.class))
+                .status(row.get("status", AuditStatus.class))
+                .timestamp(row.get("timestamp", Instant.class))
+                .errorMessage(row.get("errorMessage", String.class))
+                .build();
+    }
+}
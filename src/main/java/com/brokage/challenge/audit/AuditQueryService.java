@@ -0,0 +1,194 @@
+package com.brokage.challenge.audit;
+
+import com.brokage.challenge.audit.segment.AuditSegmentStore;
+import com.brokage.challenge.exception.BrokageFirmApiException;
+import com.brokage.challenge.util.TimeUtil;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Reads audit records back from wherever {@code audit.writer} puts them: the {@code audit_logs} table, or the
+ * segment files when the segment store is active. Every query needs a time range, so it stays an index range scan
+ * rather than a walk over the whole trail.
+ * <p>
+ * Pages are keyset pages; exports are written as NDJSON while the records are read, never collected first.
+ */
+@Service
+public class AuditQueryService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditQueryService.class);
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final AuditRepository auditRepository;
+    private final AuditSegmentStore segmentStore;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxPageSize;
+
+    public AuditQueryService(AuditRepository auditRepository,
+                             ObjectProvider<AuditSegmentStore> segmentStore,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${audit.query.max-page-size:1000}") int maxPageSize) {
+        this.auditRepository = auditRepository;
+        this.segmentStore = segmentStore.getIfAvailable();
+        this.objectMapper = objectMapper;
+        // Flush in chunks rather than after every row
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Database pages run in {@code (timestamp, id)} order. Segment pages run in append order, which the segment
+     * record ids follow, so only the cursor's id is used there.
+     */
+    public Slice<AuditLog> findPage(AuditQuery query, AuditCursor after, int pageSize) {
+        TimeUtil.ExecutionTimer timer = TimeUtil.startTimer("FIND_AUDIT_LOGS", log);
+
+        try {
+            validate(query);
+            if (pageSize < 1) {
+                throw new IllegalArgumentException("Page size must be at least 1");
+            }
+            int size = Math.min(pageSize, maxPageSize);
+            log.info("Listing audit records for query: {}, after: {}, page size: {}", query, after, size);
+
+            Slice<AuditLog> page;
+            if (segmentStore != null) {
+                List<AuditLog> rows = segmentStore.find(query, after == null ? Long.MIN_VALUE : after.id(), size + 1);
+                boolean hasNext = rows.size() > size;
+                page = new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, PageRequest.of(0, size), hasNext);
+            } else if (after == null) {
+                page = auditRepository.findPage(query, query.from(), Long.MIN_VALUE, size);
+            } else {
+                page = auditRepository.findPage(query, after.timestamp(), after.id(), size);
+            }
+
+            log.info("Found {} audit records, more: {}", page.getNumberOfElements(), page.hasNext());
+            return page;
+
+        } catch (IllegalArgumentException e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Failed to list audit records for query: {} - Business Error: {}", query, e.getMessage(), e);
+            throw e;
+        } catch (Exception e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Failed to list audit records for query: {} - System Error: {}", query, e.getMessage(), e);
+            throw new BrokageFirmApiException("Failed to list audit records due to system error", e);
+        } finally {
+            timer.finish();
+        }
+    }
+
+    /**
+     * @return number of records written
+     */
+    public long export(AuditQuery query, OutputStream out) {
+        TimeUtil.ExecutionTimer timer = TimeUtil.startTimer("EXPORT_AUDIT_LOGS", log);
+
+        try {
+            validate(query);
+            log.info("Exporting audit records for query: {}", query);
+
+            long written;
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                // The servlet owns the response stream; rows are separated by newlines, not Jackson's default space
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                RowSink sink = new RowSink(generator);
+                if (segmentStore != null) {
+                    segmentStore.scan(query, sink);
+                } else {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        try (Stream<AuditLog> rows = auditRepository.stream(query)) {
+                            for (Iterator<AuditLog> it = rows.iterator(); it.hasNext(); ) {
+                                sink.test(it.next());
+                            }
+                        }
+                    });
+                }
+                generator.flush();
+                written = sink.count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            log.info("Exported {} audit records for query: {}", written, query);
+            return written;
+
+        } catch (IllegalArgumentException e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Audit export failed for query: {} - Business Error: {}", query, e.getMessage(), e);
+            throw e;
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-download; nothing left to answer
+            timer.finishWithError(e.getMessage());
+            log.warn("Audit export aborted for query: {} - {}", query, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Audit export failed for query: {} - System Error: {}", query, e.getMessage(), e);
+            throw new BrokageFirmApiException("Audit export failed due to system error", e);
+        } finally {
+            timer.finish();
+        }
+    }
+
+    private static void validate(AuditQuery query) {
+        if (query.from() == null || query.to() == null) {
+            throw new IllegalArgumentException("Audit queries need both ends of the time range");
+        }
+        if (!query.from().isBefore(query.to())) {
+            throw new IllegalArgumentException("Audit query range is empty: " + query.from() + " to " + query.to());
+        }
+    }
+
+    private final class RowSink implements Predicate<AuditLog> {
+
+        private final JsonGenerator generator;
+        private long count;
+
+        private RowSink(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public boolean test(AuditLog auditLog) {
+            try {
+                rowWriter.writeValue(generator, auditLog);
+                generator.writeRaw('\n');
+                if (++count % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -1,8 +1,18 @@
 package com.brokage.challenge.audit;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+
 @Repository
-public interface AuditRepository extends JpaRepository<AuditLog, Long> {
+public interface AuditRepository extends JpaRepository<AuditLog, Long>, AuditQueryRepository {
+
+    // Bounded so each call is one short transaction however many records expired
+    @Modifying
+    @Query(value = "DELETE FROM audit_logs WHERE timestamp < :cutoff FETCH FIRST :limit ROWS ONLY", nativeQuery = true)
+    int deleteTimestampBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
 }
@@ -1,46 +1,94 @@
 package com.brokage.challenge.audit;
 
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
+import java.util.function.Supplier;
 
+/**
+ * Hands audit records to the configured {@link AuditWriter}. A success only happened once the audited transaction
+ * commits, so inside one it is written after completion: as recorded on commit, as a FAILURE on rollback. Failures,
+ * and successes outside a transaction, are written right away.
+ */
 @Service
-@Transactional
 public class AuditService {
+
+    public static final String ROLLED_BACK = "Transaction rolled back after the audited call returned";
     
-    private final AuditRepository auditRepository;
+    private final AuditWriter auditWriter;
     
-    public AuditService(AuditRepository auditRepository) {
-        this.auditRepository = auditRepository;
+    public AuditService(AuditWriter auditWriter) {
+        this.auditWriter = auditWriter;
     }
     
     public void logSuccess(String operation, String entityType, Long entityId, String customerId, String details) {
-        AuditLog auditLog = AuditLog.builder()
-                .operation(operation)
-                .entityType(entityType)
-                .entityId(entityId)
-                .customerId(customerId)
+        writeSuccess(record(operation, entityType, entityId, customerId, AuditStatus.SUCCESS, null)
                 .details(details)
-                .status(AuditStatus.SUCCESS)
-                .timestamp(Instant.now())
-                .build();
-        
-        auditRepository.save(auditLog);
+                .build());
+    }
+    
+    /**
+     * As {@link #logSuccess(String, String, Long, String, String)}, with the details rendered when the record is
+     * written rather than now.
+     */
+    public void logSuccess(String operation, String entityType, Long entityId, String customerId, Supplier<String> details) {
+        writeSuccess(record(operation, entityType, entityId, customerId, AuditStatus.SUCCESS, null)
+                .detailsSource(details)
+                .build());
     }
     
     public void logFailure(String operation, String entityType, Long entityId, String customerId, String details, String errorMessage) {
-        AuditLog auditLog = AuditLog.builder()
+        auditWriter.write(record(operation, entityType, entityId, customerId, AuditStatus.FAILURE, errorMessage)
+                .details(details)
+                .build());
+    }
+    
+    public void logFailure(String operation, String entityType, Long entityId, String customerId, Supplier<String> details, String errorMessage) {
+        auditWriter.write(record(operation, entityType, entityId, customerId, AuditStatus.FAILURE, errorMessage)
+                .detailsSource(details)
+                .build());
+    }
+    
+    private void writeSuccess(AuditLog auditLog) {
+        onCompletion(() -> auditWriter.write(auditLog), () -> {
+            auditLog.setStatus(AuditStatus.FAILURE);
+            auditLog.setErrorMessage(ROLLED_BACK);
+            auditWriter.write(auditLog);
+        });
+    }
+
+    /**
+     * Runs {@code committed} once the surrounding transaction commits and {@code rolledBack} if it does not; outside
+     * a transaction {@code committed} runs right away.
+     */
+    static void onCompletion(Runnable committed, Runnable rolledBack) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            committed.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    committed.run();
+                } else {
+                    rolledBack.run();
+                }
+            }
+        });
+    }
+    
+    private static AuditLog.AuditLogBuilder record(String operation, String entityType, Long entityId, String customerId,
+                                                   AuditStatus status, String errorMessage) {
+        return AuditLog.builder()
                 .operation(operation)
                 .entityType(entityType)
                 .entityId(entityId)
                 .customerId(customerId)
-                .details(details)
-                .status(AuditStatus.FAILURE)
+                .status(status)
                 .timestamp(Instant.now())
-                .errorMessage(errorMessage)
-                .build();
-        
-        auditRepository.save(auditLog);
+                .errorMessage(errorMessage);
     }
 }
@@ -0,0 +1,16 @@
+package com.brokage.challenge.audit;
+
+/**
+ * Storage backend for audit records, selected with {@code audit.writer}.
+ */
+public interface AuditWriter {
+
+    void write(AuditLog auditLog);
+
+    /**
+     * Records accepted but not yet stored; writers that store on the caller's thread have none.
+     */
+    default int backlog() {
+        return 0;
+    }
+}
@@ -10,4 +10,8 @@ import java.lang.annotation.Target;
 public @interface Auditable {
     String operation();
     String entityType();
+    // Overridden by audit.policy.operations.<operation>.success
+    AuditMode success() default AuditMode.FULL;
+    // Overridden by audit.policy.operations.<operation>.sample-every
+    int sampleEvery() default 100;
 }
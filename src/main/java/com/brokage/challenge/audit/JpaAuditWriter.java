@@ -0,0 +1,27 @@
+package com.brokage.challenge.audit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Inserts each record right away in its own transaction: successes arrive after the audited transaction completed,
+ * and a failure must be kept when the audited transaction rolls back.
+ */
+@Component
+@ConditionalOnProperty(prefix = "audit", name = "writer", havingValue = "jpa", matchIfMissing = true)
+public class JpaAuditWriter implements AuditWriter {
+
+    private final AuditRepository auditRepository;
+
+    public JpaAuditWriter(AuditRepository auditRepository) {
+        this.auditRepository = auditRepository;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Override
+    public void write(AuditLog auditLog) {
+        auditRepository.save(auditLog);
+    }
+}
@@ -0,0 +1,155 @@
+package com.brokage.challenge.audit.segment;
+
+import com.brokage.challenge.audit.AuditLog;
+import com.brokage.challenge.audit.AuditQuery;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A sealed segment compacted into a compressed archive: a plain header ({@code MAGIC}, {@code FORMAT_VERSION}, the
+ * timestamp range and the end offset of the original records) followed by the records gzipped exactly as they were
+ * laid out in the segment. The header alone is enough to open the archive, so startup never decompresses one.
+ * <p>
+ * Scans stream through the archive record by record with the same byte-level filters as the mapped segment; there is
+ * no block index, so archives suit the occasional investigation rather than the hot path.
+ */
+final class ArchivedAuditSegment implements AuditSegmentFile {
+
+    static final int MAGIC = 0x42415541;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 28;
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final long id;
+    private final Path path;
+    private final long minMicros;
+    private final long maxMicros;
+    // Offset in the original segment just past the last record
+    private final int end;
+
+    private ArchivedAuditSegment(long id, Path path, long minMicros, long maxMicros, int end) {
+        this.id = id;
+        this.path = path;
+        this.minMicros = minMicros;
+        this.maxMicros = maxMicros;
+        this.end = end;
+    }
+
+    /**
+     * Compresses a sealed segment into {@code path}. The archive is written next to it under a temporary name and
+     * moved into place once complete, so a crash leaves either no archive or a whole one.
+     */
+    static ArchivedAuditSegment compact(AuditSegment segment, Path path) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        int end = segment.size();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream file = Channels.newOutputStream(channel);
+            DataOutputStream header = new DataOutputStream(file);
+            header.writeInt(MAGIC);
+            header.writeInt(FORMAT_VERSION);
+            header.writeLong(segment.minMicros());
+            header.writeLong(segment.maxMicros());
+            header.writeInt(end);
+            GZIPOutputStream gzip = new GZIPOutputStream(file, BUFFER_BYTES);
+            BufferedOutputStream out = new BufferedOutputStream(gzip, BUFFER_BYTES);
+            segment.writeRecords(out);
+            out.flush();
+            gzip.finish();
+            // On disk before it replaces the segment
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return new ArchivedAuditSegment(segment.id(), path, segment.minMicros(), segment.maxMicros(), end);
+    }
+
+    static ArchivedAuditSegment open(Path path, long id) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Not an audit segment archive: " + path);
+            }
+            return new ArchivedAuditSegment(id, path, in.readLong(), in.readLong(), in.readInt());
+        }
+    }
+
+    @Override
+    public long id() {
+        return id;
+    }
+
+    @Override
+    public Path path() {
+        return path;
+    }
+
+    @Override
+    public long minMicros() {
+        return minMicros;
+    }
+
+    @Override
+    public long maxMicros() {
+        return maxMicros;
+    }
+
+    @Override
+    public boolean scan(AuditQuery query, long afterId, Predicate<AuditLog> visitor) {
+        long fromMicros = query.from() == null ? Long.MIN_VALUE : AuditRecordCodec.toMicros(query.from());
+        long toMicros = query.to() == null ? Long.MAX_VALUE : AuditRecordCodec.toMicros(query.to());
+        byte[] customer = AuditRecordCodec.utf8(query.customerId());
+        byte[] operation = AuditRecordCodec.utf8(query.operation());
+        long afterOffset = afterId < AuditSegmentFile.recordId(id, 0) ? -1 : afterId - AuditSegmentFile.recordId(id, 0);
+        if (afterOffset >= end - 4) {
+            return true;
+        }
+
+        try (InputStream file = Files.newInputStream(path)) {
+            file.skipNBytes(HEADER_BYTES);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(file, BUFFER_BYTES), BUFFER_BYTES));
+            byte[] body = new byte[1024];
+            int position = AuditSegment.HEADER_BYTES;
+            while (position < end) {
+                int length = in.readInt();
+                if (length > body.length) {
+                    body = new byte[Math.max(length, body.length * 2)];
+                }
+                in.readFully(body, 0, length);
+                int offset = position;
+                position += 4 + length;
+                ByteBuffer record = ByteBuffer.wrap(body, 0, length);
+                if (offset <= afterOffset
+                        || !AuditRecordCodec.matches(record, 0, fromMicros, toMicros, query.status(), operation, customer)) {
+                    continue;
+                }
+                if (!visitor.test(AuditRecordCodec.decode(record, 0, AuditSegmentFile.recordId(id, offset)))) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (NoSuchFileException e) {
+            // Dropped by retention while the scan was on its way here
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read audit segment archive " + path, e);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.brokage.challenge.audit.segment;
+
+import com.brokage.challenge.audit.AuditLog;
+import com.brokage.challenge.audit.AuditStatus;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Binary layout of one audit record body in a segment:
+ * <pre>
+ * long   timestamp, microseconds since the epoch
+ * byte   status ordinal
+ * long   entity id, Long.MIN_VALUE for none
+ * string operation, entity type, customer id, details, error message
+ * </pre>
+ * A string is a varint of its UTF-8 length plus one (0 for {@code null}) followed by the bytes. Readers use the
+ * absolute accessors below, so filters run against the mapped bytes and only matching records are decoded.
+ */
+final class AuditRecordCodec {
+
+    static final int STATUS_OFFSET = 8;
+    static final int OPERATION_OFFSET = 17;
+
+    private static final AuditStatus[] STATUSES = AuditStatus.values();
+    private static final long NO_ENTITY = Long.MIN_VALUE;
+
+    private AuditRecordCodec() {
+    }
+
+    static byte[] encode(AuditLog auditLog) {
+        byte[][] strings = {
+                utf8(auditLog.getOperation()),
+                utf8(auditLog.getEntityType()),
+                utf8(auditLog.getCustomerId()),
+                utf8(auditLog.getDetails()),
+                utf8(auditLog.getErrorMessage())
+        };
+        int size = OPERATION_OFFSET;
+        for (byte[] string : strings) {
+            int length = string == null ? 0 : string.length;
+            size += varIntSize(length + 1) + length;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putLong(toMicros(auditLog.getTimestamp()));
+        out.put((byte) auditLog.getStatus().ordinal());
+        out.putLong(auditLog.getEntityId() == null ? NO_ENTITY : auditLog.getEntityId());
+        for (byte[] string : strings) {
+            if (string == null) {
+                putVarInt(out, 0);
+            } else {
+                putVarInt(out, string.length + 1);
+                out.put(string);
+            }
+        }
+        return out.array();
+    }
+
+    static AuditLog decode(ByteBuffer buffer, int body, long id) {
+        int position = body + OPERATION_OFFSET;
+        String operation = readString(buffer, position);
+        position = skipString(buffer, position);
+        String entityType = readString(buffer, position);
+        position = skipString(buffer, position);
+        String customerId = readString(buffer, position);
+        position = skipString(buffer, position);
+        String details = readString(buffer, position);
+        position = skipString(buffer, position);
+        String errorMessage = readString(buffer, position);
+
+        long entityId = buffer.getLong(body + STATUS_OFFSET + 1);
+        return AuditLog.builder()
+                .id(id)
+                .timestamp(fromMicros(timestampMicros(buffer, body)))
+                .status(status(buffer, body))
+                .entityId(entityId == NO_ENTITY ? null : entityId)
+                .operation(operation)
+                .entityType(entityType)
+                .customerId(customerId)
+                .details(details)
+                .errorMessage(errorMessage)
+                .build();
+    }
+
+    /**
+     * Applies a query's filters to the record at {@code body}; {@code null} filters match everything.
+     */
+    static boolean matches(ByteBuffer buffer, int body, long fromMicros, long toMicros, AuditStatus status,
+                           byte[] operation, byte[] customer) {
+        long micros = timestampMicros(buffer, body);
+        return micros >= fromMicros && micros < toMicros
+                && (status == null || status(buffer, body) == status)
+                && (operation == null || stringEquals(buffer, body + OPERATION_OFFSET, operation))
+                && (customer == null || stringEquals(buffer, customerOffset(buffer, body), customer));
+    }
+
+    static long timestampMicros(ByteBuffer buffer, int body) {
+        return buffer.getLong(body);
+    }
+
+    static AuditStatus status(ByteBuffer buffer, int body) {
+        return STATUSES[buffer.get(body + STATUS_OFFSET)];
+    }
+
+    static int customerOffset(ByteBuffer buffer, int body) {
+        return skipString(buffer, skipString(buffer, body + OPERATION_OFFSET));
+    }
+
+    /**
+     * Compares the string at {@code position} with {@code expected} (UTF-8) without decoding it.
+     */
+    static boolean stringEquals(ByteBuffer buffer, int position, byte[] expected) {
+        int encodedLength = readVarInt(buffer, position);
+        if (encodedLength != expected.length + 1) {
+            return false;
+        }
+        return buffer.slice(position + varIntSize(encodedLength), expected.length).equals(ByteBuffer.wrap(expected));
+    }
+
+    static String readString(ByteBuffer buffer, int position) {
+        int encodedLength = readVarInt(buffer, position);
+        if (encodedLength == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[encodedLength - 1];
+        buffer.get(position + varIntSize(encodedLength), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static long toMicros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    static Instant fromMicros(long micros) {
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int skipString(ByteBuffer buffer, int position) {
+        int encodedLength = readVarInt(buffer, position);
+        return position + varIntSize(encodedLength) + Math.max(encodedLength - 1, 0);
+    }
+
+    private static void putVarInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static int readVarInt(ByteBuffer buffer, int position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get(position++);
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
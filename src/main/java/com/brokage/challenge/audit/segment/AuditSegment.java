@@ -0,0 +1,239 @@
+package com.brokage.challenge.audit.segment;
+
+import com.brokage.challenge.audit.AuditLog;
+import com.brokage.challenge.audit.AuditQuery;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * One memory-mapped segment file. After an 8-byte header ({@code MAGIC}, {@code FORMAT_VERSION}) records are
+ * appended back to back, each as an {@code int} body length followed by the {@link AuditRecordCodec} body. The length
+ * is written after the body, so a zero length marks the end of the data, also after a crash mid-append.
+ * <p>
+ * The sparse index lives on the heap: every {@code RECORDS_PER_BLOCK} records start a block with its offset and
+ * timestamp range, and each customer maps to the blocks holding its records. Scans use it to pick the byte ranges
+ * worth reading and only decode the records that match.
+ */
+final class AuditSegment implements AuditSegmentFile {
+
+    static final int MAGIC = 0x42415544;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int RECORDS_PER_BLOCK = 128;
+
+    private final long id;
+    private final Path path;
+    private final MappedByteBuffer buffer;
+
+    // Guarded by this: the write position, published to readers on each append
+    private int limit = HEADER_BYTES;
+    private int records;
+    private int blocks;
+    private int[] blockOffsets = new int[64];
+    private long[] blockMinMicros = new long[64];
+    private long[] blockMaxMicros = new long[64];
+    private long minMicros = Long.MAX_VALUE;
+    private long maxMicros = Long.MIN_VALUE;
+    private final Map<String, BitSet> customerBlocks = new HashMap<>();
+
+    private AuditSegment(long id, Path path, MappedByteBuffer buffer) {
+        this.id = id;
+        this.path = path;
+        this.buffer = buffer;
+    }
+
+    static AuditSegment create(Path path, long id, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            AuditSegment segment = new AuditSegment(id, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            segment.buffer.putInt(0, MAGIC);
+            segment.buffer.putInt(4, FORMAT_VERSION);
+            return segment;
+        }
+    }
+
+    /**
+     * Renames a segment that has not been appended to yet, e.g. one created ahead under a temporary name.
+     */
+    AuditSegment moveTo(Path target) throws IOException {
+        Files.move(path, target, StandardCopyOption.ATOMIC_MOVE);
+        return new AuditSegment(id, target, buffer);
+    }
+
+    /**
+     * Maps an existing segment and rebuilds its index by walking the records up to the first zero length.
+     */
+    static AuditSegment open(Path path, long id, boolean writable) throws IOException {
+        try (FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(
+                    writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("Not an audit segment: " + path);
+            }
+            AuditSegment segment = new AuditSegment(id, path, buffer);
+            int position = HEADER_BYTES;
+            while (position + 4 <= buffer.capacity()) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || position + 4 + length > buffer.capacity()) {
+                    break;
+                }
+                int body = position + 4;
+                segment.index(position, AuditRecordCodec.timestampMicros(buffer, body),
+                        AuditRecordCodec.readString(buffer, AuditRecordCodec.customerOffset(buffer, body)));
+                position = body + length;
+            }
+            segment.limit = position;
+            return segment;
+        }
+    }
+
+    @Override
+    public long id() {
+        return id;
+    }
+
+    @Override
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * @return false if the record does not fit; the segment is then full
+     */
+    synchronized boolean append(AuditLog auditLog, byte[] body) {
+        if (limit + 4 + body.length > buffer.capacity()) {
+            return false;
+        }
+        buffer.put(limit + 4, body);
+        buffer.putInt(limit, body.length);
+        index(limit, AuditRecordCodec.toMicros(auditLog.getTimestamp()), auditLog.getCustomerId());
+        limit += 4 + body.length;
+        return true;
+    }
+
+    synchronized int size() {
+        return limit;
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    synchronized int records() {
+        return records;
+    }
+
+    @Override
+    public synchronized long minMicros() {
+        return minMicros;
+    }
+
+    @Override
+    public synchronized long maxMicros() {
+        return maxMicros;
+    }
+
+    void force() {
+        int end;
+        synchronized (this) {
+            end = limit;
+        }
+        buffer.force(0, end);
+    }
+
+    /**
+     * Copies the records, without the file header, to {@code out}; the caller makes sure no append runs meanwhile.
+     */
+    void writeRecords(OutputStream out) throws IOException {
+        int end = size();
+        Channels.newChannel(out).write(buffer.slice(HEADER_BYTES, end - HEADER_BYTES));
+    }
+
+    @Override
+    public boolean scan(AuditQuery query, long afterId, Predicate<AuditLog> visitor) {
+        long fromMicros = query.from() == null ? Long.MIN_VALUE : AuditRecordCodec.toMicros(query.from());
+        long toMicros = query.to() == null ? Long.MAX_VALUE : AuditRecordCodec.toMicros(query.to());
+        byte[] customer = AuditRecordCodec.utf8(query.customerId());
+        byte[] operation = AuditRecordCodec.utf8(query.operation());
+        // Records at or before this offset were already returned
+        long afterOffset = afterId < AuditSegmentFile.recordId(id, 0) ? -1 : afterId - AuditSegmentFile.recordId(id, 0);
+
+        // Byte ranges of the blocks that can hold a match, as (start, end) pairs
+        int[] ranges;
+        int rangeCount = 0;
+        synchronized (this) {
+            BitSet candidates = customer == null ? null : customerBlocks.get(query.customerId());
+            if (blocks == 0 || (customer != null && candidates == null)) {
+                return true;
+            }
+            ranges = new int[blocks * 2];
+            for (int block = 0; block < blocks; block++) {
+                int blockEnd = block + 1 < blocks ? blockOffsets[block + 1] : limit;
+                if (blockEnd <= afterOffset
+                        || (candidates != null && !candidates.get(block))
+                        || blockMaxMicros[block] < fromMicros || blockMinMicros[block] >= toMicros) {
+                    continue;
+                }
+                ranges[rangeCount++] = blockOffsets[block];
+                ranges[rangeCount++] = blockEnd;
+            }
+        }
+
+        for (int r = 0; r < rangeCount; r += 2) {
+            int position = ranges[r];
+            int end = ranges[r + 1];
+            while (position < end) {
+                int body = position + 4;
+                position = body + buffer.getInt(position);
+                if (body - 4 <= afterOffset) {
+                    continue;
+                }
+                if (!AuditRecordCodec.matches(buffer, body, fromMicros, toMicros, query.status(), operation, customer)) {
+                    continue;
+                }
+                if (!visitor.test(AuditRecordCodec.decode(buffer, body, AuditSegmentFile.recordId(id, body - 4)))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void index(int offset, long micros, String customerId) {
+        if (records % RECORDS_PER_BLOCK == 0) {
+            if (blocks == blockOffsets.length) {
+                blockOffsets = Arrays.copyOf(blockOffsets, blocks * 2);
+                blockMinMicros = Arrays.copyOf(blockMinMicros, blocks * 2);
+                blockMaxMicros = Arrays.copyOf(blockMaxMicros, blocks * 2);
+            }
+            blockOffsets[blocks] = offset;
+            blockMinMicros[blocks] = Long.MAX_VALUE;
+            blockMaxMicros[blocks] = Long.MIN_VALUE;
+            blocks++;
+        }
+        int block = blocks - 1;
+        blockMinMicros[block] = Math.min(blockMinMicros[block], micros);
+        blockMaxMicros[block] = Math.max(blockMaxMicros[block], micros);
+        minMicros = Math.min(minMicros, micros);
+        maxMicros = Math.max(maxMicros, micros);
+        if (customerId != null) {
+            customerBlocks.computeIfAbsent(customerId, c -> new BitSet()).set(block);
+        }
+        records++;
+    }
+}
@@ -0,0 +1,34 @@
+package com.brokage.challenge.audit.segment;
+
+import com.brokage.challenge.audit.AuditLog;
+import com.brokage.challenge.audit.AuditQuery;
+
+import java.nio.file.Path;
+import java.util.function.Predicate;
+
+/**
+ * A segment as the store reads it: a mapped {@link AuditSegment}, or a sealed one compacted into an
+ * {@link ArchivedAuditSegment}. Record ids are the same in both forms.
+ */
+interface AuditSegmentFile {
+
+    long id();
+
+    Path path();
+
+    long minMicros();
+
+    long maxMicros();
+
+    /**
+     * Feeds the matching records with an id above {@code afterId} to {@code visitor} in append order.
+     *
+     * @return false if the visitor asked to stop
+     */
+    boolean scan(AuditQuery query, long afterId, Predicate<AuditLog> visitor);
+
+    // Unique across segments and increasing in append order
+    static long recordId(long segmentId, int offset) {
+        return (segmentId << 32) | offset;
+    }
+}
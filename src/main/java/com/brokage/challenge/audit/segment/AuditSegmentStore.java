@@ -0,0 +1,350 @@
+package com.brokage.challenge.audit.segment;
+
+import com.brokage.challenge.audit.AuditLog;
+import com.brokage.challenge.audit.AuditQuery;
+import com.brokage.challenge.audit.AuditService;
+import com.brokage.challenge.audit.AuditWriter;
+import com.brokage.challenge.util.ThreadFactories;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Audit storage in rolling memory-mapped segment files instead of the {@code audit_logs} table. Appends go to the
+ * newest segment in order, under one lock that only covers copying the record. When a segment is full it is swapped
+ * for the next one, which the force thread created ahead of time; the sealed segment is forced on that thread too, so
+ * no writer waits for a file to be created or synced. The active segment is forced every
+ * {@code audit.segment.force-interval}, so a crash of the machine loses at most that much.
+ * <p>
+ * Segments are also rolled at every {@code audit.segment.partition} boundary, so each time bucket is a set of whole
+ * files. A background task drops the buckets older than {@code audit.segment.retention} by deleting their files and
+ * compacts sealed ones older than {@code audit.segment.compact-after} into {@link ArchivedAuditSegment}s. It only
+ * touches sealed segments and swaps them in the copy-on-write segment list, so it never takes the append lock.
+ * <p>
+ * Appended records cannot be taken back, so successes reach the store through {@link AuditService} only after the
+ * audited transaction committed; a rolled-back one arrives as a FAILURE.
+ * <p>
+ * Reads walk the mapped files through each segment's sparse index and never copy a segment onto the heap.
+ */
+@Component
+@ConditionalOnProperty(prefix = "audit", name = "writer", havingValue = "segment")
+public class AuditSegmentStore implements AuditWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditSegmentStore.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("audit-(\\d{20})\\.seg(\\.gz)?");
+    private static final String ARCHIVE_SUFFIX = ".gz";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long partitionMicros;
+    // Zero keeps segments forever / never compacts them
+    private final Duration retention;
+    private final Duration compactAfter;
+    private final ScheduledExecutorService forcer =
+            Executors.newSingleThreadScheduledExecutor(ThreadFactories.named("audit-segment-force", false));
+    private final ScheduledExecutorService maintainer =
+            Executors.newSingleThreadScheduledExecutor(ThreadFactories.named("audit-segment-maintenance", false));
+
+    // Oldest first; the last one takes appends. Only the maintenance task removes or replaces entries
+    private final List<AuditSegmentFile> segments = new CopyOnWriteArrayList<>();
+    // A lock rather than a monitor, so virtual threads waiting on it do not pin their carrier
+    private final ReentrantLock appendLock = new ReentrantLock();
+    // Guarded by appendLock
+    private AuditSegment active;
+    // The segment after the active one, being created on the force thread
+    private Future<AuditSegment> next;
+
+    private final Counter droppedCounter;
+    private final Counter compactedCounter;
+
+    public AuditSegmentStore(MeterRegistry meterRegistry,
+                             @Value("${audit.segment.directory:${java.io.tmpdir}/brokage-audit}") Path directory,
+                             @Value("${audit.segment.size:64MB}") DataSize segmentSize,
+                             @Value("${audit.segment.force-interval:1s}") Duration forceInterval,
+                             @Value("${audit.segment.partition:1d}") Duration partition,
+                             @Value("${audit.segment.retention:90d}") Duration retention,
+                             @Value("${audit.segment.compact-after:2d}") Duration compactAfter,
+                             @Value("${audit.segment.maintenance-interval:1h}") Duration maintenanceInterval) throws IOException {
+        if (segmentSize.toBytes() > Integer.MAX_VALUE || segmentSize.toBytes() <= AuditSegment.HEADER_BYTES) {
+            throw new IllegalArgumentException("audit.segment.size must be between 1KB and 2GB: " + segmentSize);
+        }
+        if (partition.toMillis() <= 0) {
+            throw new IllegalArgumentException("audit.segment.partition must be positive: " + partition);
+        }
+        this.directory = directory;
+        this.segmentSize = (int) segmentSize.toBytes();
+        this.partitionMicros = TimeUnit.NANOSECONDS.toMicros(partition.toNanos());
+        this.retention = retention;
+        this.compactAfter = compactAfter;
+        open();
+
+        Gauge.builder("audit.segment.count", segments, List::size)
+                .description("Audit segment files currently mapped or archived")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.segment.dropped")
+                .description("Audit segment files deleted by retention")
+                .register(meterRegistry);
+        this.compactedCounter = Counter.builder("audit.segment.compacted")
+                .description("Audit segment files compacted into archives")
+                .register(meterRegistry);
+        forcer.scheduleWithFixedDelay(this::forceActive,
+                forceInterval.toMillis(), forceInterval.toMillis(), TimeUnit.MILLISECONDS);
+        maintainer.scheduleWithFixedDelay(() -> maintain(Instant.now()),
+                maintenanceInterval.toMillis(), maintenanceInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        // Per id the archive wins: a crash between archiving and deleting leaves both
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (Stream<Path> listing = Files.list(directory)) {
+            for (Path file : listing.toList()) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (file.getFileName().toString().endsWith(TEMPORARY_SUFFIX)) {
+                    Files.delete(file);
+                } else if (matcher.matches()) {
+                    files.merge(Long.parseLong(matcher.group(1)), file, (a, b) -> isArchive(a) ? a : b);
+                }
+            }
+        }
+        long lastId = files.isEmpty() ? 0 : files.lastKey();
+        for (var entry : files.entrySet()) {
+            Path file = entry.getValue();
+            if (isArchive(file)) {
+                Files.deleteIfExists(directory.resolve(segmentName(entry.getKey())));
+                segments.add(ArchivedAuditSegment.open(file, entry.getKey()));
+            } else {
+                segments.add(AuditSegment.open(file, entry.getKey(), entry.getKey() == lastId));
+            }
+        }
+        if (!segments.isEmpty() && segments.getLast() instanceof AuditSegment last) {
+            active = last;
+        } else {
+            active = AuditSegment.create(directory.resolve(segmentName(lastId + 1)), lastId + 1, segmentSize);
+            segments.add(active);
+        }
+        next = prepare(active.id() + 1);
+        log.info("Audit segment store opened {} segments in {}", segments.size(), directory);
+    }
+
+    @Override
+    public void write(AuditLog auditLog) {
+        byte[] body = AuditRecordCodec.encode(auditLog);
+        if (AuditSegment.HEADER_BYTES + 4 + body.length > segmentSize) {
+            throw new IllegalArgumentException("Audit record of " + body.length + " bytes does not fit in a segment");
+        }
+        long partition = Math.floorDiv(AuditRecordCodec.toMicros(auditLog.getTimestamp()), partitionMicros);
+        AuditSegment sealed = null;
+        appendLock.lock();
+        try {
+            // A record from before the active segment's bucket, racing across the boundary, stays where it lands
+            if (active.records() > 0 && partition > Math.floorDiv(active.maxMicros(), partitionMicros)) {
+                sealed = roll();
+            }
+            if (!active.append(auditLog, body)) {
+                sealed = roll();
+                active.append(auditLog, body);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        if (sealed != null) {
+            forceLater(sealed);
+        }
+    }
+
+    /**
+     * Feeds the records matching {@code query} to {@code visitor}, oldest segment first and in append order within
+     * a segment, until the visitor returns false. Segments whose time range misses the query are skipped unread.
+     */
+    public void scan(AuditQuery query, Predicate<AuditLog> visitor) {
+        scan(query, Long.MIN_VALUE, visitor);
+    }
+
+    /**
+     * As {@link #scan(AuditQuery, Predicate)}, resuming after the record with id {@code afterId}. Ids grow in append
+     * order, so they work as a keyset position; segments before it are skipped unread.
+     */
+    public void scan(AuditQuery query, long afterId, Predicate<AuditLog> visitor) {
+        long afterSegment = afterId >> 32;
+        long fromMicros = query.from() == null ? Long.MIN_VALUE : AuditRecordCodec.toMicros(query.from());
+        long toMicros = query.to() == null ? Long.MAX_VALUE : AuditRecordCodec.toMicros(query.to());
+        for (AuditSegmentFile segment : segments) {
+            if (segment.id() < afterSegment || segment.maxMicros() < fromMicros || segment.minMicros() >= toMicros) {
+                continue;
+            }
+            if (!segment.scan(query, afterId, visitor)) {
+                return;
+            }
+        }
+    }
+
+    public List<AuditLog> find(AuditQuery query, int limit) {
+        return find(query, Long.MIN_VALUE, limit);
+    }
+
+    public List<AuditLog> find(AuditQuery query, long afterId, int limit) {
+        List<AuditLog> found = new ArrayList<>(Math.min(limit, 1024));
+        scan(query, afterId, auditLog -> {
+            found.add(auditLog);
+            return found.size() < limit;
+        });
+        return found;
+    }
+
+    /**
+     * Drops sealed segments whose newest record is older than the retention and compacts those older than
+     * {@code compact-after}. Runs on the maintenance thread; a failure leaves the segment as it was for the next run.
+     */
+    void maintain(Instant now) {
+        long dropBefore = retention.isZero() ? Long.MIN_VALUE : AuditRecordCodec.toMicros(now.minus(retention));
+        long compactBefore = compactAfter.isZero() ? Long.MIN_VALUE : AuditRecordCodec.toMicros(now.minus(compactAfter));
+        AuditSegment current = active();
+        for (AuditSegmentFile segment : segments) {
+            // Everything from the active segment on may still be appended to
+            if (segment.id() >= current.id()) {
+                break;
+            }
+            try {
+                if (segment.maxMicros() < dropBefore) {
+                    segments.remove(segment);
+                    Files.deleteIfExists(segment.path());
+                    droppedCounter.increment();
+                    log.info("Dropped expired audit segment {}", segment.path());
+                } else if (segment instanceof AuditSegment sealed && sealed.records() > 0
+                        && sealed.maxMicros() < compactBefore) {
+                    ArchivedAuditSegment archived = ArchivedAuditSegment.compact(sealed,
+                            directory.resolve(segmentName(sealed.id()) + ARCHIVE_SUFFIX));
+                    segments.replaceAll(s -> s == sealed ? archived : s);
+                    Files.delete(sealed.path());
+                    compactedCounter.increment();
+                    log.info("Compacted audit segment {} from {} to {} bytes",
+                            sealed.path(), sealed.size(), Files.size(archived.path()));
+                }
+            } catch (Exception e) {
+                log.error("Maintenance of audit segment {} failed: {}", segment.path(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Makes the segment created ahead the active one and starts creating its successor; the caller holds the append
+     * lock. Taking it over is a rename, and only waits if the successor of a roll moments ago is not ready yet.
+     *
+     * @return the segment that was active, to be forced outside the lock
+     */
+    private AuditSegment roll() {
+        AuditSegment sealed = active;
+        long id = sealed.id() + 1;
+        try {
+            AuditSegment segment = (next == null ? createAhead(id) : next.get())
+                    .moveTo(directory.resolve(segmentName(id)));
+            segments.add(segment);
+            active = segment;
+            log.info("Started audit segment {}", segment.path());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for audit segment " + id, e);
+        } catch (IOException | ExecutionException e) {
+            throw new UncheckedIOException("Could not create audit segment " + id + " in " + directory,
+                    e instanceof IOException io ? io : new IOException(e.getCause()));
+        }
+        next = prepare(id + 1);
+        return sealed;
+    }
+
+    /**
+     * Creates the segment {@code id} on the force thread under a temporary name, which {@link #open()} cleans up if
+     * it is never used; null once the store is shutting down, so the next roll creates it in place.
+     */
+    private Future<AuditSegment> prepare(long id) {
+        try {
+            return forcer.submit(() -> createAhead(id));
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    private AuditSegment createAhead(long id) throws IOException {
+        return AuditSegment.create(directory.resolve(segmentName(id) + TEMPORARY_SUFFIX), id, segmentSize);
+    }
+
+    private AuditSegment active() {
+        appendLock.lock();
+        try {
+            return active;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void forceLater(AuditSegment sealed) {
+        try {
+            forcer.execute(() -> force(sealed));
+        } catch (RejectedExecutionException e) {
+            force(sealed);
+        }
+    }
+
+    private void forceActive() {
+        force(active());
+    }
+
+    private static void force(AuditSegment segment) {
+        try {
+            segment.force();
+        } catch (Exception e) {
+            log.error("Forcing audit segment {} failed: {}", segment.path(), e.getMessage(), e);
+        }
+    }
+
+    private static String segmentName(long id) {
+        return String.format("audit-%020d.seg", id);
+    }
+
+    private static boolean isArchive(Path file) {
+        return file.getFileName().toString().endsWith(ARCHIVE_SUFFIX);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        maintainer.shutdown();
+        forcer.shutdown();
+        maintainer.awaitTermination(10, TimeUnit.SECONDS);
+        forcer.awaitTermination(10, TimeUnit.SECONDS);
+        forceActive();
+        log.info("Audit segment store closed");
+    }
+}
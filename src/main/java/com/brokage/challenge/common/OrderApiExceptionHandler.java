@@ -4,10 +4,13 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
+import com.brokage.challenge.exception.IdempotencyConflictException;
 import com.brokage.challenge.exception.InvalidCustomerException;
 import com.brokage.challenge.exception.InvalidOrderException;
+import com.brokage.challenge.exception.OrderIntakeRejectedException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -88,6 +91,21 @@ public class OrderApiExceptionHandler {
                 .body(new OrderApiErrorResponse(exception.getMessage(), null));
     }
 
+    @ExceptionHandler(OrderIntakeRejectedException.class)
+    public ResponseEntity<OrderApiErrorResponse> handleOrderIntakeRejectedError(OrderIntakeRejectedException exception) {
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new OrderApiErrorResponse(exception.getMessage(), null));
+    }
+
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<OrderApiErrorResponse> handleIdempotencyConflictError(IdempotencyConflictException exception) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new OrderApiErrorResponse(exception.getMessage(), null));
+    }
+
     @ExceptionHandler(MissingServletRequestParameterException.class)
     public ResponseEntity<OrderApiErrorResponse> handleMissingServletRequestParameterError(MissingServletRequestParameterException exception) {
         return ResponseEntity
@@ -4,16 +4,18 @@ import com.brokage.challenge.dto.AssetResponse;
 import com.brokage.challenge.mapper.AssetResponseMapper;
 import com.brokage.challenge.exception.BrokageFirmApiException;
 import com.brokage.challenge.service.AssetService;
+import com.brokage.challenge.service.impl.CustomerVersions;
 import com.brokage.challenge.util.TimeUtil;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -24,19 +26,29 @@ public class AssetController {
     private static final Logger log = LoggerFactory.getLogger(AssetController.class);
     
     private final AssetService assetService;
+    private final CustomerVersions customerVersions;
 
-    public AssetController(AssetService assetService) {
+    public AssetController(AssetService assetService, CustomerVersions customerVersions) {
         this.assetService = assetService;
+        this.customerVersions = customerVersions;
     }
 
+    /**
+     * Answers {@code 304 Not Modified} without reading the assets when {@code If-None-Match} carries the customer's
+     * current version.
+     */
     @GetMapping("/list")
-    @ResponseStatus(HttpStatus.OK)
-    public List<AssetResponse> listAssets(@RequestParam String customerId) {
+    public ResponseEntity<List<AssetResponse>> listAssets(@RequestParam String customerId, WebRequest request) {
         TimeUtil.ExecutionTimer timer = TimeUtil.startTimer("LIST_ASSETS_CONTROLLER", log);
         
         try {
             log.info("Asset list request received for customer: {}", customerId);
             
+            if (request.checkNotModified(customerVersions.etag(customerId))) {
+                log.info("Asset list not modified for customer: {}", customerId);
+                return null;
+            }
+            
             List<AssetResponse> responses = assetService.listAssets(customerId)
                     .stream()
                     .map(AssetResponseMapper::toAssetResponse)
@@ -45,7 +57,7 @@ public class AssetController {
             log.info("Asset list response prepared for customer: {}, found {} assets", 
                     customerId, responses.size());
             
-            return responses;
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(responses);
             
         } catch (Exception e) {
             timer.finishWithError(e.getMessage());
@@ -0,0 +1,104 @@
+package com.brokage.challenge.controller;
+
+import com.brokage.challenge.audit.AuditCursor;
+import com.brokage.challenge.audit.AuditLog;
+import com.brokage.challenge.audit.AuditPageResponse;
+import com.brokage.challenge.audit.AuditQuery;
+import com.brokage.challenge.audit.AuditQueryService;
+import com.brokage.challenge.audit.AuditStatus;
+import com.brokage.challenge.exception.BrokageFirmApiException;
+import com.brokage.challenge.util.TimeUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/audit")
+public class AuditController {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditController.class);
+
+    private final AuditQueryService auditQueryService;
+
+    public AuditController(AuditQueryService auditQueryService) {
+        this.auditQueryService = auditQueryService;
+    }
+
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    public AuditPageResponse listAuditLogs(
+            @RequestParam Instant from,
+            @RequestParam Instant to,
+            @RequestParam(required = false) String customer,
+            @RequestParam(required = false) String operation,
+            @RequestParam(required = false) AuditStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        TimeUtil.ExecutionTimer timer = TimeUtil.startTimer("LIST_AUDIT_LOGS_CONTROLLER", log);
+
+        try {
+            log.info("Audit list request received for customer: {}, operation: {} between {} and {}",
+                    customer, operation, from, to);
+
+            AuditCursor after = isBlank(cursor) ? null : AuditCursor.decode(cursor);
+            Slice<AuditLog> page = auditQueryService.findPage(query(from, to, customer, operation, status), after, limit);
+            List<AuditLog> records = page.getContent();
+
+            String nextCursor = null;
+            if (page.hasNext()) {
+                AuditLog last = records.get(records.size() - 1);
+                nextCursor = new AuditCursor(last.getTimestamp(), last.getId()).encode();
+            }
+
+            log.info("Audit list response prepared, found {} records", records.size());
+            return new AuditPageResponse(records, nextCursor);
+
+        } catch (IllegalArgumentException e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Audit list request failed - Business Error: {}", e.getMessage(), e);
+            throw e;
+        } catch (Exception e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Audit list request failed - System Error: {}", e.getMessage(), e);
+            throw new BrokageFirmApiException("Audit list request failed due to system error", e);
+        } finally {
+            timer.finish();
+        }
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(
+            @RequestParam Instant from,
+            @RequestParam Instant to,
+            @RequestParam(required = false) String customer,
+            @RequestParam(required = false) String operation,
+            @RequestParam(required = false) AuditStatus status) {
+        log.info("Audit export request received for customer: {}, operation: {} between {} and {}",
+                customer, operation, from, to);
+
+        AuditQuery query = query(from, to, customer, operation, status);
+        StreamingResponseBody body = out -> auditQueryService.export(query, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"audit.ndjson\"")
+                .body(body);
+    }
+
+    private static AuditQuery query(Instant from, Instant to, String customer, String operation, AuditStatus status) {
+        return new AuditQuery(isBlank(customer) ? null : customer, isBlank(operation) ? null : operation, status, from, to);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isEmpty();
+    }
+}
@@ -1,25 +1,52 @@
 package com.brokage.challenge.controller;
 
 import com.brokage.challenge.mapper.OrderResponseMapper;
-import com.brokage.challenge.entity.Order;
+import com.brokage.challenge.enums.OrderSide;
+import com.brokage.challenge.enums.OrderStatus;
 import com.brokage.challenge.exception.BrokageFirmApiException;
 import com.brokage.challenge.exception.InvalidOrderException;
 import com.brokage.challenge.exception.InvalidCustomerException;
 import com.brokage.challenge.exception.InvalidAssetException;
+import com.brokage.challenge.exception.IdempotencyConflictException;
+import com.brokage.challenge.exception.OrderIntakeRejectedException;
+import com.brokage.challenge.idempotency.IdempotencyService;
+import com.brokage.challenge.readmodel.OrderReadModel;
+import com.brokage.challenge.service.impl.AsyncOrderIntake;
+import com.brokage.challenge.service.impl.CustomerVersions;
+import com.brokage.challenge.service.impl.OrderCommandGateway;
+import com.brokage.challenge.service.impl.OrderExportService;
+import com.brokage.challenge.service.impl.OrderRollupService;
 import com.brokage.challenge.service.impl.OrderServiceImpl;
 import com.brokage.challenge.util.TimeUtil;
 
 import jakarta.validation.Valid;
 
+import com.brokage.challenge.dto.BatchOrderItemResponse;
+import com.brokage.challenge.dto.BulkCancelResponse;
+import com.brokage.challenge.dto.CustomerOrderView;
+import com.brokage.challenge.dto.OrderCursor;
+import com.brokage.challenge.dto.OrderDailySummary;
+import com.brokage.challenge.dto.OrderFilter;
+import com.brokage.challenge.dto.OrderPageResponse;
 import com.brokage.challenge.dto.OrderResponse;
 import com.brokage.challenge.dto.CreateOrder;
+import com.brokage.challenge.dto.OrderTicketResponse;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -29,29 +56,51 @@ public class OrderController {
     private static final Logger log = LoggerFactory.getLogger(OrderController.class);
     
     private final OrderServiceImpl orderService;
+    private final OrderCommandGateway orderCommandGateway;
+    private final AsyncOrderIntake asyncOrderIntake;
+    private final IdempotencyService idempotencyService;
+    private final OrderExportService orderExportService;
+    private final CustomerVersions customerVersions;
+    private final OrderRollupService orderRollupService;
+    private final OrderReadModel orderReadModel;
 
-    public OrderController(OrderServiceImpl orderService) {
+    public OrderController(OrderServiceImpl orderService, OrderCommandGateway orderCommandGateway,
+                           AsyncOrderIntake asyncOrderIntake, IdempotencyService idempotencyService,
+                           OrderExportService orderExportService, CustomerVersions customerVersions,
+                           OrderRollupService orderRollupService, OrderReadModel orderReadModel) {
         this.orderService = orderService;
+        this.orderCommandGateway = orderCommandGateway;
+        this.asyncOrderIntake = asyncOrderIntake;
+        this.idempotencyService = idempotencyService;
+        this.orderExportService = orderExportService;
+        this.customerVersions = customerVersions;
+        this.orderRollupService = orderRollupService;
+        this.orderReadModel = orderReadModel;
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public OrderResponse create(@RequestBody @Valid CreateOrder req) {
+    public OrderResponse create(@RequestBody @Valid CreateOrder req,
+                                @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         TimeUtil.ExecutionTimer timer = TimeUtil.startTimer("CREATE_ORDER_CONTROLLER", log);
         
         try {
             log.info("Order creation request received for customer: {}, asset: {}, side: {}", 
                     req.customer(), req.asset(), req.side());
             
-            Order order = orderService.createOrder(req);
-            OrderResponse response = OrderResponseMapper.toOrderResponse(order);
+            OrderResponse response = idempotencyKey == null
+                    ? OrderResponseMapper.toOrderResponse(orderCommandGateway.createOrder(req))
+                    : idempotencyService.execute(idempotencyKey, req, recordOutcome -> OrderResponseMapper.toOrderResponse(
+                            orderCommandGateway.createOrder(req,
+                                    order -> recordOutcome.accept(OrderResponseMapper.toOrderResponse(order)))));
             
             log.info("Order creation response prepared for customer: {}, order ID: {}", 
-                    req.customer(), order.getId());
+                    req.customer(), response.id());
             
             return response;
             
-        } catch (InvalidOrderException | InvalidCustomerException | InvalidAssetException e) {
+        } catch (InvalidOrderException | InvalidCustomerException | InvalidAssetException
+                 | IdempotencyConflictException | IllegalArgumentException e) {
             timer.finishWithError(e.getMessage());
             log.error("Order creation request failed for customer: {} - Business Error: {}", 
                      req.customer(), e.getMessage(), e);
@@ -66,28 +115,119 @@ public class OrderController {
         }
     }
 
-    @GetMapping("/list")
+    @PostMapping("/batch")
     @ResponseStatus(HttpStatus.OK)
-    public List<OrderResponse> listOrders(
+    public List<BatchOrderItemResponse> createBatch(@RequestBody List<CreateOrder> requests) {
+        TimeUtil.ExecutionTimer timer = TimeUtil.startTimer("CREATE_ORDER_BATCH_CONTROLLER", log);
+        
+        try {
+            log.info("Order batch request received with {} orders", requests.size());
+            
+            List<BatchOrderItemResponse> responses = orderCommandGateway.createOrders(requests);
+            
+            log.info("Order batch response prepared, created {} of {} orders", 
+                    responses.stream().filter(BatchOrderItemResponse::created).count(), requests.size());
+            
+            return responses;
+            
+        } catch (IllegalArgumentException e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Order batch request failed - Business Error: {}", e.getMessage(), e);
+            throw e;
+        } catch (Exception e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Order batch request failed - System Error: {}", e.getMessage(), e);
+            throw new BrokageFirmApiException("Order batch request failed due to system error", e);
+        } finally {
+            timer.finish();
+        }
+    }
+
+    @PostMapping("/async")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public OrderTicketResponse submit(@RequestBody @Valid CreateOrder req) {
+        TimeUtil.ExecutionTimer timer = TimeUtil.startTimer("SUBMIT_ORDER_CONTROLLER", log);
+        
+        try {
+            log.info("Async order request received for customer: {}, asset: {}, side: {}", 
+                    req.customer(), req.asset(), req.side());
+            
+            OrderTicketResponse ticket = asyncOrderIntake.submit(req);
+            
+            log.info("Async order accepted for customer: {}, ticket: {}", req.customer(), ticket.ticketId());
+            
+            return ticket;
+            
+        } catch (OrderIntakeRejectedException e) {
+            timer.finishWithError(e.getMessage());
+            log.warn("Async order request rejected for customer: {} - Backpressure: {}", 
+                    req.customer(), e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Async order request failed for customer: {} - System Error: {}", 
+                     req.customer(), e.getMessage(), e);
+            throw new BrokageFirmApiException("Async order request failed due to system error", e);
+        } finally {
+            timer.finish();
+        }
+    }
+
+    @GetMapping("/async/{ticketId}")
+    @ResponseStatus(HttpStatus.OK)
+    public OrderTicketResponse getTicket(@PathVariable String ticketId) {
+        return asyncOrderIntake.findTicket(ticketId)
+                .orElseThrow(() -> new InvalidOrderException("Order ticket not found: " + ticketId));
+    }
+
+    /**
+     * Answers {@code 304 Not Modified} without querying when {@code If-None-Match} carries the customer's current
+     * version; the version covers every page of every range, as any order change bumps it.
+     */
+    @GetMapping("/list")
+    public ResponseEntity<OrderPageResponse> listOrders(
             @RequestParam String customer,
             @RequestParam Instant startDate,
-            @RequestParam Instant endDate) {
+            @RequestParam Instant endDate,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) OrderSide side,
+            @RequestParam(required = false) String asset,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit,
+            WebRequest request) {
         TimeUtil.ExecutionTimer timer = TimeUtil.startTimer("LIST_ORDERS_CONTROLLER", log);
         
         try {
             log.info("Order list request received for customer: {} between {} and {}", 
                     customer, startDate, endDate);
             
-            List<OrderResponse> responses = orderService.listOrders(customer, startDate, endDate)
-                    .stream()
-                    .map(OrderResponseMapper::toOrderResponse)
-                    .toList();
+            if (request.checkNotModified(customerVersions.etag(customer))) {
+                log.info("Order list not modified for customer: {}", customer);
+                return null;
+            }
+            
+            OrderCursor after = cursor == null || cursor.isEmpty() ? null : OrderCursor.decode(cursor);
+            OrderFilter filter = new OrderFilter(status, side, asset == null || asset.isEmpty() ? null : asset);
+            Slice<OrderResponse> page = orderService.listOrders(customer, startDate, endDate, filter, after, limit);
+            List<OrderResponse> responses = page.getContent();
+            
+            String nextCursor = null;
+            if (page.hasNext()) {
+                OrderResponse last = responses.get(responses.size() - 1);
+                nextCursor = new OrderCursor(last.createDate(), last.id()).encode();
+            }
             
             log.info("Order list response prepared for customer: {}, found {} orders", 
                     customer, responses.size());
             
-            return responses;
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(new OrderPageResponse(responses, nextCursor));
             
+        } catch (IllegalArgumentException e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Order list request failed for customer: {} - Business Error: {}", 
+                     customer, e.getMessage(), e);
+            throw e;
         } catch (Exception e) {
             timer.finishWithError(e.getMessage());
             log.error("Order list request failed for customer: {} - System Error: {}", 
@@ -98,6 +238,91 @@ public class OrderController {
         }
     }
 
+    /**
+     * Open orders, latest orders and open totals per asset from the read model; conditional like {@code /list}.
+     */
+    @GetMapping("/view")
+    public ResponseEntity<CustomerOrderView> viewOrders(@RequestParam String customer, WebRequest request) {
+        TimeUtil.ExecutionTimer timer = TimeUtil.startTimer("VIEW_ORDERS_CONTROLLER", log);
+        
+        try {
+            log.info("Order view request received for customer: {}", customer);
+            
+            if (request.checkNotModified(customerVersions.etag(customer))) {
+                log.info("Order view not modified for customer: {}", customer);
+                return null;
+            }
+            
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(orderReadModel.view(customer));
+            
+        } catch (Exception e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Order view request failed for customer: {} - System Error: {}", 
+                     customer, e.getMessage(), e);
+            throw new BrokageFirmApiException("Order view request failed due to system error", e);
+        } finally {
+            timer.finish();
+        }
+    }
+
+    @GetMapping("/summary")
+    @ResponseStatus(HttpStatus.OK)
+    public List<OrderDailySummary> summarizeOrders(
+            @RequestParam String customer,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String asset) {
+        TimeUtil.ExecutionTimer timer = TimeUtil.startTimer("SUMMARIZE_ORDERS_CONTROLLER", log);
+        
+        try {
+            log.info("Order summary request received for customer: {} between {} and {}", customer, from, to);
+            return orderRollupService.summarize(customer, from, to, asset);
+            
+        } catch (IllegalArgumentException e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Order summary request failed for customer: {} - Business Error: {}", 
+                     customer, e.getMessage(), e);
+            throw e;
+        } catch (Exception e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Order summary request failed for customer: {} - System Error: {}", 
+                     customer, e.getMessage(), e);
+            throw new BrokageFirmApiException("Order summary request failed due to system error", e);
+        } finally {
+            timer.finish();
+        }
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam String customer,
+            @RequestParam Instant startDate,
+            @RequestParam Instant endDate) {
+        log.info("Order export request received for customer: {} between {} and {}", customer, startDate, endDate);
+        
+        // Runs after this method returned, once the response is being written, so it is timed and logged on its own
+        StreamingResponseBody body = out -> {
+            TimeUtil.ExecutionTimer timer = TimeUtil.startTimer("EXPORT_ORDERS_CONTROLLER", log);
+            
+            try {
+                orderExportService.exportOrders(customer, startDate, endDate, out);
+                
+            } catch (Exception e) {
+                timer.finishWithError(e.getMessage());
+                log.error("Order export request failed for customer: {} - System Error: {}", 
+                         customer, e.getMessage(), e);
+                throw e;
+            } finally {
+                timer.finish();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders-" + customer + ".ndjson\"")
+                .body(body);
+    }
+
     @DeleteMapping("/{orderId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteOrder(@PathVariable Long orderId) {
@@ -106,7 +331,7 @@ public class OrderController {
         try {
             log.info("Order deletion request received for order ID: {}", orderId);
             
-            orderService.deleteOrder(orderId);
+            orderCommandGateway.deleteOrder(orderId);
             
             log.info("Order deletion completed for order ID: {}", orderId);
             
@@ -124,6 +349,39 @@ public class OrderController {
             timer.finish();
         }
     }
+
+    @DeleteMapping
+    @ResponseStatus(HttpStatus.OK)
+    public BulkCancelResponse cancelOrders(
+            @RequestParam String customer,
+            @RequestParam(required = false) String asset,
+            @RequestParam(required = false) OrderSide side) {
+        TimeUtil.ExecutionTimer timer = TimeUtil.startTimer("CANCEL_ORDERS_CONTROLLER", log);
+        
+        try {
+            log.info("Bulk cancel request received for customer: {}, asset: {}, side: {}", customer, asset, side);
+            
+            BulkCancelResponse response = orderCommandGateway.cancelOrders(customer, asset, side);
+            
+            log.info("Bulk cancel completed for customer: {}, cancelled {} orders", 
+                    customer, response.cancelledCount());
+            
+            return response;
+            
+        } catch (InvalidOrderException | IllegalArgumentException e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Bulk cancel request failed for customer: {} - Business Error: {}", 
+                     customer, e.getMessage(), e);
+            throw e;
+        } catch (Exception e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Bulk cancel request failed for customer: {} - System Error: {}", 
+                     customer, e.getMessage(), e);
+            throw new BrokageFirmApiException("Bulk cancel request failed due to system error", e);
+        } finally {
+            timer.finish();
+        }
+    }
 }
 
 
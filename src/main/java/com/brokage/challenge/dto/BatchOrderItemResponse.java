@@ -0,0 +1,21 @@
+package com.brokage.challenge.dto;
+
+public record BatchOrderItemResponse(
+            int index,
+            boolean created,
+            OrderResponse order,
+            String error
+        ) {
+
+    public static BatchOrderItemResponse created(int index, OrderResponse order) {
+        return new BatchOrderItemResponse(index, true, order, null);
+    }
+
+    public static BatchOrderItemResponse rejected(int index, String error) {
+        return new BatchOrderItemResponse(index, false, null, error);
+    }
+
+    public BatchOrderItemResponse withIndex(int newIndex) {
+        return new BatchOrderItemResponse(newIndex, created, order, error);
+    }
+}
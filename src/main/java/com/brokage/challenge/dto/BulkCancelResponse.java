@@ -0,0 +1,11 @@
+package com.brokage.challenge.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record BulkCancelResponse(
+            String customerId,
+            int cancelledCount,
+            List<Long> cancelledOrderIds,
+            Map<String, Long> refunded
+        ) {}
@@ -7,6 +7,7 @@ import org.springframework.validation.annotation.Validated;
 import com.brokage.challenge.enums.OrderSide;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
@@ -16,5 +17,6 @@ public record CreateOrder(
             @NotNull OrderSide side,
             @NotNull String asset,
             @NotNull @Min(value = 1, message = "Size must be at least 1") Long size, 
-            @NotNull @DecimalMin(value = "0.01", message = "Price must be at least 0.01") BigDecimal price
+            @NotNull @DecimalMin(value = "0.01", message = "Price must be at least 0.01")
+            @Digits(integer = 14, fraction = 4, message = "Price must have at most 14 integer digits and 4 decimal places") BigDecimal price
     ) {}
\ No newline at end of file
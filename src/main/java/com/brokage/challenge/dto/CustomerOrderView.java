@@ -0,0 +1,14 @@
+package com.brokage.challenge.dto;
+
+import java.util.List;
+
+/**
+ * A customer's orders as held by the read model: open orders oldest first, the most recent orders of any status
+ * newest first, and open totals per asset.
+ */
+public record CustomerOrderView(
+            String customerId,
+            List<OrderResponse> openOrders,
+            List<OrderResponse> recentOrders,
+            List<OrderAssetTotals> assetTotals
+        ) {}
@@ -0,0 +1,12 @@
+package com.brokage.challenge.dto;
+
+/**
+ * Open (PENDING) orders of a customer in one asset: how many there are per side and the quantity still unfilled.
+ */
+public record OrderAssetTotals(
+            String asset,
+            long openBuyOrders,
+            long openBuyQuantity,
+            long openSellOrders,
+            long openSellQuantity
+        ) {}
@@ -0,0 +1,31 @@
+package com.brokage.challenge.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Keyset position in an order listing: the {@code (createDate, id)} of the last order already returned.
+ * Clients only see it as an opaque continuation token.
+ */
+public record OrderCursor(
+            Instant createDate,
+            long id
+        ) {
+
+    public String encode() {
+        String raw = createDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new OrderCursor(Instant.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid order list cursor: " + token);
+        }
+    }
+}
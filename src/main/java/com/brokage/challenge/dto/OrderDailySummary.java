@@ -0,0 +1,21 @@
+package com.brokage.challenge.dto;
+
+import java.time.LocalDate;
+
+import com.brokage.challenge.enums.OrderSide;
+import com.brokage.challenge.enums.OrderStatus;
+
+/**
+ * One rollup row: orders of one asset and side that were placed (PENDING), completely filled (EXECUTED) or
+ * cancelled (CANCELLED) on {@code day} (UTC). {@code quantity} and {@code notional} (whole TRY) are what was placed,
+ * filled or cancelled that day; partial fills count towards them before the order is counted as executed.
+ */
+public record OrderDailySummary(
+            LocalDate day,
+            String asset,
+            OrderSide side,
+            OrderStatus status,
+            long orderCount,
+            long quantity,
+            long notional
+        ) {}
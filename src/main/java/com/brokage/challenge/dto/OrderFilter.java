@@ -0,0 +1,14 @@
+package com.brokage.challenge.dto;
+
+import com.brokage.challenge.enums.OrderSide;
+import com.brokage.challenge.enums.OrderStatus;
+
+/**
+ * Optional narrowing of an order listing; a {@code null} component matches every order.
+ */
+public record OrderFilter(
+            OrderStatus status,
+            OrderSide side,
+            String asset
+        ) {
+}
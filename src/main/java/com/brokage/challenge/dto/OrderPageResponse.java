@@ -0,0 +1,8 @@
+package com.brokage.challenge.dto;
+
+import java.util.List;
+
+public record OrderPageResponse(
+            List<OrderResponse> orders,
+            String nextCursor
+        ) {}
@@ -5,6 +5,7 @@ import java.time.Instant;
 
 import com.brokage.challenge.enums.OrderSide;
 import com.brokage.challenge.enums.OrderStatus;
+import com.brokage.challenge.util.FixedPoint;
 
 public record OrderResponse(
             Long id,
@@ -15,7 +16,14 @@ public record OrderResponse(
             BigDecimal price,
             OrderStatus status,
             Instant createDate
-        ) {}
+        ) {
+
+    // Target of the listing query's constructor expression, which selects the price as ticks
+    public OrderResponse(Long id, String customerId, String asset, OrderSide side, Long size, Long priceTicks,
+                         OrderStatus status, Instant createDate) {
+        this(id, customerId, asset, side, size, FixedPoint.toDecimal(priceTicks), status, createDate);
+    }
+}
 
 
 
@@ -0,0 +1,27 @@
+package com.brokage.challenge.dto;
+
+import java.time.Instant;
+
+import com.brokage.challenge.enums.OrderTicketStatus;
+
+public record OrderTicketResponse(
+            String ticketId,
+            OrderTicketStatus status,
+            OrderResponse order,
+            String error,
+            Instant submittedAt,
+            Instant completedAt
+        ) {
+
+    public static OrderTicketResponse queued(String ticketId, Instant submittedAt) {
+        return new OrderTicketResponse(ticketId, OrderTicketStatus.QUEUED, null, null, submittedAt, null);
+    }
+
+    public OrderTicketResponse complete(OrderResponse createdOrder) {
+        return new OrderTicketResponse(ticketId, OrderTicketStatus.COMPLETED, createdOrder, null, submittedAt, Instant.now());
+    }
+
+    public OrderTicketResponse reject(OrderTicketStatus finalStatus, String reason) {
+        return new OrderTicketResponse(ticketId, finalStatus, null, reason, submittedAt, Instant.now());
+    }
+}
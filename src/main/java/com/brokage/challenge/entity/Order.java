@@ -1,32 +1,44 @@
 package com.brokage.challenge.entity;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 import lombok.*;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 
 import com.brokage.challenge.enums.OrderSide;
 import com.brokage.challenge.enums.OrderStatus;
+import com.brokage.challenge.util.FixedPointConverter;
 
 @Entity
-@Table(name = "orders")
+// customer_create_date serves the listing and export: equality on customer, then range and keyset order on
+// (createDate, id). customer_status_create_date does the same within one status, so PENDING lookups (status filter,
+// bulk cancel) read only the customer's open orders however much history piles up behind them.
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_customer_create_date", columnList = "customer_id, create_date, id"),
+        @Index(name = "idx_orders_customer_status_create_date", columnList = "customer_id, status, create_date, id")
+})
 @Getter
 @Setter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
+    // Sequence (not IDENTITY) ids let Hibernate batch order inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -42,8 +54,19 @@ public class Order {
     @Column(nullable = false)
     private Long size;
 
-    @Column(nullable = false, precision = 19, scale = 4)
-    private BigDecimal price;
+    // Price in ticks (FixedPoint.SCALE decimal places), stored as the DECIMAL price column
+    @Convert(converter = FixedPointConverter.class)
+    @Column(name = "price", nullable = false, precision = 19, scale = 4)
+    private Long priceTicks;
+
+    // Units already matched; the order is EXECUTED once this reaches size
+    @Column(nullable = false)
+    @Builder.Default
+    private Long filledSize = 0L;
+
+    // Balance still held in usableSize for the unfilled part: TRY for BUY, asset units for SELL
+    @Column(nullable = false)
+    private Long reservedAmount;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -51,6 +74,10 @@ public class Order {
 
     @Column(nullable = false, updatable = false)
     private Instant createDate;
+
+    // Settlement and cancellation race on the same PENDING row; the loser fails its version check
+    @Version
+    private Long version;
 }
 
 
@@ -0,0 +1,8 @@
+package com.brokage.challenge.enums;
+
+public enum OrderTicketStatus {
+    QUEUED,
+    COMPLETED,
+    REJECTED,
+    FAILED
+}
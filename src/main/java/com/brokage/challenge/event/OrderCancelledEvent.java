@@ -0,0 +1,24 @@
+package com.brokage.challenge.event;
+
+import com.brokage.challenge.entity.Order;
+import com.brokage.challenge.enums.OrderSide;
+
+/**
+ * Published inside the transaction that cancelled a PENDING order and refunded its reservation.
+ * {@code remainingSize} is the unfilled quantity that was cancelled.
+ */
+public record OrderCancelledEvent(
+            Long orderId,
+            String customerId,
+            String assetName,
+            OrderSide side,
+            long refundedAmount,
+            long remainingSize,
+            long priceTicks
+        ) {
+
+    public static OrderCancelledEvent of(Order order) {
+        return new OrderCancelledEvent(order.getId(), order.getCustomerId(), order.getAssetName(), order.getOrderSide(),
+                order.getReservedAmount(), order.getSize() - order.getFilledSize(), order.getPriceTicks());
+    }
+}
@@ -0,0 +1,28 @@
+package com.brokage.challenge.event;
+
+import com.brokage.challenge.entity.Order;
+import com.brokage.challenge.enums.OrderSide;
+
+import java.time.Instant;
+
+/**
+ * Published inside the transaction that saved a new order; listeners act on it after commit.
+ */
+public record OrderCreatedEvent(
+            Long orderId,
+            String customerId,
+            String assetName,
+            OrderSide side,
+            long priceTicks,
+            long size,
+            long reservedAmount,
+            long version,
+            Instant createDate
+        ) {
+
+    public static OrderCreatedEvent of(Order order) {
+        return new OrderCreatedEvent(order.getId(), order.getCustomerId(), order.getAssetName(), order.getOrderSide(),
+                order.getPriceTicks(), order.getSize(), order.getReservedAmount(),
+                order.getVersion() == null ? 0L : order.getVersion(), order.getCreateDate());
+    }
+}
@@ -0,0 +1,19 @@
+package com.brokage.challenge.event;
+
+import com.brokage.challenge.enums.OrderSide;
+
+/**
+ * Published inside a settlement transaction for every order that received a fill in that cycle.
+ * {@code filledQuantity} and {@code notional} (whole TRY) cover this cycle only; {@code executed} is true once
+ * the order is completely filled. {@code remainingSize} is what is left open after this cycle.
+ */
+public record OrderExecutedEvent(
+            Long orderId,
+            String customerId,
+            String assetName,
+            OrderSide side,
+            long filledQuantity,
+            long notional,
+            boolean executed,
+            long remainingSize
+        ) {}
@@ -0,0 +1,7 @@
+package com.brokage.challenge.exception;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
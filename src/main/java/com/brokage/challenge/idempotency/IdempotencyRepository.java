@@ -0,0 +1,49 @@
+package com.brokage.challenge.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+
+    /**
+     * Moves an IN_PROGRESS claim for the same request to a new execution if it was claimed before {@code staleBefore}.
+     * Only one of several concurrent callers updates the row.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.claimedAt = :claimedAt WHERE r.idempotencyKey = :key"
+            + " AND r.requestHash = :requestHash AND r.status = :status AND r.claimedAt < :staleBefore")
+    int takeOver(@Param("key") String key, @Param("requestHash") String requestHash,
+                 @Param("status") IdempotencyStatus status, @Param("claimedAt") Instant claimedAt,
+                 @Param("staleBefore") Instant staleBefore);
+
+    /**
+     * Stores the outcome on a claim that is still IN_PROGRESS and was claimed at {@code claimedAt}.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.responseBody = :responseBody,"
+            + " r.errorType = :errorType, r.errorMessage = :errorMessage, r.completedAt = :completedAt"
+            + " WHERE r.idempotencyKey = :key AND r.claimedAt = :claimedAt"
+            + " AND r.status = com.brokage.challenge.idempotency.IdempotencyStatus.IN_PROGRESS")
+    int complete(@Param("key") String key, @Param("claimedAt") Instant claimedAt,
+                 @Param("status") IdempotencyStatus status, @Param("responseBody") String responseBody,
+                 @Param("errorType") String errorType, @Param("errorMessage") String errorMessage,
+                 @Param("completedAt") Instant completedAt);
+
+    /**
+     * Releases a claim that is still IN_PROGRESS and was claimed at {@code claimedAt}.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.claimedAt = :claimedAt"
+            + " AND r.status = com.brokage.challenge.idempotency.IdempotencyStatus.IN_PROGRESS")
+    int deleteClaim(@Param("key") String key, @Param("claimedAt") Instant claimedAt);
+}
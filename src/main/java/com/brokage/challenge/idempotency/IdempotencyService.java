@@ -0,0 +1,298 @@
+package com.brokage.challenge.idempotency;
+
+import com.brokage.challenge.dto.CreateOrder;
+import com.brokage.challenge.dto.OrderResponse;
+import com.brokage.challenge.exception.IdempotencyConflictException;
+import com.brokage.challenge.exception.InvalidAssetException;
+import com.brokage.challenge.exception.InvalidCustomerException;
+import com.brokage.challenge.exception.InvalidOrderException;
+import com.brokage.challenge.util.FixedPoint;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Runs an order command at most once per {@code Idempotency-Key} and replays its outcome to retries.
+ * Outcomes live in a bounded in-memory cache backed by the {@code idempotency_keys} table; concurrent
+ * duplicates on this node wait for the first execution instead of running the command again. The key is claimed in
+ * its own transaction, and the successful outcome is written in the order's transaction, so an order never commits
+ * without it.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRepository idempotencyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, CompletableFuture<Outcome>> outcomes;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Duration lease;
+
+    public IdempotencyService(IdempotencyRepository idempotencyRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${order.idempotency.cache-size:10000}") long cacheSize,
+                              @Value("${order.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${order.idempotency.wait-timeout:10s}") Duration waitTimeout,
+                              @Value("${order.idempotency.lease:1m}") Duration lease) {
+        this.idempotencyRepository = idempotencyRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.outcomes = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.lease = lease;
+    }
+
+    public OrderResponse execute(String key, CreateOrder request, Command command) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = fingerprint(request);
+
+        CompletableFuture<Outcome> mine = new CompletableFuture<>();
+        CompletableFuture<Outcome> first = outcomes.asMap().putIfAbsent(key, mine);
+        if (first != null) {
+            log.info("Replaying outcome for Idempotency-Key: {}", key);
+            return replay(key, requestHash, await(key, first));
+        }
+
+        try {
+            Outcome outcome = executeOnce(key, requestHash, command);
+            mine.complete(outcome);
+            return replay(key, requestHash, outcome);
+        } catch (RuntimeException e) {
+            // Nothing was remembered; let a later retry run the command again
+            outcomes.asMap().remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Outcome executeOnce(String key, String requestHash, Command command) {
+        // Millisecond precision survives the round trip through the column, so the conditional updates match it
+        Instant claimedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Optional<Outcome> stored = claim(key, requestHash, claimedAt);
+        if (stored.isPresent()) {
+            log.info("Replaying stored outcome for Idempotency-Key: {}", key);
+            return stored.get();
+        }
+
+        AtomicBoolean recorded = new AtomicBoolean();
+        OrderResponse response;
+        try {
+            response = command.run(result -> {
+                if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                    throw new IllegalStateException("Idempotency outcome must be recorded inside the order's transaction");
+                }
+                complete(key, claimedAt, Outcome.success(requestHash, result));
+                recorded.set(true);
+            });
+        } catch (InvalidOrderException | InvalidCustomerException | InvalidAssetException | IllegalArgumentException e) {
+            // A rejected order rolled back with nothing to commit alongside, so the rejection is stored on its own
+            Outcome failure = Outcome.failure(requestHash, e);
+            if (!recorded.get()) {
+                transactionTemplate.executeWithoutResult(status -> complete(key, claimedAt, failure));
+            }
+            return failure;
+        } catch (RuntimeException e) {
+            // The outcome rolled back with the order (or was never written), so the key is released for a retry.
+            // The delete only matches our own unfinished claim, never a committed outcome
+            if (!recorded.get()) {
+                transactionTemplate.executeWithoutResult(status -> idempotencyRepository.deleteClaim(key, claimedAt));
+            }
+            throw e;
+        }
+        if (!recorded.get()) {
+            throw new IllegalStateException("Order command did not record its outcome for Idempotency-Key: " + key);
+        }
+        return Outcome.success(requestHash, response);
+    }
+
+    /**
+     * Stores the outcome on our claim, in the caller's transaction. Fails with a conflict if the claim is no longer
+     * ours, e.g. taken over after the lease expired; inside the order's transaction that rolls the order back.
+     */
+    private void complete(String key, Instant claimedAt, Outcome outcome) {
+        int updated = idempotencyRepository.complete(key, claimedAt,
+                outcome.isFailure() ? IdempotencyStatus.FAILED : IdempotencyStatus.COMPLETED,
+                outcome.response() == null ? null : toJson(outcome.response()),
+                outcome.errorType(), outcome.errorMessage(), Instant.now());
+        if (updated != 1) {
+            throw new IdempotencyConflictException("Idempotency-Key " + key + " was taken over by another request");
+        }
+    }
+
+    /**
+     * Inserts an IN_PROGRESS row for the key. Returns the stored outcome if another execution already finished,
+     * and fails with a conflict if one is still running on another node. A claim older than the lease belongs to an
+     * execution that was interrupted (e.g. by a crash) before its order committed, since the order and its outcome
+     * commit together; the same request takes it over.
+     */
+    private Optional<Outcome> claim(String key, String requestHash, Instant now) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> idempotencyRepository.saveAndFlush(IdempotencyRecord.builder()
+                    .idempotencyKey(key)
+                    .requestHash(requestHash)
+                    .status(IdempotencyStatus.IN_PROGRESS)
+                    .createdAt(now)
+                    .claimedAt(now)
+                    .build()));
+            return Optional.empty();
+        } catch (DataIntegrityViolationException e) {
+            IdempotencyRecord existing = transactionTemplate.execute(status -> idempotencyRepository.findById(key).orElse(null));
+            if (existing == null) {
+                throw new IdempotencyConflictException("A request with this Idempotency-Key is still in progress");
+            }
+            if (existing.getStatus() == IdempotencyStatus.IN_PROGRESS) {
+                if (takeOver(key, requestHash, now)) {
+                    log.warn("Took over stale claim for Idempotency-Key: {} claimed at {}", key, existing.getClaimedAt());
+                    return Optional.empty();
+                }
+                throw new IdempotencyConflictException("A request with this Idempotency-Key is still in progress");
+            }
+            return Optional.of(toOutcome(existing));
+        }
+    }
+
+    private boolean takeOver(String key, String requestHash, Instant now) {
+        Integer updated = transactionTemplate.execute(status -> idempotencyRepository.takeOver(
+                key, requestHash, IdempotencyStatus.IN_PROGRESS, now, now.minus(lease)));
+        return updated != null && updated == 1;
+    }
+
+    private Outcome await(String key, CompletableFuture<Outcome> first) {
+        try {
+            return first.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for Idempotency-Key: " + key);
+        }
+    }
+
+    private static OrderResponse replay(String key, String requestHash, Outcome outcome) {
+        if (!outcome.requestHash().equals(requestHash)) {
+            throw new IdempotencyConflictException(
+                    String.format("Idempotency-Key %s was already used for a different order request", key));
+        }
+        if (outcome.isFailure()) {
+            throw outcome.toException();
+        }
+        return outcome.response();
+    }
+
+    @Scheduled(fixedDelayString = "${order.idempotency.cleanup-interval:10m}")
+    public void purgeExpiredKeys() {
+        Integer removed = transactionTemplate.execute(status ->
+                idempotencyRepository.deleteCreatedBefore(Instant.now().minus(ttl)));
+        if (removed != null && removed > 0) {
+            log.info("Removed {} expired idempotency keys", removed);
+        }
+    }
+
+    private Outcome toOutcome(IdempotencyRecord record) {
+        if (record.getStatus() == IdempotencyStatus.FAILED) {
+            return new Outcome(record.getRequestHash(), null, record.getErrorType(), record.getErrorMessage());
+        }
+        try {
+            return new Outcome(record.getRequestHash(),
+                    objectMapper.readValue(record.getResponseBody(), OrderResponse.class), null, null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response is unreadable for Idempotency-Key: " + record.getIdempotencyKey(), e);
+        }
+    }
+
+    private String toJson(OrderResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Order response cannot be serialized", e);
+        }
+    }
+
+    static String fingerprint(CreateOrder request) {
+        String canonical = String.join("|", request.customer(), String.valueOf(request.side()), request.asset(),
+                String.valueOf(request.size()), String.valueOf(FixedPoint.toTicks(request.price())));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * An order command that hands its response to {@code recordOutcome} inside the order's transaction, so the stored
+     * outcome commits or rolls back together with the order.
+     */
+    @FunctionalInterface
+    public interface Command {
+        OrderResponse run(Consumer<OrderResponse> recordOutcome);
+    }
+
+    private record Outcome(String requestHash, OrderResponse response, String errorType, String errorMessage) {
+
+        static Outcome success(String requestHash, OrderResponse response) {
+            return new Outcome(requestHash, response, null, null);
+        }
+
+        static Outcome failure(String requestHash, RuntimeException error) {
+            return new Outcome(requestHash, null, error.getClass().getSimpleName(), error.getMessage());
+        }
+
+        boolean isFailure() {
+            return errorType != null;
+        }
+
+        RuntimeException toException() {
+            return switch (errorType) {
+                case "InvalidCustomerException" -> new InvalidCustomerException(errorMessage);
+                case "InvalidAssetException" -> new InvalidAssetException(errorMessage);
+                case "IllegalArgumentException" -> new IllegalArgumentException(errorMessage);
+                default -> new InvalidOrderException(errorMessage);
+            };
+        }
+    }
+}
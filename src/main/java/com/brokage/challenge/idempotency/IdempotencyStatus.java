@@ -0,0 +1,7 @@
+package com.brokage.challenge.idempotency;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED,
+    FAILED
+}
@@ -2,6 +2,7 @@ package com.brokage.challenge.mapper;
 
 import com.brokage.challenge.dto.OrderResponse;
 import com.brokage.challenge.entity.Order;
+import com.brokage.challenge.util.FixedPoint;
 
 public class OrderResponseMapper {
 
@@ -16,7 +17,7 @@ public class OrderResponseMapper {
                 order.getAssetName(),
                 order.getOrderSide(),
                 order.getSize(),
-                order.getPrice(),
+                FixedPoint.toDecimal(order.getPriceTicks()),
                 order.getStatus(),
                 order.getCreateDate()
         );
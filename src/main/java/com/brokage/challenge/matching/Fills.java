@@ -0,0 +1,138 @@
+package com.brokage.challenge.matching;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Reusable buffer of the fills produced in one match cycle, stored column-wise so recording a fill does not allocate.
+ */
+final class Fills {
+
+    private int size;
+    private String[] assets;
+    private long[] buyOrderIds;
+    private long[] buyVersions;
+    private String[] buyers;
+    private long[] buyRemaining;
+    private long[] sellOrderIds;
+    private long[] sellVersions;
+    private String[] sellers;
+    private long[] sellRemaining;
+    private long[] quantities;
+    private long[] prices;
+    private long[] costs;
+    private long[] buyerReleased;
+
+    Fills(int capacity) {
+        assets = new String[capacity];
+        buyOrderIds = new long[capacity];
+        buyVersions = new long[capacity];
+        buyers = new String[capacity];
+        buyRemaining = new long[capacity];
+        sellOrderIds = new long[capacity];
+        sellVersions = new long[capacity];
+        sellers = new String[capacity];
+        sellRemaining = new long[capacity];
+        quantities = new long[capacity];
+        prices = new long[capacity];
+        costs = new long[capacity];
+        buyerReleased = new long[capacity];
+    }
+
+    void add(String asset,
+             long buyOrderId, long buyVersion, String buyer, long buyRemainingAfter,
+             long sellOrderId, long sellVersion, String seller, long sellRemainingAfter,
+             long quantity, long priceTicks, long cost, long released) {
+        if (size == quantities.length) {
+            grow();
+        }
+        int i = size++;
+        assets[i] = asset;
+        buyOrderIds[i] = buyOrderId;
+        buyVersions[i] = buyVersion;
+        buyers[i] = buyer;
+        buyRemaining[i] = buyRemainingAfter;
+        sellOrderIds[i] = sellOrderId;
+        sellVersions[i] = sellVersion;
+        sellers[i] = seller;
+        sellRemaining[i] = sellRemainingAfter;
+        quantities[i] = quantity;
+        prices[i] = priceTicks;
+        costs[i] = cost;
+        buyerReleased[i] = released;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(assets, 0, size, null);
+        Arrays.fill(buyers, 0, size, null);
+        Arrays.fill(sellers, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Drops the fills of the given assets, keeping the others in execution order.
+     */
+    void removeAssets(Set<String> removed) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (removed.contains(assets[i])) {
+                continue;
+            }
+            assets[kept] = assets[i];
+            buyOrderIds[kept] = buyOrderIds[i];
+            buyVersions[kept] = buyVersions[i];
+            buyers[kept] = buyers[i];
+            buyRemaining[kept] = buyRemaining[i];
+            sellOrderIds[kept] = sellOrderIds[i];
+            sellVersions[kept] = sellVersions[i];
+            sellers[kept] = sellers[i];
+            sellRemaining[kept] = sellRemaining[i];
+            quantities[kept] = quantities[i];
+            prices[kept] = prices[i];
+            costs[kept] = costs[i];
+            buyerReleased[kept] = buyerReleased[i];
+            kept++;
+        }
+        Arrays.fill(assets, kept, size, null);
+        Arrays.fill(buyers, kept, size, null);
+        Arrays.fill(sellers, kept, size, null);
+        size = kept;
+    }
+
+    String asset(int i) { return assets[i]; }
+    long buyOrderId(int i) { return buyOrderIds[i]; }
+    long buyVersion(int i) { return buyVersions[i]; }
+    String buyer(int i) { return buyers[i]; }
+    long buyRemaining(int i) { return buyRemaining[i]; }
+    long sellOrderId(int i) { return sellOrderIds[i]; }
+    long sellVersion(int i) { return sellVersions[i]; }
+    String seller(int i) { return sellers[i]; }
+    long sellRemaining(int i) { return sellRemaining[i]; }
+    long quantity(int i) { return quantities[i]; }
+    long price(int i) { return prices[i]; }
+    /** Whole TRY paid by the buyer and received by the seller. */
+    long cost(int i) { return costs[i]; }
+    /** Whole TRY released from the buyer's reservation; {@code released - cost} goes back to usable balance. */
+    long buyerReleased(int i) { return buyerReleased[i]; }
+
+    private void grow() {
+        int capacity = quantities.length * 2;
+        assets = Arrays.copyOf(assets, capacity);
+        buyOrderIds = Arrays.copyOf(buyOrderIds, capacity);
+        buyVersions = Arrays.copyOf(buyVersions, capacity);
+        buyers = Arrays.copyOf(buyers, capacity);
+        buyRemaining = Arrays.copyOf(buyRemaining, capacity);
+        sellOrderIds = Arrays.copyOf(sellOrderIds, capacity);
+        sellVersions = Arrays.copyOf(sellVersions, capacity);
+        sellers = Arrays.copyOf(sellers, capacity);
+        sellRemaining = Arrays.copyOf(sellRemaining, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        costs = Arrays.copyOf(costs, capacity);
+        buyerReleased = Arrays.copyOf(buyerReleased, capacity);
+    }
+}
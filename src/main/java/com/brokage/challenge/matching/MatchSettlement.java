@@ -0,0 +1,175 @@
+package com.brokage.challenge.matching;
+
+import com.brokage.challenge.enums.OrderSide;
+import com.brokage.challenge.enums.OrderStatus;
+import com.brokage.challenge.event.OrderExecutedEvent;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Writes one match cycle to the database in a single transaction: every filled order and every touched asset row
+ * is updated once with batched statements, however many fills it took part in.
+ */
+@Component
+@ConditionalOnProperty(prefix = "order.matching", name = "enabled", havingValue = "true")
+public class MatchSettlement {
+
+    private static final String TRY_ASSET = "TRY";
+
+    // Guarded by version and status so a cancellation or another node that got there first is reported as stale
+    private static final String UPDATE_ORDER =
+            "UPDATE orders SET filled_size = filled_size + ?, reserved_amount = reserved_amount - ?, status = ?, " +
+            "version = version + 1 WHERE id = ? AND version = ? AND status = 'PENDING'";
+    private static final String UPDATE_ASSET =
+            "UPDATE asset SET size = size + ?, usable_size = usable_size + ?, version = version + 1 " +
+            "WHERE customer_id = ? AND asset_name = ?";
+    private static final String INSERT_ASSET =
+            "INSERT INTO asset (customer_id, asset_name, size, usable_size, version) VALUES (?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MatchSettlement(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Settles all fills or none of them. Every order that took part moves to its next version.
+     *
+     * @return ids of the orders that were no longer PENDING at the version the book knew; if there are any, nothing
+     *         was settled
+     */
+    Set<Long> settle(Fills fills) {
+        Map<Long, OrderDelta> orders = new LinkedHashMap<>();
+        Map<AssetKey, long[]> assets = new LinkedHashMap<>();
+
+        for (int i = 0; i < fills.size(); i++) {
+            String asset = fills.asset(i);
+            long quantity = fills.quantity(i);
+            long cost = fills.cost(i);
+            long released = fills.buyerReleased(i);
+            String buyer = fills.buyer(i);
+            String seller = fills.seller(i);
+
+            orders.computeIfAbsent(fills.buyOrderId(i), id -> new OrderDelta(buyer, asset, OrderSide.BUY))
+                    .add(fills.buyVersion(i), quantity, released, cost, fills.buyRemaining(i));
+            orders.computeIfAbsent(fills.sellOrderId(i), id -> new OrderDelta(seller, asset, OrderSide.SELL))
+                    .add(fills.sellVersion(i), quantity, quantity, cost, fills.sellRemaining(i));
+
+            // Buyer pays the cost out of its reservation and gets the rest of the released amount back
+            add(assets, buyer, TRY_ASSET, -cost, released - cost);
+            add(assets, buyer, asset, quantity, quantity);
+            // Seller's reserved units leave the account; the proceeds are usable immediately
+            add(assets, seller, asset, -quantity, 0);
+            add(assets, seller, TRY_ASSET, cost, cost);
+        }
+
+        return transactionTemplate.execute(status -> {
+            Set<Long> stale = updateOrders(orders);
+            if (!stale.isEmpty()) {
+                status.setRollbackOnly();
+                return stale;
+            }
+            updateAssets(assets);
+            orders.forEach((orderId, delta) -> eventPublisher.publishEvent(new OrderExecutedEvent(orderId,
+                    delta.customerId, delta.assetName, delta.side, delta.filled, delta.notional, delta.remaining == 0,
+                    delta.remaining)));
+            return stale;
+        });
+    }
+
+    private Set<Long> updateOrders(Map<Long, OrderDelta> orders) {
+        List<Object[]> arguments = new ArrayList<>(orders.size());
+        orders.forEach((orderId, delta) -> arguments.add(new Object[]{
+                delta.filled,
+                delta.released,
+                (delta.remaining == 0 ? OrderStatus.EXECUTED : OrderStatus.PENDING).name(),
+                orderId,
+                delta.version}));
+
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_ORDER, arguments);
+        Set<Long> stale = new HashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                stale.add((Long) arguments.get(i)[3]);
+            }
+        }
+        return stale;
+    }
+
+    private void updateAssets(Map<AssetKey, long[]> assets) {
+        List<AssetKey> keys = new ArrayList<>(assets.keySet());
+        List<Object[]> arguments = new ArrayList<>(keys.size());
+        for (AssetKey key : keys) {
+            long[] delta = assets.get(key);
+            arguments.add(new Object[]{delta[0], delta[1], key.customerId(), key.assetName()});
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_ASSET, arguments);
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                // First time this customer holds the asset (buyer) or TRY (seller)
+                long[] delta = assets.get(keys.get(i));
+                inserts.add(new Object[]{keys.get(i).customerId(), keys.get(i).assetName(), delta[0], delta[1]});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ASSET, inserts);
+        }
+    }
+
+    private static void add(Map<AssetKey, long[]> assets, String customerId, String assetName,
+                            long sizeDelta, long usableDelta) {
+        long[] delta = assets.computeIfAbsent(new AssetKey(customerId, assetName), key -> new long[2]);
+        delta[0] += sizeDelta;
+        delta[1] += usableDelta;
+    }
+
+    private record AssetKey(String customerId, String assetName) {}
+
+    private static final class OrderDelta {
+
+        private final String customerId;
+        private final String assetName;
+        private final OrderSide side;
+        private long version = -1;
+        private long filled;
+        private long released;
+        private long notional;
+        private long remaining;
+
+        private OrderDelta(String customerId, String assetName, OrderSide side) {
+            this.customerId = Objects.requireNonNull(customerId);
+            this.assetName = assetName;
+            this.side = side;
+        }
+
+        // Fills arrive in execution order, so the last one carries what is left open
+        private void add(long version, long quantity, long released, long cost, long remaining) {
+            this.version = version;
+            this.filled += quantity;
+            this.released += released;
+            this.notional += cost;
+            this.remaining = remaining;
+        }
+    }
+}
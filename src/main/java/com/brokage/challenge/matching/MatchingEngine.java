@@ -0,0 +1,226 @@
+package com.brokage.challenge.matching;
+
+import com.brokage.challenge.entity.Order;
+import com.brokage.challenge.enums.OrderSide;
+import com.brokage.challenge.enums.OrderStatus;
+import com.brokage.challenge.event.OrderCancelledEvent;
+import com.brokage.challenge.event.OrderCreatedEvent;
+import com.brokage.challenge.repository.OrderRepository;
+import com.brokage.challenge.util.ThreadFactories;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes PENDING orders against each other with price-time priority. One matcher thread owns all books:
+ * committed creations and cancellations reach it through a queue, and each cycle's fills are settled in one
+ * transaction. The books are loaded from the PENDING rows at startup. When settlement finds orders that changed
+ * behind the books' back, only the books those orders traded in are rolled back; the other fills are settled. The
+ * books are reloaded in full only after a cycle fails outright.
+ */
+@Component
+@ConditionalOnProperty(prefix = "order.matching", name = "enabled", havingValue = "true")
+public class MatchingEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchingEngine.class);
+
+    private static final int INITIAL_BOOK_CAPACITY = 1024;
+
+    private final OrderRepository orderRepository;
+    private final MatchSettlement settlement;
+    private final Duration interval;
+    private final int maxFillsPerCycle;
+    private final ScheduledExecutorService matcher =
+            Executors.newSingleThreadScheduledExecutor(ThreadFactories.named("order-matcher", false));
+
+    private final Queue<Object> inbox = new ConcurrentLinkedQueue<>();
+    // Owned by the matcher thread
+    private final Map<String, OrderBook> books = new HashMap<>();
+    private final Fills fills;
+    private boolean rebuildRequired = true;
+
+    private final Counter matchCounter;
+    private final Counter rebuildCounter;
+    private final Timer cycleTimer;
+
+    public MatchingEngine(OrderRepository orderRepository,
+                          MatchSettlement settlement,
+                          MeterRegistry meterRegistry,
+                          @Value("${order.matching.interval:10ms}") Duration interval,
+                          @Value("${order.matching.max-fills-per-cycle:10000}") int maxFillsPerCycle) {
+        this.orderRepository = orderRepository;
+        this.settlement = settlement;
+        this.interval = interval;
+        this.maxFillsPerCycle = maxFillsPerCycle;
+        this.fills = new Fills(Math.min(maxFillsPerCycle, 1024));
+
+        this.matchCounter = Counter.builder("order.matching.matches")
+                .description("Fills settled by the matching engine")
+                .register(meterRegistry);
+        this.rebuildCounter = Counter.builder("order.matching.rebuilds")
+                .description("Times the order books were reloaded from PENDING orders")
+                .register(meterRegistry);
+        this.cycleTimer = Timer.builder("order.matching.cycle")
+                .description("Time to match and settle one cycle that produced fills")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        matcher.scheduleWithFixedDelay(this::runCycle, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Order matching engine started, cycle interval {} ms", interval.toMillis());
+    }
+
+    @TransactionalEventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        inbox.add(event);
+    }
+
+    @TransactionalEventListener
+    public void onOrderCancelled(OrderCancelledEvent event) {
+        inbox.add(event);
+    }
+
+    void runCycle() {
+        try {
+            if (rebuildRequired) {
+                rebuild();
+            }
+            drainInbox();
+
+            long start = System.nanoTime();
+            fills.clear();
+            List<OrderBook> matched = new ArrayList<>();
+            for (OrderBook book : books.values()) {
+                if (fills.size() >= maxFillsPerCycle) {
+                    break;
+                }
+                if (book.match(fills, maxFillsPerCycle - fills.size()) > 0) {
+                    matched.add(book);
+                }
+            }
+            if (fills.size() == 0) {
+                return;
+            }
+
+            Set<Long> stale;
+            while (fills.size() > 0 && !(stale = settlement.settle(fills)).isEmpty()) {
+                dropStale(stale);
+            }
+            for (OrderBook book : matched) {
+                book.commitMatch();
+            }
+            for (int i = 0; i < fills.size(); i++) {
+                // Orders still resting now carry the version the settlement wrote
+                OrderBook book = books.get(fills.asset(i));
+                book.advanceVersion(fills.buyOrderId(i), fills.buyVersion(i));
+                book.advanceVersion(fills.sellOrderId(i), fills.sellVersion(i));
+            }
+            cycleTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            matchCounter.increment(fills.size());
+        } catch (Exception e) {
+            // The books already consumed fills that never reached the database; reload them
+            log.warn("Match cycle failed, rebuilding order books: {}", e.getMessage(), e);
+            rebuildRequired = true;
+        }
+    }
+
+    /**
+     * Rolls back the books whose fills touched a stale order and drops those fills. Each stale order is queued again
+     * from its current row, at the back of its price level, or left out if it is no longer PENDING. The rolled-back
+     * books match again next cycle.
+     */
+    private void dropStale(Set<Long> stale) {
+        Set<String> assets = new HashSet<>();
+        for (int i = 0; i < fills.size(); i++) {
+            if (stale.contains(fills.buyOrderId(i)) || stale.contains(fills.sellOrderId(i))) {
+                assets.add(fills.asset(i));
+            }
+        }
+        for (String asset : assets) {
+            OrderBook book = books.get(asset);
+            book.rollbackMatch();
+            stale.forEach(book::remove);
+        }
+        fills.removeAssets(assets);
+
+        for (Order order : orderRepository.findAllById(stale)) {
+            if (order.getStatus() == OrderStatus.PENDING) {
+                add(order);
+            }
+        }
+        log.info("Dropped {} stale orders from the {} books, settling the other fills", stale.size(), assets);
+    }
+
+    private void drainInbox() {
+        Object event;
+        while ((event = inbox.poll()) != null) {
+            if (event instanceof OrderCreatedEvent created) {
+                book(created.assetName()).add(created.orderId(), created.customerId(),
+                        created.side() == OrderSide.BUY, created.priceTicks(), created.size(),
+                        created.reservedAmount(), created.version());
+            } else if (event instanceof OrderCancelledEvent cancelled) {
+                OrderBook book = books.get(cancelled.assetName());
+                if (book != null) {
+                    book.remove(cancelled.orderId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces every book with the PENDING orders in creation order. Queued events are drained afterwards and
+     * are harmless: additions of orders already loaded and removals of orders not in the book are ignored.
+     */
+    private void rebuild() {
+        books.clear();
+        List<Order> pending = orderRepository.findByStatusOrderByCreateDateAscIdAsc(OrderStatus.PENDING);
+        for (Order order : pending) {
+            add(order);
+        }
+        rebuildRequired = false;
+        rebuildCounter.increment();
+        log.info("Order books rebuilt from {} PENDING orders across {} assets", pending.size(), books.size());
+    }
+
+    private void add(Order order) {
+        book(order.getAssetName()).add(order.getId(), order.getCustomerId(),
+                order.getOrderSide() == OrderSide.BUY, order.getPriceTicks(),
+                order.getSize() - order.getFilledSize(), order.getReservedAmount(), order.getVersion());
+    }
+
+    private OrderBook book(String assetName) {
+        return books.computeIfAbsent(assetName, name -> new OrderBook(name, INITIAL_BOOK_CAPACITY));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        matcher.shutdown();
+        if (!matcher.awaitTermination(10, TimeUnit.SECONDS)) {
+            matcher.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package com.brokage.challenge.matching;
+
+import com.brokage.challenge.util.FixedPoint;
+
+import java.util.Arrays;
+
+/**
+ * Price-time priority book for one asset. Resting orders live in parallel primitive arrays linked into a FIFO
+ * queue per price level, and each side keeps its levels in a sorted {@code long[]} with the best price last,
+ * so matching the top of book and dropping an exhausted level are O(1) and a match allocates nothing.
+ * <p>
+ * A match is journaled until it is committed or rolled back: filled orders keep their slots and links, so a
+ * settlement that fails on one stale order can restore the book exactly, price-time priority included.
+ * Not thread-safe: a book is owned by the matching thread.
+ */
+final class OrderBook {
+
+    private static final int NONE = -1;
+
+    private final String assetName;
+    private final LongIntMap slotById;
+    private final Levels bids = new Levels(false);
+    private final Levels asks = new Levels(true);
+
+    private long[] orderIds;
+    private long[] versions;
+    private long[] prices;
+    private long[] remaining;
+    private long[] reserved;
+    private long[] sequences;
+    private String[] customers;
+    private boolean[] buys;
+    private int[] next;
+    private int[] prev;
+    private int used;
+    private int freeHead = NONE;
+    private long nextSequence;
+
+    // Fills of the uncommitted match in execution order: bid and ask slot, quantity and TRY released per fill
+    private int[] journalSlots = new int[32];
+    private long[] journalAmounts = new long[32];
+    private int journalSize;
+
+    OrderBook(String assetName, int initialCapacity) {
+        this.assetName = assetName;
+        this.slotById = new LongIntMap(initialCapacity);
+        orderIds = new long[initialCapacity];
+        versions = new long[initialCapacity];
+        prices = new long[initialCapacity];
+        remaining = new long[initialCapacity];
+        reserved = new long[initialCapacity];
+        sequences = new long[initialCapacity];
+        customers = new String[initialCapacity];
+        buys = new boolean[initialCapacity];
+        next = new int[initialCapacity];
+        prev = new int[initialCapacity];
+    }
+
+    String assetName() {
+        return assetName;
+    }
+
+    int size() {
+        return slotById.size();
+    }
+
+    boolean contains(long orderId) {
+        return slotById.get(orderId) != LongIntMap.MISSING;
+    }
+
+    /**
+     * Queues an order behind everything already resting at its price.
+     *
+     * @param remainingSize units still open
+     * @param reservedAmount what is still held for the open part: TRY for a BUY, units of the asset for a SELL
+     * @return false if the order is already in the book or has nothing left to fill
+     */
+    boolean add(long orderId, String customerId, boolean buy, long priceTicks,
+                long remainingSize, long reservedAmount, long version) {
+        if (remainingSize <= 0 || contains(orderId)) {
+            return false;
+        }
+        int slot = allocate();
+        orderIds[slot] = orderId;
+        versions[slot] = version;
+        prices[slot] = priceTicks;
+        remaining[slot] = remainingSize;
+        reserved[slot] = reservedAmount;
+        sequences[slot] = nextSequence++;
+        customers[slot] = customerId;
+        buys[slot] = buy;
+        slotById.put(orderId, slot);
+        (buy ? bids : asks).append(priceTicks, slot);
+        return true;
+    }
+
+    /**
+     * Removes a resting order, e.g. after it was cancelled. Returns false if the order is not in the book.
+     */
+    boolean remove(long orderId) {
+        int slot = slotById.remove(orderId);
+        if (slot == LongIntMap.MISSING) {
+            return false;
+        }
+        (buys[slot] ? bids : asks).unlink(prices[slot], slot);
+        release(slot);
+        return true;
+    }
+
+    /**
+     * Records that a settlement moved the order's row past {@code settledVersion}. Repeating the call for the
+     * same settlement is harmless, and orders that left the book are ignored.
+     */
+    void advanceVersion(long orderId, long settledVersion) {
+        int slot = slotById.get(orderId);
+        if (slot != LongIntMap.MISSING && versions[slot] == settledVersion) {
+            versions[slot] = settledVersion + 1;
+        }
+    }
+
+    long version(long orderId) {
+        int slot = slotById.get(orderId);
+        return slot == LongIntMap.MISSING ? -1 : versions[slot];
+    }
+
+    /**
+     * Crosses the book until no bid crosses an ask of another customer or {@code maxFills} fills were produced.
+     * Each fill executes at the price of whichever order rested first. A customer's orders never fill each other:
+     * such a pair is skipped for the next order in price-time priority. The fills stay journaled until
+     * {@link #commitMatch()} or {@link #rollbackMatch()}; a match left open is committed by the next one.
+     *
+     * @return number of fills appended to {@code fills}
+     */
+    int match(Fills fills, int maxFills) {
+        commitMatch();
+        int produced = 0;
+        while (produced < maxFills && bids.count > 0 && asks.count > 0) {
+            long pair = crossingPair();
+            if (pair == NONE) {
+                break;
+            }
+            fill(fills, (int) (pair >>> 32), (int) pair);
+            produced++;
+        }
+        return produced;
+    }
+
+    /**
+     * Finds the best bid and, for it, the best ask of another customer that crosses it.
+     *
+     * @return bid slot in the high and ask slot in the low 32 bits, or {@code NONE}
+     */
+    private long crossingPair() {
+        long bestAsk = asks.prices[asks.count - 1];
+        for (int bidLevel = bids.count - 1; bidLevel >= 0 && bids.prices[bidLevel] >= bestAsk; bidLevel--) {
+            for (int bid = bids.heads[bidLevel]; bid != NONE; bid = next[bid]) {
+                for (int askLevel = asks.count - 1; askLevel >= 0 && asks.prices[askLevel] <= prices[bid]; askLevel--) {
+                    for (int ask = asks.heads[askLevel]; ask != NONE; ask = next[ask]) {
+                        if (!customers[bid].equals(customers[ask])) {
+                            return ((long) bid << 32) | ask;
+                        }
+                    }
+                }
+            }
+        }
+        return NONE;
+    }
+
+    private void fill(Fills fills, int bid, int ask) {
+        long bidPrice = prices[bid];
+        long askPrice = prices[ask];
+        long quantity = Math.min(remaining[bid], remaining[ask]);
+        long price = sequences[bid] < sequences[ask] ? bidPrice : askPrice;
+        long bidRemaining = remaining[bid] - quantity;
+        long askRemaining = remaining[ask] - quantity;
+
+        // The buyer reserved ceil(limit * size); keep exactly that for what is still open and pay floor(price * qty)
+        long stillReserved = FixedPoint.notional(bidPrice, bidRemaining);
+        long released = reserved[bid] - stillReserved;
+        long cost = Math.floorDiv(Math.multiplyExact(price, quantity), FixedPoint.ONE);
+
+        fills.add(assetName,
+                orderIds[bid], versions[bid], customers[bid], bidRemaining,
+                orderIds[ask], versions[ask], customers[ask], askRemaining,
+                quantity, price, cost, released);
+        journal(bid, ask, quantity, released);
+
+        remaining[bid] = bidRemaining;
+        reserved[bid] = stillReserved;
+        remaining[ask] = askRemaining;
+        reserved[ask] -= quantity;
+        // Filled orders leave the queues but keep their slots and links until the match is committed
+        if (bidRemaining == 0) {
+            slotById.remove(orderIds[bid]);
+            bids.unlink(bidPrice, bid);
+        }
+        if (askRemaining == 0) {
+            slotById.remove(orderIds[ask]);
+            asks.unlink(askPrice, ask);
+        }
+    }
+
+    private void journal(int bid, int ask, long quantity, long released) {
+        if (journalSize * 2 == journalSlots.length) {
+            journalSlots = Arrays.copyOf(journalSlots, journalSlots.length * 2);
+            journalAmounts = Arrays.copyOf(journalAmounts, journalAmounts.length * 2);
+        }
+        journalSlots[journalSize * 2] = bid;
+        journalSlots[journalSize * 2 + 1] = ask;
+        journalAmounts[journalSize * 2] = quantity;
+        journalAmounts[journalSize * 2 + 1] = released;
+        journalSize++;
+    }
+
+    /**
+     * Accepts the journaled fills: the slots of the orders they filled are freed for reuse.
+     */
+    void commitMatch() {
+        for (int i = 0; i < journalSize * 2; i++) {
+            int slot = journalSlots[i];
+            // An order filled by several fills of the match is freed once
+            if (remaining[slot] == 0 && customers[slot] != null) {
+                release(slot);
+            }
+        }
+        journalSize = 0;
+    }
+
+    /**
+     * Undoes the journaled fills in reverse order, putting filled orders back where they were queued.
+     */
+    void rollbackMatch() {
+        for (int i = journalSize - 1; i >= 0; i--) {
+            int bid = journalSlots[i * 2];
+            int ask = journalSlots[i * 2 + 1];
+            long quantity = journalAmounts[i * 2];
+            if (remaining[ask] == 0) {
+                slotById.put(orderIds[ask], ask);
+                asks.relink(prices[ask], ask);
+            }
+            remaining[ask] += quantity;
+            reserved[ask] += quantity;
+            if (remaining[bid] == 0) {
+                slotById.put(orderIds[bid], bid);
+                bids.relink(prices[bid], bid);
+            }
+            remaining[bid] += quantity;
+            reserved[bid] += journalAmounts[i * 2 + 1];
+        }
+        journalSize = 0;
+    }
+
+    long bestBid() {
+        return bids.count == 0 ? 0 : bids.prices[bids.count - 1];
+    }
+
+    long bestAsk() {
+        return asks.count == 0 ? 0 : asks.prices[asks.count - 1];
+    }
+
+    private int allocate() {
+        if (freeHead != NONE) {
+            int slot = freeHead;
+            freeHead = next[slot];
+            return slot;
+        }
+        if (used == orderIds.length) {
+            grow();
+        }
+        return used++;
+    }
+
+    private void release(int slot) {
+        customers[slot] = null;
+        next[slot] = freeHead;
+        freeHead = slot;
+    }
+
+    private void grow() {
+        int capacity = Math.max(16, orderIds.length * 2);
+        orderIds = Arrays.copyOf(orderIds, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        remaining = Arrays.copyOf(remaining, capacity);
+        reserved = Arrays.copyOf(reserved, capacity);
+        sequences = Arrays.copyOf(sequences, capacity);
+        customers = Arrays.copyOf(customers, capacity);
+        buys = Arrays.copyOf(buys, capacity);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+    }
+
+    /**
+     * One side of the book: sorted price levels, each pointing at the first and last slot of its FIFO queue.
+     * Bids are kept ascending and asks descending so the best level is always at {@code count - 1}.
+     */
+    private final class Levels {
+
+        private final boolean descending;
+        private long[] prices = new long[16];
+        private int[] heads = new int[16];
+        private int[] tails = new int[16];
+        private int count;
+
+        private Levels(boolean descending) {
+            this.descending = descending;
+        }
+
+        void append(long price, int slot) {
+            int index = search(price);
+            if (index < 0) {
+                index = insert(-index - 1, price);
+                heads[index] = slot;
+                prev[slot] = NONE;
+            } else {
+                next[tails[index]] = slot;
+                prev[slot] = tails[index];
+            }
+            next[slot] = NONE;
+            tails[index] = slot;
+        }
+
+        void unlink(long price, int slot) {
+            // Fills always consume the best level, so check it before searching
+            int index = count > 0 && this.prices[count - 1] == price ? count - 1 : search(price);
+            int before = prev[slot];
+            int after = next[slot];
+            if (before == NONE) {
+                heads[index] = after;
+            } else {
+                next[before] = after;
+            }
+            if (after == NONE) {
+                tails[index] = before;
+            } else {
+                prev[after] = before;
+            }
+            if (heads[index] == NONE) {
+                removeLevel(index);
+            }
+        }
+
+        /**
+         * Puts back a slot that was unlinked, between the neighbours it had then; only valid while every later
+         * change to the level has been undone.
+         */
+        void relink(long price, int slot) {
+            int index = search(price);
+            if (index < 0) {
+                index = insert(-index - 1, price);
+                heads[index] = slot;
+                tails[index] = slot;
+                prev[slot] = NONE;
+                next[slot] = NONE;
+                return;
+            }
+            int before = prev[slot];
+            int after = next[slot];
+            if (before == NONE) {
+                heads[index] = slot;
+            } else {
+                next[before] = slot;
+            }
+            if (after == NONE) {
+                tails[index] = slot;
+            } else {
+                prev[after] = slot;
+            }
+        }
+
+        private int search(long price) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long value = this.prices[mid];
+                if (value == price) {
+                    return mid;
+                }
+                if (value < price != descending) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private int insert(int index, long price) {
+            if (count == this.prices.length) {
+                int capacity = count * 2;
+                this.prices = Arrays.copyOf(this.prices, capacity);
+                heads = Arrays.copyOf(heads, capacity);
+                tails = Arrays.copyOf(tails, capacity);
+            }
+            System.arraycopy(this.prices, index, this.prices, index + 1, count - index);
+            System.arraycopy(heads, index, heads, index + 1, count - index);
+            System.arraycopy(tails, index, tails, index + 1, count - index);
+            this.prices[index] = price;
+            count++;
+            return index;
+        }
+
+        private void removeLevel(int index) {
+            int moved = count - index - 1;
+            System.arraycopy(this.prices, index + 1, this.prices, index, moved);
+            System.arraycopy(heads, index + 1, heads, index, moved);
+            System.arraycopy(tails, index + 1, tails, index, moved);
+            count--;
+        }
+    }
+}
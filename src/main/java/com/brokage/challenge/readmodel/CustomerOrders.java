@@ -0,0 +1,133 @@
+package com.brokage.challenge.readmodel;
+
+import com.brokage.challenge.dto.OrderAssetTotals;
+import com.brokage.challenge.dto.OrderResponse;
+import com.brokage.challenge.enums.OrderSide;
+import com.brokage.challenge.enums.OrderStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * One customer's part of the read model. Only the projector thread writes; request threads read the concurrent
+ * maps without locking and always see whole, immutable entries.
+ */
+final class CustomerOrders {
+
+    private final ConcurrentSkipListMap<OrderKey, Entry> orders = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<OrderKey, OrderResponse> open = new ConcurrentSkipListMap<>();
+    private final Map<Long, OrderKey> keys = new ConcurrentHashMap<>();
+    private final Map<String, OrderAssetTotals> totals = new ConcurrentHashMap<>();
+
+    /**
+     * @return false if the order is already known
+     */
+    boolean add(OrderResponse order, long remaining) {
+        OrderKey key = new OrderKey(order.createDate(), order.id());
+        if (keys.putIfAbsent(order.id(), key) != null) {
+            return false;
+        }
+        Entry entry = new Entry(order, remaining);
+        orders.put(key, entry);
+        count(entry, 1);
+        return true;
+    }
+
+    Entry get(long orderId) {
+        OrderKey key = keys.get(orderId);
+        return key == null ? null : orders.get(key);
+    }
+
+    void replace(Entry current, Entry updated) {
+        count(current, -1);
+        orders.put(current.key(), updated);
+        count(updated, 1);
+    }
+
+    void remove(Entry current) {
+        count(current, -1);
+        orders.remove(current.key());
+        keys.remove(current.order().id());
+    }
+
+    List<OrderResponse> open() {
+        return List.copyOf(open.values());
+    }
+
+    List<OrderResponse> recent(int limit) {
+        List<OrderResponse> recent = new ArrayList<>(limit);
+        Iterator<Entry> it = orders.descendingMap().values().iterator();
+        while (recent.size() < limit && it.hasNext()) {
+            recent.add(it.next().order());
+        }
+        return recent;
+    }
+
+    List<OrderAssetTotals> totals() {
+        return totals.values().stream().sorted(Comparator.comparing(OrderAssetTotals::asset)).toList();
+    }
+
+    /**
+     * Drops orders that are no longer open and were created before {@code before}.
+     */
+    void trim(Instant before) {
+        NavigableMap<OrderKey, Entry> old = orders.headMap(new OrderKey(before, Long.MIN_VALUE), false);
+        for (Entry entry : old.values()) {
+            if (entry.order().status() != OrderStatus.PENDING) {
+                orders.remove(entry.key());
+                keys.remove(entry.order().id());
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return orders.isEmpty();
+    }
+
+    private void count(Entry entry, int sign) {
+        if (entry.order().status() != OrderStatus.PENDING) {
+            return;
+        }
+        if (sign > 0) {
+            open.put(entry.key(), entry.order());
+        } else {
+            open.remove(entry.key());
+        }
+        boolean buy = entry.order().side() == OrderSide.BUY;
+        long quantity = sign * entry.remaining();
+        totals.compute(entry.order().asset(), (asset, t) -> {
+            OrderAssetTotals current = t != null ? t : new OrderAssetTotals(asset, 0, 0, 0, 0);
+            OrderAssetTotals updated = buy
+                    ? new OrderAssetTotals(asset, current.openBuyOrders() + sign, current.openBuyQuantity() + quantity,
+                            current.openSellOrders(), current.openSellQuantity())
+                    : new OrderAssetTotals(asset, current.openBuyOrders(), current.openBuyQuantity(),
+                            current.openSellOrders() + sign, current.openSellQuantity() + quantity);
+            return updated.openBuyOrders() == 0 && updated.openSellOrders() == 0 ? null : updated;
+        });
+    }
+
+    record OrderKey(Instant createDate, long id) implements Comparable<OrderKey> {
+
+        private static final Comparator<OrderKey> ORDER =
+                Comparator.comparing(OrderKey::createDate).thenComparingLong(OrderKey::id);
+
+        @Override
+        public int compareTo(OrderKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    record Entry(OrderResponse order, long remaining) {
+
+        OrderKey key() {
+            return new OrderKey(order.createDate(), order.id());
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.brokage.challenge.readmodel;
+
+import com.brokage.challenge.dto.CustomerOrderView;
+import com.brokage.challenge.dto.OrderResponse;
+import com.brokage.challenge.entity.Order;
+import com.brokage.challenge.enums.OrderStatus;
+import com.brokage.challenge.event.OrderCancelledEvent;
+import com.brokage.challenge.event.OrderCreatedEvent;
+import com.brokage.challenge.event.OrderExecutedEvent;
+import com.brokage.challenge.mapper.OrderResponseMapper;
+import com.brokage.challenge.repository.OrderRepository;
+import com.brokage.challenge.service.impl.CustomerVersions;
+import com.brokage.challenge.util.ThreadFactories;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Denormalized, in-memory view of each customer's orders: every open order plus every order created within
+ * {@code order.read-model.history}, kept in {@code (createDate, id)} order with open totals per asset. Committed
+ * order events are applied by one projector thread, so {@code GET /api/order/view} is answered without touching the
+ * {@code orders} table or the connection pool.
+ * <p>
+ * The model is local to each node and trails the commit by up to {@code order.read-model.interval}: it only sees
+ * changes made on this node after it loaded. {@code GET /api/order/list} therefore stays on the keyset query.
+ * <p>
+ * Events are applied as monotonic state (remaining quantity only shrinks, final statuses stick), so an event that
+ * arrives late or twice cannot roll an order back. Changes of executed or cancelled orders the model has not seen
+ * created yet wait until the creation arrives.
+ */
+@Component
+public class OrderReadModel implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderReadModel.class);
+
+    private static final Duration TRIM_EVERY = Duration.ofMinutes(1);
+    // Changes of orders that were never created here (another node's) are dropped after this long
+    private static final Duration EARLY_EVENT_TTL = Duration.ofMinutes(1);
+
+    private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final CustomerVersions customerVersions;
+    private final Duration history;
+    private final int recentSize;
+    private final Duration interval;
+    private final ScheduledExecutorService projector =
+            Executors.newSingleThreadScheduledExecutor(ThreadFactories.named("order-read-model", false));
+
+    private final Queue<Queued> inbox = new ConcurrentLinkedQueue<>();
+    private final Map<String, CustomerOrders> customers = new ConcurrentHashMap<>();
+    // Owned by the projector thread
+    private final Map<Long, List<Queued>> early = new HashMap<>();
+    private long lastTrimNanos = System.nanoTime();
+
+    private final Timer lagTimer;
+
+    public OrderReadModel(OrderRepository orderRepository,
+                          EntityManager entityManager,
+                          PlatformTransactionManager transactionManager,
+                          CustomerVersions customerVersions,
+                          MeterRegistry meterRegistry,
+                          @Value("${order.read-model.history:24h}") Duration history,
+                          @Value("${order.read-model.recent-size:50}") int recentSize,
+                          @Value("${order.read-model.interval:5ms}") Duration interval) {
+        this.orderRepository = orderRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.customerVersions = customerVersions;
+        this.history = history;
+        this.recentSize = recentSize;
+        this.interval = interval;
+
+        this.lagTimer = Timer.builder("order.read-model.lag")
+                .description("Time from an order change committing until the read model serves it")
+                .register(meterRegistry);
+        Gauge.builder("order.read-model.backlog", inbox, Queue::size)
+                .description("Committed order changes not yet applied to the read model")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the model before the web server accepts requests, so no change on this node can commit meanwhile.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        load(Instant.now().minus(history));
+        projector.scheduleWithFixedDelay(this::runCycle, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        inbox.add(new Queued(event, System.nanoTime()));
+    }
+
+    @TransactionalEventListener
+    public void onOrderExecuted(OrderExecutedEvent event) {
+        inbox.add(new Queued(event, System.nanoTime()));
+    }
+
+    @TransactionalEventListener
+    public void onOrderCancelled(OrderCancelledEvent event) {
+        inbox.add(new Queued(event, System.nanoTime()));
+    }
+
+    public CustomerOrderView view(String customerId) {
+        CustomerOrders orders = customers.get(customerId);
+        if (orders == null) {
+            return new CustomerOrderView(customerId, List.of(), List.of(), List.of());
+        }
+        return new CustomerOrderView(customerId, orders.open(), orders.recent(recentSize), orders.totals());
+    }
+
+    void load(Instant since) {
+        customers.clear();
+        Long loaded = transactionTemplate.execute(status -> {
+            long count = 0;
+            try (Stream<Order> stream = orderRepository.streamByStatusOrCreatedSince(OrderStatus.PENDING, since)) {
+                for (Iterator<Order> it = stream.iterator(); it.hasNext(); ) {
+                    Order order = it.next();
+                    customers(order.getCustomerId()).add(OrderResponseMapper.toOrderResponse(order),
+                            order.getSize() - order.getFilledSize());
+                    entityManager.detach(order);
+                    count++;
+                }
+            }
+            return count;
+        });
+        log.info("Order read model loaded {} orders of {} customers since {}", loaded, customers.size(), since);
+    }
+
+    void runCycle() {
+        try {
+            Set<String> touched = new HashSet<>();
+            Queued queued;
+            while ((queued = inbox.poll()) != null) {
+                apply(queued, touched);
+            }
+            // Clients holding the previous ETag must see what was just applied
+            touched.forEach(customerVersions::bumpAfterCommit);
+
+            if (System.nanoTime() - lastTrimNanos >= TRIM_EVERY.toNanos()) {
+                trim();
+                lastTrimNanos = System.nanoTime();
+            }
+        } catch (Exception e) {
+            log.error("Order read model cycle failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void apply(Queued queued, Set<String> touched) {
+        switch (queued.event()) {
+            case OrderCreatedEvent created -> {
+                OrderResponse order = new OrderResponse(created.orderId(), created.customerId(), created.assetName(),
+                        created.side(), created.size(), created.priceTicks(), OrderStatus.PENDING, created.createDate());
+                if (customers(created.customerId()).add(order, created.size())) {
+                    List<Queued> waiting = early.remove(created.orderId());
+                    if (waiting != null) {
+                        waiting.forEach(w -> apply(w, touched));
+                    }
+                }
+                touched.add(created.customerId());
+            }
+            case OrderExecutedEvent executed -> {
+                CustomerOrders orders = customers.get(executed.customerId());
+                CustomerOrders.Entry entry = orders == null ? null : orders.get(executed.orderId());
+                if (entry == null) {
+                    early.computeIfAbsent(executed.orderId(), id -> new ArrayList<>()).add(queued);
+                    return;
+                }
+                if (entry.order().status() == OrderStatus.PENDING) {
+                    orders.replace(entry, new CustomerOrders.Entry(
+                            withStatus(entry.order(), executed.executed() ? OrderStatus.EXECUTED : OrderStatus.PENDING),
+                            Math.min(entry.remaining(), executed.remainingSize())));
+                }
+                touched.add(executed.customerId());
+            }
+            case OrderCancelledEvent cancelled -> {
+                CustomerOrders orders = customers.get(cancelled.customerId());
+                CustomerOrders.Entry entry = orders == null ? null : orders.get(cancelled.orderId());
+                if (entry == null) {
+                    early.computeIfAbsent(cancelled.orderId(), id -> new ArrayList<>()).add(queued);
+                    return;
+                }
+                if (entry.order().status() == OrderStatus.PENDING) {
+                    // Unfilled orders are deleted on cancel, partially filled ones kept as CANCELLED
+                    if (cancelled.remainingSize() == entry.order().size()) {
+                        orders.remove(entry);
+                    } else {
+                        orders.replace(entry, new CustomerOrders.Entry(
+                                withStatus(entry.order(), OrderStatus.CANCELLED), cancelled.remainingSize()));
+                    }
+                }
+                touched.add(cancelled.customerId());
+            }
+            default -> throw new IllegalStateException("Unexpected read model event: " + queued.event());
+        }
+        lagTimer.record(System.nanoTime() - queued.enqueuedNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void trim() {
+        Instant before = Instant.now().minus(history).minus(TRIM_EVERY);
+        customers.values().forEach(orders -> orders.trim(before));
+        customers.values().removeIf(CustomerOrders::isEmpty);
+        long expired = System.nanoTime() - EARLY_EVENT_TTL.toNanos();
+        early.values().removeIf(waiting -> waiting.getFirst().enqueuedNanos() - expired < 0);
+    }
+
+    private CustomerOrders customers(String customerId) {
+        return customers.computeIfAbsent(customerId, id -> new CustomerOrders());
+    }
+
+    private static OrderResponse withStatus(OrderResponse order, OrderStatus status) {
+        return new OrderResponse(order.id(), order.customerId(), order.asset(), order.side(), order.size(),
+                order.price(), status, order.createDate());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        projector.shutdown();
+        if (!projector.awaitTermination(10, TimeUnit.SECONDS)) {
+            projector.shutdownNow();
+        }
+    }
+
+    private record Queued(Object event, long enqueuedNanos) {}
+}
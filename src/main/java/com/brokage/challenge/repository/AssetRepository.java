@@ -4,6 +4,9 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.brokage.challenge.entity.Asset;
 import org.springframework.stereotype.Repository;
@@ -12,4 +15,28 @@ import org.springframework.stereotype.Repository;
 public interface AssetRepository extends JpaRepository<Asset, Long> {
     Optional<Asset> findByCustomerIdAndAssetName(String customerId, String assetName);
     List<Asset> findByCustomerId(String customerId);
+    boolean existsByCustomerIdAndAssetName(String customerId, String assetName);
+
+    /**
+     * Reserves {@code amount} from the usable balance in a single guarded statement.
+     * Returns the number of updated rows: 0 means the asset is missing or the balance is insufficient.
+     * Bumps the version so a concurrent entity-based write of the same row fails its optimistic check.
+     */
+    @Modifying
+    @Query("UPDATE Asset a SET a.usableSize = a.usableSize - :amount, a.version = a.version + 1 " +
+            "WHERE a.customerId = :customerId AND a.assetName = :assetName AND a.usableSize >= :amount")
+    int reserveUsableSize(@Param("customerId") String customerId,
+                          @Param("assetName") String assetName,
+                          @Param("amount") Long amount);
+
+    /**
+     * Gives {@code amount} back to the usable balance in a single statement.
+     * Returns the number of updated rows: 0 means the asset is missing.
+     */
+    @Modifying
+    @Query("UPDATE Asset a SET a.usableSize = a.usableSize + :amount, a.version = a.version + 1 " +
+            "WHERE a.customerId = :customerId AND a.assetName = :assetName")
+    int releaseUsableSize(@Param("customerId") String customerId,
+                          @Param("assetName") String assetName,
+                          @Param("amount") Long amount);
 }
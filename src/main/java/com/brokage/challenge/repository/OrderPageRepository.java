@@ -0,0 +1,22 @@
+package com.brokage.challenge.repository;
+
+import com.brokage.challenge.dto.OrderFilter;
+import com.brokage.challenge.dto.OrderResponse;
+import org.springframework.data.domain.Slice;
+
+import java.time.Instant;
+
+/**
+ * Order listing query built from the filters actually given, so each combination gets a plain equality predicate
+ * the database can match to an index instead of one catch-all {@code (:x IS NULL OR ...)} statement.
+ */
+public interface OrderPageRepository {
+
+    /**
+     * One page of a customer's orders in {@code (createDate, id)} order, starting strictly after the given position.
+     * Reads at most {@code pageSize + 1} rows to tell whether another page follows; no count query.
+     * Projects straight into {@link OrderResponse}, so no entities are loaded into the persistence context.
+     */
+    Slice<OrderResponse> findPage(String customerId, Instant startDate, Instant endDate, OrderFilter filter,
+                                  Instant afterDate, long afterId, int pageSize);
+}
@@ -0,0 +1,64 @@
+package com.brokage.challenge.repository;
+
+import com.brokage.challenge.dto.OrderFilter;
+import com.brokage.challenge.dto.OrderResponse;
+import com.brokage.challenge.entity.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+class OrderPageRepositoryImpl implements OrderPageRepository {
+
+    private final EntityManager entityManager;
+
+    OrderPageRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<OrderResponse> findPage(String customerId, Instant startDate, Instant endDate, OrderFilter filter,
+                                         Instant afterDate, long afterId, int pageSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderResponse> query = cb.createQuery(OrderResponse.class);
+        Root<Order> o = query.from(Order.class);
+        Path<Instant> createDate = o.get("createDate");
+        Path<Long> id = o.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(o.get("customerId"), customerId));
+        // Status second: with idx_orders_customer_status_create_date a status filter stays a single range scan
+        if (filter.status() != null) {
+            where.add(cb.equal(o.get("status"), filter.status()));
+        }
+        where.add(cb.between(createDate, startDate, endDate));
+        where.add(cb.or(cb.greaterThan(createDate, afterDate),
+                cb.and(cb.equal(createDate, afterDate), cb.greaterThan(id, afterId))));
+        if (filter.side() != null) {
+            where.add(cb.equal(o.get("orderSide"), filter.side()));
+        }
+        if (filter.asset() != null) {
+            where.add(cb.equal(o.get("assetName"), filter.asset()));
+        }
+
+        query.select(cb.construct(OrderResponse.class, id, o.get("customerId"), o.get("assetName"), o.get("orderSide"),
+                        o.get("size"), o.get("priceTicks"), o.get("status"), createDate))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.asc(createDate), cb.asc(id));
+
+        List<OrderResponse> rows = entityManager.createQuery(query).setMaxResults(pageSize + 1).getResultList();
+        boolean hasNext = rows.size() > pageSize;
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageSize) : rows, PageRequest.of(0, pageSize), hasNext);
+    }
+}
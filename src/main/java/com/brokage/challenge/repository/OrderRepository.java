@@ -1,17 +1,71 @@
 package com.brokage.challenge.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.brokage.challenge.entity.Order;
+import com.brokage.challenge.enums.OrderSide;
+import com.brokage.challenge.enums.OrderStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByCustomerIdAndCreateDateBetween(String customerId, Instant startDate, Instant endDate);
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderPageRepository {
+
+    List<Order> findByStatusOrderByCreateDateAscIdAsc(OrderStatus status);
+
+    /**
+     * Forward-only, read-only cursor over a customer's orders in {@code (createDate, id)} order.
+     * Must be consumed and closed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o WHERE o.customerId = :customerId " +
+            "AND o.createDate BETWEEN :startDate AND :endDate ORDER BY o.createDate, o.id")
+    Stream<Order> streamByCustomer(@Param("customerId") String customerId,
+                                   @Param("startDate") Instant startDate,
+                                   @Param("endDate") Instant endDate);
+
+    /**
+     * Forward-only, read-only cursor over all orders in the given status plus every order created since
+     * {@code since}. Must be consumed and closed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o WHERE o.status = :status OR o.createDate >= :since")
+    Stream<Order> streamByStatusOrCreatedSince(@Param("status") OrderStatus status,
+                                               @Param("since") Instant since);
+
+    /**
+     * PENDING orders of a customer, optionally narrowed to one asset and/or side, locked for update so that
+     * neither a single cancel nor a match settlement can change them before the bulk cancel commits.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.customerId = :customerId AND o.status = :status " +
+            "AND (:assetName IS NULL OR o.assetName = :assetName) AND (:side IS NULL OR o.orderSide = :side) " +
+            "ORDER BY o.id")
+    List<Order> findForCancellation(@Param("customerId") String customerId,
+                                    @Param("assetName") String assetName,
+                                    @Param("side") OrderSide side,
+                                    @Param("status") OrderStatus status);
+
+    @Query("SELECT o.customerId FROM Order o WHERE o.id = :orderId")
+    Optional<String> findCustomerIdById(@Param("orderId") Long orderId);
 }
 
 
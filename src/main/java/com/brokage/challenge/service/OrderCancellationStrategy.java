@@ -6,4 +6,5 @@ import com.brokage.challenge.entity.Order;
 public interface OrderCancellationStrategy {
     OrderSide getSupportedSide();
     void refundUsableBalance(Order order);
+    String refundAssetName(Order order);
 }
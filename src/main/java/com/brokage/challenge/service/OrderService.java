@@ -1,15 +1,20 @@
 package com.brokage.challenge.service;
 
 import com.brokage.challenge.dto.CreateOrder;
+import com.brokage.challenge.dto.OrderCursor;
+import com.brokage.challenge.dto.OrderFilter;
+import com.brokage.challenge.dto.OrderResponse;
 import com.brokage.challenge.entity.Order;
 
 import jakarta.validation.Valid;
 
+import org.springframework.data.domain.Slice;
+
 import java.time.Instant;
-import java.util.List;
 
 public interface OrderService {
     Order createOrder(@Valid CreateOrder req);
-    List<Order> listOrders(String customer, Instant startDate, Instant endDate);
+    Slice<OrderResponse> listOrders(String customer, Instant startDate, Instant endDate, OrderFilter filter,
+                                    OrderCursor after, int pageSize);
     void deleteOrder(Long orderId);
 }
@@ -0,0 +1,92 @@
+package com.brokage.challenge.service.impl;
+
+import com.brokage.challenge.entity.Asset;
+import com.brokage.challenge.event.OrderCancelledEvent;
+import com.brokage.challenge.event.OrderCreatedEvent;
+import com.brokage.challenge.event.OrderExecutedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Bounded per-customer cache of asset rows. Every committed change to a customer's assets comes with an order
+ * event (or an {@link #evictAfterCommit} call) and drops that customer's entry in the committing thread, before the
+ * writer answers. A load racing with such a drop cannot leave its stale result behind: Caffeine makes the drop wait
+ * for the in-flight load of the same key and removes what it produced.
+ * <p>
+ * Eviction runs before {@link CustomerVersions} moves the customer's ETag, so a reader that already sees the new
+ * version cannot be served the old balances under it.
+ */
+@Component
+public class AssetBalanceCache {
+
+    static final int EVICTION_ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+    private final Cache<String, List<Asset>> assets;
+
+    public AssetBalanceCache(MeterRegistry meterRegistry,
+                             @Value("${asset.cache.max-size:10000}") long maxSize) {
+        this.assets = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, assets, "assets");
+    }
+
+    public List<Asset> get(String customerId, Function<String, List<Asset>> loader) {
+        return assets.get(customerId, id -> List.copyOf(loader.apply(id)));
+    }
+
+    /**
+     * Drops the customer's entry once the surrounding transaction commits, or right away outside one.
+     */
+    public void evictAfterCommit(String customerId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            assets.invalidate(customerId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                assets.invalidate(customerId);
+            }
+
+            @Override
+            public int getOrder() {
+                return EVICTION_ORDER;
+            }
+        });
+    }
+
+    // Reservations taken by the create-order processors
+    @TransactionalEventListener
+    @Order(EVICTION_ORDER)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        assets.invalidate(event.customerId());
+    }
+
+    // Refunds of single and bulk cancellations
+    @TransactionalEventListener
+    @Order(EVICTION_ORDER)
+    public void onOrderCancelled(OrderCancelledEvent event) {
+        assets.invalidate(event.customerId());
+    }
+
+    // Match settlement moves both sides' balances; each side's order gets its own event
+    @TransactionalEventListener
+    @Order(EVICTION_ORDER)
+    public void onOrderExecuted(OrderExecutedEvent event) {
+        assets.invalidate(event.customerId());
+    }
+}
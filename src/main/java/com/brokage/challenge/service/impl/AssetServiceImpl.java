@@ -20,9 +20,14 @@ public class AssetServiceImpl implements AssetService {
     private static final Logger log = LoggerFactory.getLogger(AssetServiceImpl.class);
     
     private final AssetRepository assetRepository;
+    private final AssetBalanceCache assetBalanceCache;
+    private final CustomerVersions customerVersions;
 
-    public AssetServiceImpl(AssetRepository assetRepository) {
+    public AssetServiceImpl(AssetRepository assetRepository, AssetBalanceCache assetBalanceCache,
+                            CustomerVersions customerVersions) {
         this.assetRepository = assetRepository;
+        this.assetBalanceCache = assetBalanceCache;
+        this.customerVersions = customerVersions;
     }
 
     @Transactional
@@ -34,15 +39,15 @@ public class AssetServiceImpl implements AssetService {
             log.info("Increasing usable size for customer: {}, asset: {}, amount: {}", 
                     customerId, assetName, amount);
             
-            Asset asset = assetRepository.findByCustomerIdAndAssetName(customerId, assetName)
-                    .orElseThrow(() -> new InvalidAssetException(String.format("Customer %s does not have the asset: %s", customerId, assetName)));
-            
-            Long oldUsableSize = asset.getUsableSize();
-            asset.setUsableSize(asset.getUsableSize() + amount);
-            assetRepository.save(asset);
-            
-            log.info("Asset updated - customer: {}, asset: {}, old usable size: {}, new usable size: {}", 
-                    customerId, assetName, oldUsableSize, asset.getUsableSize());
+            int updated = assetRepository.releaseUsableSize(customerId, assetName, amount);
+            if (updated == 0) {
+                throw new InvalidAssetException(String.format("Customer %s does not have the asset: %s", customerId, assetName));
+            }
+            assetBalanceCache.evictAfterCommit(customerId);
+            customerVersions.bumpAfterCommit(customerId);
+
+            log.info("Asset updated - customer: {}, asset: {}, usable size increased by: {}",
+                    customerId, assetName, amount);
             
         } catch (InvalidAssetException e) {
             timer.finishWithError(e.getMessage());
@@ -66,7 +71,7 @@ public class AssetServiceImpl implements AssetService {
         try {
             log.info("Listing assets for customer: {}", customerId);
             
-            List<Asset> assets = assetRepository.findByCustomerId(customerId);
+            List<Asset> assets = assetBalanceCache.get(customerId, assetRepository::findByCustomerId);
             
             log.info("Found {} assets for customer: {}", assets.size(), customerId);
             return assets;
@@ -3,10 +3,12 @@ package com.brokage.challenge.service.impl;
 import com.brokage.challenge.entity.Order;
 import com.brokage.challenge.enums.OrderSide;
 import com.brokage.challenge.exception.InvalidOrderException;
+import com.brokage.challenge.service.AssetService;
 import com.brokage.challenge.service.OrderCancellationStrategy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -15,14 +17,45 @@ import java.util.stream.Collectors;
 @Service
 public class AssetUpdateManager {
     private final Map<OrderSide, OrderCancellationStrategy> strategies;
+    private final AssetService assetService;
 
-    public AssetUpdateManager(List<OrderCancellationStrategy> strategyList) {
+    public AssetUpdateManager(List<OrderCancellationStrategy> strategyList, AssetService assetService) {
         this.strategies = strategyList.stream()
                 .collect(Collectors.toMap(OrderCancellationStrategy::getSupportedSide, Function.identity()));
+        this.assetService = assetService;
     }
 
     @Transactional
     public void refundUsableBalanceForCancellation(Order order) {
+        strategyFor(order).refundUsableBalance(order);
+    }
+
+    /**
+     * Refunds many cancelled orders of one customer with one update per refunded asset row,
+     * e.g. a single TRY update for any number of BUY orders.
+     *
+     * @return refunded amount per asset name
+     */
+    @Transactional
+    public Map<String, Long> refundUsableBalanceForCancellation(String customerId, List<Order> orders) {
+        Map<String, Long> refunds = new LinkedHashMap<>();
+        for (Order order : orders) {
+            if (!customerId.equals(order.getCustomerId())) {
+                throw new IllegalArgumentException(String.format("Order %d does not belong to customer %s",
+                        order.getId(), customerId));
+            }
+            refunds.merge(strategyFor(order).refundAssetName(order), order.getReservedAmount(), Math::addExact);
+        }
+
+        refunds.forEach((assetName, amount) -> {
+            if (amount > 0) {
+                assetService.increaseUsableSize(customerId, assetName, amount);
+            }
+        });
+        return refunds;
+    }
+
+    private OrderCancellationStrategy strategyFor(Order order) {
         OrderCancellationStrategy strategy = strategies.get(order.getOrderSide());
 
         if (strategy == null) {
@@ -31,6 +64,6 @@ public class AssetUpdateManager {
             );
         }
 
-        strategy.refundUsableBalance(order);
+        return strategy;
     }
 }
@@ -0,0 +1,120 @@
+package com.brokage.challenge.service.impl;
+
+import com.brokage.challenge.dto.CreateOrder;
+import com.brokage.challenge.dto.OrderTicketResponse;
+import com.brokage.challenge.entity.Order;
+import com.brokage.challenge.enums.OrderTicketStatus;
+import com.brokage.challenge.exception.InvalidAssetException;
+import com.brokage.challenge.exception.InvalidCustomerException;
+import com.brokage.challenge.exception.InvalidOrderException;
+import com.brokage.challenge.exception.OrderIntakeRejectedException;
+import com.brokage.challenge.mapper.OrderResponseMapper;
+import com.brokage.challenge.util.ThreadFactories;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts validated orders onto a bounded queue and creates them in the background.
+ * Callers get a ticket immediately and poll it for the final order or the rejection reason.
+ */
+@Service
+public class AsyncOrderIntake {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncOrderIntake.class);
+
+    private final OrderCommandGateway orderCommandGateway;
+    private final ThreadPoolExecutor workers;
+    private final Map<String, OrderTicketResponse> tickets = new ConcurrentHashMap<>();
+    private final Duration ticketTtl;
+    private final Counter rejectedCounter;
+
+    public AsyncOrderIntake(OrderCommandGateway orderCommandGateway,
+                            MeterRegistry meterRegistry,
+                            @Value("${order.intake.async.capacity:1000}") int capacity,
+                            @Value("${order.intake.async.workers:4}") int workerCount,
+                            @Value("${order.intake.async.ticket-ttl:10m}") Duration ticketTtl,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.orderCommandGateway = orderCommandGateway;
+        this.ticketTtl = ticketTtl;
+
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                ThreadFactories.numbered("order-intake-", virtualThreads),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("order.intake.queue.depth", workers, executor -> executor.getQueue().size())
+                .description("Orders accepted but not yet picked up by an intake worker")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("order.intake.rejected")
+                .description("Orders refused because the intake queue was full")
+                .register(meterRegistry);
+    }
+
+    public OrderTicketResponse submit(CreateOrder request) {
+        OrderTicketResponse ticket = OrderTicketResponse.queued(UUID.randomUUID().toString(), Instant.now());
+        tickets.put(ticket.ticketId(), ticket);
+
+        try {
+            workers.execute(() -> process(ticket, request));
+        } catch (RejectedExecutionException e) {
+            tickets.remove(ticket.ticketId());
+            rejectedCounter.increment();
+            log.warn("Order intake queue full, rejecting order for customer: {}", request.customer());
+            throw new OrderIntakeRejectedException("Order intake queue is full, retry later");
+        }
+
+        log.info("Order queued for customer: {} with ticket: {}", request.customer(), ticket.ticketId());
+        return ticket;
+    }
+
+    public Optional<OrderTicketResponse> findTicket(String ticketId) {
+        return Optional.ofNullable(tickets.get(ticketId));
+    }
+
+    private void process(OrderTicketResponse ticket, CreateOrder request) {
+        OrderTicketResponse result;
+        try {
+            Order order = orderCommandGateway.createOrder(request);
+            result = ticket.complete(OrderResponseMapper.toOrderResponse(order));
+        } catch (InvalidOrderException | InvalidCustomerException | InvalidAssetException | IllegalArgumentException e) {
+            result = ticket.reject(OrderTicketStatus.REJECTED, e.getMessage());
+        } catch (Exception e) {
+            log.error("Queued order failed for ticket: {} - System Error: {}", ticket.ticketId(), e.getMessage(), e);
+            result = ticket.reject(OrderTicketStatus.FAILED, "Order creation failed due to system error");
+        }
+        tickets.put(ticket.ticketId(), result);
+    }
+
+    @Scheduled(fixedDelayString = "${order.intake.async.cleanup-interval:60s}")
+    public void purgeExpiredTickets() {
+        Instant cutoff = Instant.now().minus(ticketTtl);
+        tickets.values().removeIf(ticket -> ticket.completedAt() != null && ticket.completedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Order intake did not drain within timeout, {} queued orders dropped", workers.shutdownNow().size());
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.brokage.challenge.service.impl;
+
+import com.brokage.challenge.audit.AuditDetails;
+import com.brokage.challenge.audit.AuditPolicyService;
+import com.brokage.challenge.audit.AuditService;
+import com.brokage.challenge.dto.BatchOrderItemResponse;
+import com.brokage.challenge.dto.CreateOrder;
+import com.brokage.challenge.entity.Asset;
+import com.brokage.challenge.entity.Order;
+import com.brokage.challenge.enums.OrderSide;
+import com.brokage.challenge.enums.OrderStatus;
+import com.brokage.challenge.event.OrderCreatedEvent;
+import com.brokage.challenge.exception.BrokageFirmApiException;
+import com.brokage.challenge.mapper.OrderResponseMapper;
+import com.brokage.challenge.repository.AssetRepository;
+import com.brokage.challenge.repository.OrderRepository;
+import com.brokage.challenge.util.FixedPoint;
+import com.brokage.challenge.util.TimeUtil;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates many orders in one transaction. Items are grouped by the asset row they reserve from,
+ * so each row is touched by one reservation statement, and orders are written with batched inserts.
+ */
+@Service
+public class BatchOrderService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchOrderService.class);
+
+    private static final String OPERATION = "CREATE_ORDER";
+    private static final String ENTITY_TYPE = "Order";
+
+    private final AssetRepository assetRepository;
+    private final OrderRepository orderRepository;
+    private final AuditService auditService;
+    private final AuditPolicyService auditPolicyService;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxBatchSize;
+
+    public BatchOrderService(AssetRepository assetRepository,
+                             OrderRepository orderRepository,
+                             AuditService auditService,
+                             AuditPolicyService auditPolicyService,
+                             Validator validator,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${order.batch.max-size:500}") int maxBatchSize) {
+        this.assetRepository = assetRepository;
+        this.orderRepository = orderRepository;
+        this.auditService = auditService;
+        this.auditPolicyService = auditPolicyService;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public void checkBatchSize(List<CreateOrder> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Order batch must contain at least one order");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException(String.format("Order batch size %d exceeds the limit of %d",
+                    requests.size(), maxBatchSize));
+        }
+    }
+
+    @Transactional
+    public List<BatchOrderItemResponse> createOrders(List<CreateOrder> requests) {
+        checkBatchSize(requests);
+
+        TimeUtil.ExecutionTimer timer = TimeUtil.startTimer("CREATE_ORDER_BATCH", log);
+
+        try {
+            log.info("Creating order batch of {} items", requests.size());
+
+            BatchOrderItemResponse[] results = new BatchOrderItemResponse[requests.size()];
+            long[] priceTicks = new long[requests.size()];
+            long[] amounts = new long[requests.size()];
+            Map<ReservationKey, List<Integer>> groups = new LinkedHashMap<>();
+
+            for (int i = 0; i < requests.size(); i++) {
+                CreateOrder request = requests.get(i);
+                String violation = validate(request);
+                if (violation != null) {
+                    results[i] = reject(i, request, violation);
+                    continue;
+                }
+                priceTicks[i] = FixedPoint.toTicks(request.price());
+                try {
+                    amounts[i] = reservationAmount(request, priceTicks[i]);
+                } catch (ArithmeticException e) {
+                    results[i] = reject(i, request, "Order notional exceeds the supported range.");
+                    continue;
+                }
+                groups.computeIfAbsent(ReservationKey.of(request), key -> new ArrayList<>()).add(i);
+            }
+
+            List<Integer> acceptedIndexes = new ArrayList<>();
+            for (Map.Entry<ReservationKey, List<Integer>> group : groups.entrySet()) {
+                reserveGroup(group.getKey(), group.getValue(), requests, amounts, results, acceptedIndexes);
+            }
+            acceptedIndexes.sort(null);
+
+            Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+            List<Order> orders = acceptedIndexes.stream()
+                    .map(index -> toOrder(requests.get(index), priceTicks[index], amounts[index], now))
+                    .toList();
+            List<Order> saved = orderRepository.saveAll(orders);
+
+            for (int i = 0; i < saved.size(); i++) {
+                int index = acceptedIndexes.get(i);
+                Order order = saved.get(i);
+                CreateOrder request = requests.get(index);
+                auditPolicyService.recordSuccess(OPERATION, ENTITY_TYPE, order.getId(), order.getCustomerId(),
+                        () -> AuditDetails.describe(request));
+                eventPublisher.publishEvent(OrderCreatedEvent.of(order));
+                results[index] = BatchOrderItemResponse.created(index, OrderResponseMapper.toOrderResponse(order));
+            }
+
+            log.info("Order batch completed - created: {}, rejected: {}",
+                    saved.size(), requests.size() - saved.size());
+            return Arrays.asList(results);
+
+        } catch (Exception e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Order batch failed - System Error: {}", e.getMessage(), e);
+            throw new BrokageFirmApiException("Order batch failed due to system error", e);
+        } finally {
+            timer.finish();
+        }
+    }
+
+    private void reserveGroup(ReservationKey key, List<Integer> indexes, List<CreateOrder> requests, long[] amounts,
+                              BatchOrderItemResponse[] results, List<Integer> acceptedIndexes) {
+        long total = 0;
+        for (Integer index : indexes) {
+            // Saturate instead of overflowing; such a total can never be reserved and falls through to the greedy pass
+            total = total > Long.MAX_VALUE - amounts[index] ? Long.MAX_VALUE : total + amounts[index];
+        }
+
+        if (assetRepository.reserveUsableSize(key.customerId(), key.assetName(), total) == 1) {
+            acceptedIndexes.addAll(indexes);
+            return;
+        }
+
+        Optional<Asset> asset = assetRepository.findByCustomerIdAndAssetName(key.customerId(), key.assetName());
+        if (asset.isEmpty()) {
+            String error = key.customerId() + " does not have a " + key.assetName() + " asset.";
+            indexes.forEach(index -> results[index] = reject(index, requests.get(index), error));
+            return;
+        }
+
+        // Not everything fits: accept in submission order while the balance lasts
+        long available = asset.get().getUsableSize();
+        long acceptedTotal = 0;
+        List<Integer> accepted = new ArrayList<>();
+        List<Integer> rejected = new ArrayList<>();
+        for (Integer index : indexes) {
+            long amount = amounts[index];
+            if (amount <= available - acceptedTotal) {
+                acceptedTotal += amount;
+                accepted.add(index);
+            } else {
+                rejected.add(index);
+            }
+        }
+
+        if (acceptedTotal > 0
+                && assetRepository.reserveUsableSize(key.customerId(), key.assetName(), acceptedTotal) == 0) {
+            // The balance moved under us; give up on the whole group rather than retrying
+            rejected.addAll(accepted);
+            accepted.clear();
+        }
+
+        String error = String.format("Insufficient %s balance for customer %s.", key.assetName(), key.customerId());
+        rejected.forEach(index -> results[index] = reject(index, requests.get(index), error));
+        acceptedIndexes.addAll(accepted);
+    }
+
+    private BatchOrderItemResponse reject(int index, CreateOrder request, String error) {
+        if (request != null) {
+            auditService.logFailure(OPERATION, ENTITY_TYPE, null, request.customer(),
+                    AuditDetails.describe(request), error);
+        }
+        return BatchOrderItemResponse.rejected(index, error);
+    }
+
+    private String validate(CreateOrder request) {
+        if (request == null) {
+            return "Validation failed: order must not be null";
+        }
+        Set<ConstraintViolation<CreateOrder>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", ", "Validation failed: ", ""));
+    }
+
+    private static long reservationAmount(CreateOrder request, long priceTicks) {
+        if (request.side() == OrderSide.BUY) {
+            return FixedPoint.notional(priceTicks, request.size());
+        }
+        return request.size();
+    }
+
+    private static Order toOrder(CreateOrder request, long priceTicks, long reservedAmount, Instant createDate) {
+        return Order.builder()
+                .customerId(request.customer())
+                .assetName(request.asset())
+                .orderSide(request.side())
+                .priceTicks(priceTicks)
+                .size(request.size())
+                .reservedAmount(reservedAmount)
+                .status(OrderStatus.PENDING)
+                .createDate(createDate)
+                .build();
+    }
+
+    private record ReservationKey(String customerId, String assetName) {
+
+        static ReservationKey of(CreateOrder request) {
+            String assetName = request.side() == OrderSide.BUY ? "TRY" : request.asset();
+            return new ReservationKey(request.customer(), assetName);
+        }
+    }
+}
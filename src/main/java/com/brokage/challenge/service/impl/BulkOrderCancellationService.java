@@ -0,0 +1,102 @@
+package com.brokage.challenge.service.impl;
+
+import com.brokage.challenge.audit.AuditDetails;
+import com.brokage.challenge.audit.AuditPolicyService;
+import com.brokage.challenge.dto.BulkCancelResponse;
+import com.brokage.challenge.entity.Order;
+import com.brokage.challenge.enums.OrderSide;
+import com.brokage.challenge.enums.OrderStatus;
+import com.brokage.challenge.event.OrderCancelledEvent;
+import com.brokage.challenge.exception.BrokageFirmApiException;
+import com.brokage.challenge.exception.InvalidOrderException;
+import com.brokage.challenge.repository.OrderRepository;
+import com.brokage.challenge.util.TimeUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cancels all PENDING orders of a customer in one transaction. Refunds are summed per asset row and applied
+ * with one update each, so cancelling any number of BUY orders touches the TRY row once.
+ */
+@Service
+public class BulkOrderCancellationService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkOrderCancellationService.class);
+
+    private static final String OPERATION = "DELETE_ORDER";
+    private static final String ENTITY_TYPE = "Order";
+
+    private final OrderRepository orderRepository;
+    private final AssetUpdateManager assetUpdateManager;
+    private final AuditPolicyService auditPolicyService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BulkOrderCancellationService(OrderRepository orderRepository,
+                                        AssetUpdateManager assetUpdateManager,
+                                        AuditPolicyService auditPolicyService,
+                                        ApplicationEventPublisher eventPublisher) {
+        this.orderRepository = orderRepository;
+        this.assetUpdateManager = assetUpdateManager;
+        this.auditPolicyService = auditPolicyService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public BulkCancelResponse cancelOrders(String customerId, String assetName, OrderSide side) {
+        TimeUtil.ExecutionTimer timer = TimeUtil.startTimer("CANCEL_ORDERS", log);
+
+        try {
+            log.info("Cancelling PENDING orders for customer: {}, asset: {}, side: {}", customerId, assetName, side);
+
+            List<Order> orders = orderRepository.findForCancellation(customerId, assetName, side, OrderStatus.PENDING);
+            if (orders.isEmpty()) {
+                log.info("No PENDING orders to cancel for customer: {}", customerId);
+                return new BulkCancelResponse(customerId, 0, List.of(), Map.of());
+            }
+
+            Map<String, Long> refunded = assetUpdateManager.refundUsableBalanceForCancellation(customerId, orders);
+
+            List<Order> toDelete = new ArrayList<>();
+            List<Long> cancelledIds = new ArrayList<>(orders.size());
+            for (Order order : orders) {
+                eventPublisher.publishEvent(OrderCancelledEvent.of(order));
+                if (order.getFilledSize() > 0) {
+                    // Keep the executed part on record, as a single cancel does
+                    order.setStatus(OrderStatus.CANCELLED);
+                    order.setReservedAmount(0L);
+                } else {
+                    toDelete.add(order);
+                }
+                cancelledIds.add(order.getId());
+            }
+            orderRepository.deleteAll(toDelete);
+
+            for (Order order : orders) {
+                String details = AuditDetails.describe(order);
+                auditPolicyService.recordSuccess(OPERATION, ENTITY_TYPE, order.getId(), customerId, () -> details);
+            }
+
+            log.info("Cancelled {} orders for customer: {}, refunded: {}", orders.size(), customerId, refunded);
+            return new BulkCancelResponse(customerId, orders.size(), cancelledIds, refunded);
+
+        } catch (InvalidOrderException | IllegalArgumentException e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Bulk cancel failed for customer: {} - Business Error: {}", customerId, e.getMessage(), e);
+            throw e;
+        } catch (Exception e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Bulk cancel failed for customer: {} - System Error: {}", customerId, e.getMessage(), e);
+            throw new BrokageFirmApiException("Bulk order cancellation failed due to system error", e);
+        } finally {
+            timer.finish();
+        }
+    }
+}
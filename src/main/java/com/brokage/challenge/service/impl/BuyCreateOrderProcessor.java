@@ -2,14 +2,15 @@ package com.brokage.challenge.service.impl;
 
 import com.brokage.challenge.exception.BrokageFirmApiException;
 import com.brokage.challenge.exception.InvalidCustomerException;
+import com.brokage.challenge.exception.InvalidOrderException;
 import com.brokage.challenge.dto.CreateOrder;
-import com.brokage.challenge.entity.Asset;
 import com.brokage.challenge.entity.Order;
 import com.brokage.challenge.enums.OrderSide;
 import com.brokage.challenge.enums.OrderStatus;
 import com.brokage.challenge.repository.AssetRepository;
 import com.brokage.challenge.repository.OrderRepository;
 import com.brokage.challenge.service.CreateOrderProcessor;
+import com.brokage.challenge.util.FixedPoint;
 import com.brokage.challenge.util.TimeUtil;
 
 import jakarta.validation.Valid;
@@ -18,8 +19,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 @Service
 public class BuyCreateOrderProcessor implements CreateOrderProcessor {
@@ -48,35 +49,30 @@ public class BuyCreateOrderProcessor implements CreateOrderProcessor {
             log.info("Processing BUY order for customer: {}, asset: {}, size: {}, price: {}", 
                     request.customer(), request.asset(), request.size(), request.price());
             
-            Asset tryAsset = assetRepository.findByCustomerIdAndAssetName(request.customer(), "TRY")
-                    .orElseThrow(() -> new InvalidCustomerException(
-                            request.customer() + " does not have a TRY asset."
-                    ));
-
-            Long totalCost = request.price().multiply(BigDecimal.valueOf(request.size())).longValue();
+            long priceTicks = FixedPoint.toTicks(request.price());
+            long totalCost = notional(priceTicks, request.size());
             log.info("Total cost calculated: {} TRY for customer: {}", totalCost, request.customer());
 
-            if (tryAsset.getUsableSize() < totalCost) {
+            int reserved = assetRepository.reserveUsableSize(request.customer(), "TRY", totalCost);
+            if (reserved == 0) {
+                if (!assetRepository.existsByCustomerIdAndAssetName(request.customer(), "TRY")) {
+                    throw new InvalidCustomerException(request.customer() + " does not have a TRY asset.");
+                }
                 String errorMsg = String.format("Insufficient TRY balance for customer %s.",
                         request.customer());
                 log.warn("Insufficient balance: {}", errorMsg);
                 throw new InvalidCustomerException(errorMsg);
             }
 
-            Long oldUsableSize = tryAsset.getUsableSize();
-            tryAsset.setUsableSize(tryAsset.getUsableSize() - totalCost);
-            assetRepository.save(tryAsset);
-            
-            log.info("TRY balance updated for customer: {} - old: {}, new: {}, deducted: {}", 
-                    request.customer(), oldUsableSize, tryAsset.getUsableSize(), totalCost);
+            log.info("TRY balance reserved for customer: {} - deducted: {}", request.customer(), totalCost);
 
-            Order order = saveOrder(request);
+            Order order = saveOrder(request, priceTicks, totalCost);
             log.info("BUY order created successfully with ID: {} for customer: {}", 
                     order.getId(), request.customer());
             
             return order;
             
-        } catch (InvalidCustomerException e) {
+        } catch (InvalidCustomerException | InvalidOrderException e) {
             timer.finishWithError(e.getMessage());
             log.error("BUY order processing failed for customer: {} - Business Error: {}", 
                      request.customer(), e.getMessage(), e);
@@ -91,15 +87,25 @@ public class BuyCreateOrderProcessor implements CreateOrderProcessor {
         }
     }
 
-    private Order saveOrder(CreateOrder request) {
+    private static long notional(long priceTicks, long size) {
+        try {
+            return FixedPoint.notional(priceTicks, size);
+        } catch (ArithmeticException e) {
+            throw new InvalidOrderException("Order notional exceeds the supported range.");
+        }
+    }
+
+    private Order saveOrder(CreateOrder request, long priceTicks, long reservedAmount) {
         Order newOrder = Order.builder()
                 .customerId(request.customer())
                 .assetName(request.asset())
                 .orderSide(request.side())
-                .price(request.price())
+                .priceTicks(priceTicks)
                 .size(request.size())
+                .reservedAmount(reservedAmount)
                 .status(OrderStatus.PENDING)
-                .createDate(Instant.now())
+                // As stored: the column keeps microseconds, and events and the read model must carry the same key
+                .createDate(Instant.now().truncatedTo(ChronoUnit.MICROS))
                 .build();
 
         return orderRepository.save(newOrder);
@@ -7,8 +7,6 @@ import com.brokage.challenge.service.OrderCancellationStrategy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-
 @Service
 public class BuyOrderCancellationStrategy implements OrderCancellationStrategy {
     private final AssetService assetService;
@@ -25,7 +23,12 @@ public class BuyOrderCancellationStrategy implements OrderCancellationStrategy {
     @Override
     @Transactional
     public void refundUsableBalance(Order order) {
-        Long reservedAmount = order.getPrice().multiply(BigDecimal.valueOf(order.getSize())).longValue();
-        assetService.increaseUsableSize(order.getCustomerId(), "TRY", reservedAmount);
+        // Refund exactly what was reserved at placement instead of recomputing the notional
+        assetService.increaseUsableSize(order.getCustomerId(), refundAssetName(order), order.getReservedAmount());
+    }
+
+    @Override
+    public String refundAssetName(Order order) {
+        return "TRY";
     }
 }
@@ -0,0 +1,104 @@
+package com.brokage.challenge.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a whole transaction when it loses a race on a versioned or locked row.
+ * Must wrap the outermost {@code @Transactional} call: a transaction that hit a conflict is rollback-only,
+ * so the retry has to start a fresh one.
+ */
+@Component
+public class ConcurrencyRetryPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyRetryPolicy.class);
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final MeterRegistry meterRegistry;
+
+    public ConcurrencyRetryPolicy(@Value("${order.retry.max-attempts:3}") int maxAttempts,
+                                  @Value("${order.retry.initial-backoff:10ms}") Duration initialBackoff,
+                                  @Value("${order.retry.max-backoff:200ms}") Duration maxBackoff,
+                                  MeterRegistry meterRegistry) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("order.retry.max-attempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T execute(String operation, String target, Supplier<T> command) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return command.get();
+            } catch (RuntimeException e) {
+                if (!isConcurrencyConflict(e)) {
+                    throw e;
+                }
+                counter("order.retry.conflicts", operation).increment();
+                if (attempt >= maxAttempts) {
+                    counter("order.retry.exhausted", operation).increment();
+                    log.error("Operation {} on {} still conflicting after {} attempts", operation, target, attempt);
+                    throw e;
+                }
+                log.warn("Operation {} on {} hit a concurrent update, retrying (attempt {} of {})",
+                        operation, target, attempt + 1, maxAttempts);
+                counter("order.retry.retries", operation).increment();
+                if (!backOff(attempt)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Full jitter: sleeps a random time up to the exponential cap so colliding callers spread out.
+     * Returns false if the thread was interrupted while waiting.
+     */
+    private boolean backOff(int attempt) {
+        long cap = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        if (cap <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Counter counter(String name, String operation) {
+        return meterRegistry.counter(name, "operation", operation);
+    }
+
+    static boolean isConcurrencyConflict(Throwable error) {
+        // Services wrap unexpected failures in BrokageFirmApiException, so look through the cause chain
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof ConcurrencyFailureException
+                    || current instanceof OptimisticLockException
+                    || current instanceof PessimisticLockException
+                    || current instanceof LockTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
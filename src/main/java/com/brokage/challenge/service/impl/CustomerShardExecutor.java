@@ -0,0 +1,156 @@
+package com.brokage.challenge.service.impl;
+
+import com.brokage.challenge.exception.BrokageFirmApiException;
+import com.brokage.challenge.exception.OrderIntakeRejectedException;
+import com.brokage.challenge.util.ThreadFactories;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs balance-mutating order commands on one single-threaded executor per customer shard.
+ * All commands of a customer land on the same thread, so they never contend with each other for that customer's
+ * asset rows. Match settlement updates the same rows from the matcher thread and is not sharded.
+ * Each shard queues at most {@code order.execution.sharded.queue-capacity} commands; beyond that a command is
+ * rejected with {@link OrderIntakeRejectedException} (429) instead of piling up behind a slow shard.
+ */
+@Component
+@ConditionalOnProperty(prefix = "order.execution.sharded", name = "enabled", havingValue = "true")
+public class CustomerShardExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerShardExecutor.class);
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private final ThreadPoolExecutor[] shards;
+    private final Timer[] queueWaitTimers;
+    private final Timer[] executionTimers;
+    private final Counter[] rejectedCounters;
+
+    public CustomerShardExecutor(@Value("${order.execution.sharded.shards:0}") int shardCount,
+                                 @Value("${order.execution.sharded.queue-capacity:1000}") int queueCapacity,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                 MeterRegistry meterRegistry) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("order.execution.sharded.queue-capacity must be at least 1");
+        }
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        this.shards = new ThreadPoolExecutor[count];
+        this.queueWaitTimers = new Timer[count];
+        this.executionTimers = new Timer[count];
+        this.rejectedCounters = new Counter[count];
+
+        for (int i = 0; i < count; i++) {
+            String shardName = String.valueOf(i);
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity), ThreadFactories.named("order-shard-" + shardName, virtualThreads));
+            shards[i] = executor;
+
+            Gauge.builder("order.shard.queue.depth", executor, e -> e.getQueue().size())
+                    .description("Commands waiting in the shard queue")
+                    .tag("shard", shardName)
+                    .register(meterRegistry);
+            queueWaitTimers[i] = Timer.builder("order.shard.queue.wait")
+                    .description("Time a command spends queued before its shard picks it up")
+                    .tag("shard", shardName)
+                    .register(meterRegistry);
+            executionTimers[i] = Timer.builder("order.shard.execution")
+                    .description("Time a shard spends executing a command")
+                    .tag("shard", shardName)
+                    .register(meterRegistry);
+            rejectedCounters[i] = Counter.builder("order.shard.rejected")
+                    .description("Commands turned away because the shard queue was full")
+                    .tag("shard", shardName)
+                    .register(meterRegistry);
+        }
+        log.info("Customer sharded order execution enabled with {} shards of {} queued commands on {} threads",
+                count, queueCapacity, virtualThreads ? "virtual" : "platform");
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    public int shardFor(String customerId) {
+        return Math.floorMod(customerId.hashCode(), shards.length);
+    }
+
+    /**
+     * Executes the command on the customer's shard and blocks until it completes.
+     * Runtime exceptions thrown by the command are rethrown unchanged.
+     */
+    public <T> T execute(String customerId, Supplier<T> command) {
+        int shard = shardFor(customerId);
+        Integer currentShard = CURRENT_SHARD.get();
+        if (currentShard != null && currentShard == shard) {
+            // Already running on the owning shard; queueing would deadlock on ourselves
+            return command.get();
+        }
+
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = shards[shard].submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitTimers[shard].record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                CURRENT_SHARD.set(shard);
+                try {
+                    return command.get();
+                } finally {
+                    CURRENT_SHARD.remove();
+                    executionTimers[shard].record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (shards[shard].isShutdown()) {
+                throw new BrokageFirmApiException("Order shard " + shard + " is not accepting commands", e);
+            }
+            rejectedCounters[shard].increment();
+            throw new OrderIntakeRejectedException("Order shard " + shard + " is busy, please retry later");
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BrokageFirmApiException("Interrupted while waiting for order shard " + shard, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new BrokageFirmApiException("Order shard " + shard + " failed to execute command", cause);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ThreadPoolExecutor shard : shards) {
+            shard.shutdown();
+        }
+        for (ThreadPoolExecutor shard : shards) {
+            if (!shard.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Order shard did not drain within timeout, {} commands dropped", shard.shutdownNow().size());
+            }
+        }
+    }
+}
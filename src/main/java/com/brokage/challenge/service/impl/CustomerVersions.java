@@ -0,0 +1,86 @@
+package com.brokage.challenge.service.impl;
+
+import com.brokage.challenge.event.OrderCancelledEvent;
+import com.brokage.challenge.event.OrderCreatedEvent;
+import com.brokage.challenge.event.OrderExecutedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of each customer's balances and orders, used as the ETag of the list endpoints. A committed mutation
+ * drops the customer's version; the next read draws a fresh one from a node-wide sequence, so a version is never
+ * handed out twice. The random epoch keeps versions from another node or an earlier run from matching.
+ * <p>
+ * Callers must take the version before reading the data it labels: a write that lands in between then only
+ * costs one extra full response. For the same reason the version is dropped after {@link AssetBalanceCache} evicts
+ * the customer's balances on commit.
+ */
+@Component
+public class CustomerVersions {
+
+    static final int INVALIDATION_ORDER = AssetBalanceCache.EVICTION_ORDER + 1;
+
+    private final String epoch = HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextLong());
+    private final AtomicLong sequence = new AtomicLong();
+    private final Cache<String, Long> versions;
+
+    public CustomerVersions(@Value("${customer.versions.max-size:100000}") long maxSize) {
+        // An evicted customer just gets a new version, i.e. one unconditional response per client
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public String etag(String customerId) {
+        return epoch + "-" + versions.get(customerId, id -> sequence.incrementAndGet());
+    }
+
+    /**
+     * Moves the customer to a new version once the surrounding transaction commits, or right away outside one.
+     */
+    public void bumpAfterCommit(String customerId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            versions.invalidate(customerId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                versions.invalidate(customerId);
+            }
+
+            @Override
+            public int getOrder() {
+                return INVALIDATION_ORDER;
+            }
+        });
+    }
+
+    @TransactionalEventListener
+    @Order(INVALIDATION_ORDER)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        versions.invalidate(event.customerId());
+    }
+
+    @TransactionalEventListener
+    @Order(INVALIDATION_ORDER)
+    public void onOrderCancelled(OrderCancelledEvent event) {
+        versions.invalidate(event.customerId());
+    }
+
+    @TransactionalEventListener
+    @Order(INVALIDATION_ORDER)
+    public void onOrderExecuted(OrderExecutedEvent event) {
+        versions.invalidate(event.customerId());
+    }
+}
@@ -0,0 +1,141 @@
+package com.brokage.challenge.service.impl;
+
+import com.brokage.challenge.dto.BatchOrderItemResponse;
+import com.brokage.challenge.dto.BulkCancelResponse;
+import com.brokage.challenge.dto.CreateOrder;
+import com.brokage.challenge.entity.Order;
+import com.brokage.challenge.enums.OrderSide;
+import com.brokage.challenge.repository.OrderRepository;
+import com.brokage.challenge.service.OrderService;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Entry point for order commands that mutate balances. Runs them inline on the caller's thread,
+ * or on the customer's shard when {@code order.execution.sharded.enabled} is set. Each command is one
+ * transaction, re-run by {@link ConcurrencyRetryPolicy} if it loses a race on an asset or order row.
+ * The retry wraps the shard hand-off, so the backoff sleeps on the caller's thread and every attempt is queued
+ * again; the shard keeps serving its other customers meanwhile.
+ * <p>
+ * Shards serialize these commands only. {@code MatchSettlement} moves balances of both sides of a fill from the
+ * matcher thread, outside any shard, so a shard's command can still lose a race with it and be retried.
+ */
+@Service
+public class OrderCommandGateway {
+
+    private final OrderService orderService;
+    private final BatchOrderService batchOrderService;
+    private final BulkOrderCancellationService bulkCancellationService;
+    private final OrderRepository orderRepository;
+    private final ConcurrencyRetryPolicy retryPolicy;
+    private final CustomerShardExecutor shardExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderCommandGateway(OrderService orderService,
+                               BatchOrderService batchOrderService,
+                               BulkOrderCancellationService bulkCancellationService,
+                               OrderRepository orderRepository,
+                               ConcurrencyRetryPolicy retryPolicy,
+                               ObjectProvider<CustomerShardExecutor> shardExecutor,
+                               PlatformTransactionManager transactionManager) {
+        this.orderService = orderService;
+        this.batchOrderService = batchOrderService;
+        this.bulkCancellationService = bulkCancellationService;
+        this.orderRepository = orderRepository;
+        this.retryPolicy = retryPolicy;
+        this.shardExecutor = shardExecutor.getIfAvailable();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public Order createOrder(CreateOrder request) {
+        return execute("CREATE_ORDER", "customer " + request.customer(), request.customer(),
+                () -> orderService.createOrder(request));
+    }
+
+    /**
+     * Creates the order and hands it to {@code inTransaction} before the order's transaction commits, so whatever the
+     * callback writes commits or rolls back with the order, on every retry attempt.
+     */
+    public Order createOrder(CreateOrder request, Consumer<Order> inTransaction) {
+        return execute("CREATE_ORDER", "customer " + request.customer(), request.customer(),
+                () -> transactionTemplate.execute(status -> {
+                    Order order = orderService.createOrder(request);
+                    inTransaction.accept(order);
+                    return order;
+                }));
+    }
+
+    public List<BatchOrderItemResponse> createOrders(List<CreateOrder> requests) {
+        if (shardExecutor == null) {
+            return retryPolicy.execute("CREATE_ORDER_BATCH", "batch of " + requests.size(),
+                    () -> batchOrderService.createOrders(requests));
+        }
+        batchOrderService.checkBatchSize(requests);
+
+        // Split the batch per shard so each shard only mutates its own customers' balances
+        Map<Integer, List<Integer>> indexesByShard = new TreeMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateOrder request = requests.get(i);
+            int shard = request == null || request.customer() == null ? 0 : shardExecutor.shardFor(request.customer());
+            indexesByShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(i);
+        }
+
+        BatchOrderItemResponse[] results = new BatchOrderItemResponse[requests.size()];
+        for (List<Integer> indexes : indexesByShard.values()) {
+            List<CreateOrder> shardRequests = indexes.stream().map(requests::get).toList();
+            String routingCustomer = shardRequests.stream()
+                    .filter(request -> request != null && request.customer() != null)
+                    .map(CreateOrder::customer)
+                    .findFirst()
+                    .orElse("");
+            List<BatchOrderItemResponse> shardResults = execute("CREATE_ORDER_BATCH",
+                    "batch of " + shardRequests.size(), routingCustomer,
+                    () -> batchOrderService.createOrders(shardRequests));
+            for (int i = 0; i < shardResults.size(); i++) {
+                int index = indexes.get(i);
+                results[index] = shardResults.get(i).withIndex(index);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    public void deleteOrder(Long orderId) {
+        Supplier<Void> command = () -> {
+            orderService.deleteOrder(orderId);
+            return null;
+        };
+        Optional<String> customerId = shardExecutor == null ? Optional.empty()
+                : orderRepository.findCustomerIdById(orderId);
+        if (customerId.isEmpty()) {
+            // No shard to pick, e.g. the order is gone; run inline and let the service report a missing order
+            retryPolicy.execute("DELETE_ORDER", "order " + orderId, command);
+            return;
+        }
+
+        execute("DELETE_ORDER", "order " + orderId, customerId.get(), command);
+    }
+
+    public BulkCancelResponse cancelOrders(String customerId, String assetName, OrderSide side) {
+        return execute("CANCEL_ORDERS", "customer " + customerId, customerId,
+                () -> bulkCancellationService.cancelOrders(customerId, assetName, side));
+    }
+
+    private <T> T execute(String operation, String target, String customerId, Supplier<T> command) {
+        if (shardExecutor == null) {
+            return retryPolicy.execute(operation, target, command);
+        }
+        return retryPolicy.execute(operation, target, () -> shardExecutor.execute(customerId, command));
+    }
+}
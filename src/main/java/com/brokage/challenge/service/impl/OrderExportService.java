@@ -0,0 +1,105 @@
+package com.brokage.challenge.service.impl;
+
+import com.brokage.challenge.entity.Order;
+import com.brokage.challenge.exception.BrokageFirmApiException;
+import com.brokage.challenge.mapper.OrderResponseMapper;
+import com.brokage.challenge.repository.OrderRepository;
+import com.brokage.challenge.util.TimeUtil;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a customer's order history as NDJSON straight from a database cursor. Each row is mapped, written and
+ * detached before the next one is read, so memory stays flat however long the date range is.
+ */
+@Service
+public class OrderExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExportService.class);
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderExportService(OrderRepository orderRepository,
+                              EntityManager entityManager,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        // Flush in chunks rather than after every row
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * @return number of orders written
+     */
+    public long exportOrders(String customerId, Instant startDate, Instant endDate, OutputStream out) {
+        TimeUtil.ExecutionTimer timer = TimeUtil.startTimer("EXPORT_ORDERS", log);
+
+        try {
+            log.info("Exporting orders for customer: {} between {} and {}", customerId, startDate, endDate);
+
+            Long written = transactionTemplate.execute(status -> {
+                try (Stream<Order> orders = orderRepository.streamByCustomer(customerId, startDate, endDate);
+                     JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                    // The servlet owns the response stream; rows are separated by newlines, not Jackson's default space
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    generator.setRootValueSeparator(null);
+                    long count = 0;
+                    for (Iterator<Order> it = orders.iterator(); it.hasNext(); ) {
+                        Order order = it.next();
+                        rowWriter.writeValue(generator, OrderResponseMapper.toOrderResponse(order));
+                        generator.writeRaw('\n');
+                        entityManager.detach(order);
+                        if (++count % FLUSH_EVERY == 0) {
+                            generator.flush();
+                        }
+                    }
+                    generator.flush();
+                    return count;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            log.info("Exported {} orders for customer: {}", written, customerId);
+            return written == null ? 0 : written;
+
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-download; nothing left to answer
+            timer.finishWithError(e.getMessage());
+            log.warn("Order export aborted for customer: {} - {}", customerId, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Order export failed for customer: {} - System Error: {}", customerId, e.getMessage(), e);
+            throw new BrokageFirmApiException("Order export failed due to system error", e);
+        } finally {
+            timer.finish();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.brokage.challenge.service.impl;
+
+import com.brokage.challenge.dto.OrderDailySummary;
+import com.brokage.challenge.enums.OrderSide;
+import com.brokage.challenge.enums.OrderStatus;
+import com.brokage.challenge.event.OrderCancelledEvent;
+import com.brokage.challenge.event.OrderCreatedEvent;
+import com.brokage.challenge.event.OrderExecutedEvent;
+import com.brokage.challenge.exception.BrokageFirmApiException;
+import com.brokage.challenge.util.FixedPoint;
+import com.brokage.challenge.util.TimeUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains {@code order_daily_rollup} from the order events, inside the transaction that publishes them. Deltas
+ * of one transaction are summed per row and merged just before it commits, so a bulk cancel or a match cycle
+ * writes each touched row once, in key order, and the rollup commits or rolls back together with the orders.
+ */
+@Service
+public class OrderRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderRollupService.class);
+
+    private static final String MERGE_ROLLUP =
+            "MERGE INTO order_daily_rollup r USING (SELECT CAST(? AS VARCHAR(50)) AS customer_id, " +
+            "CAST(? AS DATE) AS trade_date, CAST(? AS VARCHAR(50)) AS asset_name, CAST(? AS VARCHAR(4)) AS side, " +
+            "CAST(? AS VARCHAR(10)) AS status, CAST(? AS BIGINT) AS order_count, CAST(? AS BIGINT) AS quantity, " +
+            "CAST(? AS BIGINT) AS notional) d " +
+            "ON (r.customer_id = d.customer_id AND r.trade_date = d.trade_date AND r.asset_name = d.asset_name " +
+            "AND r.side = d.side AND r.status = d.status) " +
+            "WHEN MATCHED THEN UPDATE SET order_count = r.order_count + d.order_count, " +
+            "quantity = r.quantity + d.quantity, notional = r.notional + d.notional " +
+            "WHEN NOT MATCHED THEN INSERT (customer_id, trade_date, asset_name, side, status, order_count, quantity, " +
+            "notional) VALUES (d.customer_id, d.trade_date, d.asset_name, d.side, d.status, d.order_count, " +
+            "d.quantity, d.notional)";
+    private static final String SELECT_RANGE =
+            "SELECT trade_date, asset_name, side, status, order_count, quantity, notional FROM order_daily_rollup " +
+            "WHERE customer_id = ? AND trade_date BETWEEN ? AND ? AND (CAST(? AS VARCHAR(50)) IS NULL OR asset_name = ?) " +
+            "ORDER BY trade_date, asset_name, side, status";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxDays;
+
+    public OrderRollupService(JdbcTemplate jdbcTemplate,
+                              @Value("${order.summary.max-days:366}") int maxDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxDays = maxDays;
+    }
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        record(new RollupKey(event.customerId(), LocalDate.ofInstant(event.createDate(), ZoneOffset.UTC),
+                        event.assetName(), event.side(), OrderStatus.PENDING),
+                1, event.size(), FixedPoint.notional(event.priceTicks(), event.size()));
+    }
+
+    @EventListener
+    public void onOrderExecuted(OrderExecutedEvent event) {
+        record(new RollupKey(event.customerId(), today(), event.assetName(), event.side(), OrderStatus.EXECUTED),
+                event.executed() ? 1 : 0, event.filledQuantity(), event.notional());
+    }
+
+    @EventListener
+    public void onOrderCancelled(OrderCancelledEvent event) {
+        record(new RollupKey(event.customerId(), today(), event.assetName(), event.side(), OrderStatus.CANCELLED),
+                1, event.remainingSize(), FixedPoint.notional(event.priceTicks(), event.remainingSize()));
+    }
+
+    /**
+     * Rollup rows of a customer between {@code from} and {@code to} (inclusive, UTC days), optionally for one asset.
+     * Reads at most one row per day, asset, side and status, whatever the number of orders.
+     */
+    public List<OrderDailySummary> summarize(String customerId, LocalDate from, LocalDate to, String assetName) {
+        TimeUtil.ExecutionTimer timer = TimeUtil.startTimer("SUMMARIZE_ORDERS", log);
+
+        try {
+            if (from.isAfter(to)) {
+                throw new IllegalArgumentException("from must not be after to");
+            }
+            if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+                throw new IllegalArgumentException("Summary range must not exceed " + maxDays + " days");
+            }
+            log.info("Summarizing orders for customer: {} between {} and {}, asset: {}", customerId, from, to, assetName);
+
+            List<OrderDailySummary> rows = jdbcTemplate.query(SELECT_RANGE, (rs, rowNum) -> new OrderDailySummary(
+                    rs.getObject("trade_date", LocalDate.class),
+                    rs.getString("asset_name"),
+                    OrderSide.valueOf(rs.getString("side")),
+                    OrderStatus.valueOf(rs.getString("status")),
+                    rs.getLong("order_count"),
+                    rs.getLong("quantity"),
+                    rs.getLong("notional")), customerId, from, to, assetName, assetName);
+
+            log.info("Found {} summary rows for customer: {}", rows.size(), customerId);
+            return rows;
+
+        } catch (IllegalArgumentException e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Failed to summarize orders for customer: {} - Business Error: {}", customerId, e.getMessage(), e);
+            throw e;
+        } catch (Exception e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Failed to summarize orders for customer: {} - System Error: {}", customerId, e.getMessage(), e);
+            throw new BrokageFirmApiException("Failed to summarize orders due to system error", e);
+        } finally {
+            timer.finish();
+        }
+    }
+
+    private void record(RollupKey key, long orderCount, long quantity, long notional) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            merge(key, new long[]{orderCount, quantity, notional});
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<RollupKey, long[]> pending = (Map<RollupKey, long[]>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<RollupKey, long[]> deltas = new TreeMap<>(RollupKey.ORDER);
+            TransactionSynchronizationManager.bindResource(this, deltas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    deltas.forEach(OrderRollupService.this::merge);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OrderRollupService.this);
+                }
+            });
+            pending = deltas;
+        }
+        long[] delta = pending.computeIfAbsent(key, k -> new long[3]);
+        delta[0] += orderCount;
+        delta[1] += quantity;
+        delta[2] += notional;
+    }
+
+    private void merge(RollupKey key, long[] delta) {
+        Object[] arguments = {key.customerId(), key.day(), key.assetName(), key.side().name(), key.status().name(),
+                delta[0], delta[1], delta[2]};
+        try {
+            jdbcTemplate.update(MERGE_ROLLUP, arguments);
+        } catch (DuplicateKeyException e) {
+            // Another transaction inserted the row first; now it matches
+            jdbcTemplate.update(MERGE_ROLLUP, arguments);
+        }
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+
+    record RollupKey(String customerId, LocalDate day, String assetName, OrderSide side, OrderStatus status) {
+
+        // Rows are merged in one global order so concurrent transactions lock them in the same sequence
+        static final Comparator<RollupKey> ORDER = Comparator.comparing(RollupKey::customerId)
+                .thenComparing(RollupKey::day)
+                .thenComparing(RollupKey::assetName)
+                .thenComparing(RollupKey::side)
+                .thenComparing(RollupKey::status);
+    }
+}
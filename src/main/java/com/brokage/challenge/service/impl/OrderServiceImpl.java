@@ -7,6 +7,8 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.brokage.challenge.audit.Auditable;
+import com.brokage.challenge.event.OrderCancelledEvent;
+import com.brokage.challenge.event.OrderCreatedEvent;
 import com.brokage.challenge.exception.BrokageFirmApiException;
 import com.brokage.challenge.exception.InvalidOrderException;
 import com.brokage.challenge.exception.InvalidCustomerException;
@@ -17,10 +19,16 @@ import com.brokage.challenge.util.TimeUtil;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.brokage.challenge.dto.CreateOrder;
+import com.brokage.challenge.dto.OrderCursor;
+import com.brokage.challenge.dto.OrderFilter;
+import com.brokage.challenge.dto.OrderResponse;
 import com.brokage.challenge.entity.Order;
 import com.brokage.challenge.enums.OrderSide;
 import com.brokage.challenge.enums.OrderStatus;
@@ -34,12 +42,18 @@ public class OrderServiceImpl implements OrderService {
     private final OrderRepository orderRepository;
     private final Map<OrderSide, CreateOrderProcessor> processorMap;
     private final AssetUpdateManager assetUpdateManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxPageSize;
 
-    public OrderServiceImpl(List<CreateOrderProcessor> processors, OrderRepository orderRepository, AssetUpdateManager assetUpdateManager) {
+    public OrderServiceImpl(List<CreateOrderProcessor> processors, OrderRepository orderRepository,
+                            AssetUpdateManager assetUpdateManager, ApplicationEventPublisher eventPublisher,
+                            @Value("${order.list.max-page-size:1000}") int maxPageSize) {
         this.processorMap = processors.stream()
                 .collect(Collectors.toMap(CreateOrderProcessor::getSupportedSide, Function.identity()));
         this.orderRepository = orderRepository;
         this.assetUpdateManager = assetUpdateManager;
+        this.eventPublisher = eventPublisher;
+        this.maxPageSize = maxPageSize;
     }
 
     @Transactional
@@ -60,6 +74,7 @@ public class OrderServiceImpl implements OrderService {
             }
             
             Order order = processor.process(request);
+            eventPublisher.publishEvent(OrderCreatedEvent.of(order));
             log.info("Order created successfully with ID: {} for customer: {}", 
                     order.getId(), request.customer());
             
@@ -81,19 +96,33 @@ public class OrderServiceImpl implements OrderService {
     }
 
 
+    @Transactional(readOnly = true)
     @Override
-    public List<Order> listOrders(String customerId, Instant startDate, Instant endDate) {
+    public Slice<OrderResponse> listOrders(String customerId, Instant startDate, Instant endDate, OrderFilter filter,
+                                           OrderCursor after, int pageSize) {
         TimeUtil.ExecutionTimer timer = TimeUtil.startTimer("LIST_ORDERS", log);
         
         try {
-            log.info("Listing orders for customer: {} between {} and {}", 
-                    customerId, startDate, endDate);
+            if (pageSize < 1) {
+                throw new IllegalArgumentException("Page size must be at least 1");
+            }
+            int size = Math.min(pageSize, maxPageSize);
+            log.info("Listing orders for customer: {} between {} and {}, filter: {}, after: {}, page size: {}", 
+                    customerId, startDate, endDate, filter, after, size);
             
-            List<Order> orders = orderRepository.findByCustomerIdAndCreateDateBetween(customerId, startDate, endDate);
+            // The first page starts before any id at startDate
+            Slice<OrderResponse> orders = after == null
+                    ? orderRepository.findPage(customerId, startDate, endDate, filter, startDate, Long.MIN_VALUE, size)
+                    : orderRepository.findPage(customerId, startDate, endDate, filter, after.createDate(), after.id(), size);
             
-            log.info("Found {} orders for customer: {}", orders.size(), customerId);
+            log.info("Found {} orders for customer: {}, more: {}", orders.getNumberOfElements(), customerId, orders.hasNext());
             return orders;
             
+        } catch (IllegalArgumentException e) {
+            timer.finishWithError(e.getMessage());
+            log.error("Failed to list orders for customer: {} - Business Error: {}", 
+                     customerId, e.getMessage(), e);
+            throw e;
         } catch (Exception e) {
             timer.finishWithError(e.getMessage());
             log.error("Failed to list orders for customer: {} - System Error: {}", 
@@ -126,9 +155,18 @@ public class OrderServiceImpl implements OrderService {
                     order.getId(), order.getCustomerId(), order.getOrderSide());
             
             assetUpdateManager.refundUsableBalanceForCancellation(order);
-            orderRepository.delete(order);
-            
-            log.info("Order deleted successfully: {}", orderId);
+            eventPublisher.publishEvent(OrderCancelledEvent.of(order));
+
+            if (order.getFilledSize() > 0) {
+                // Keep the executed part on record; only the open remainder is cancelled
+                order.setStatus(OrderStatus.CANCELLED);
+                order.setReservedAmount(0L);
+                orderRepository.save(order);
+                log.info("Partially filled order cancelled: {}", orderId);
+            } else {
+                orderRepository.delete(order);
+                log.info("Order deleted successfully: {}", orderId);
+            }
             
         } catch (InvalidOrderException e) {
             timer.finishWithError(e.getMessage());
@@ -3,13 +3,13 @@ package com.brokage.challenge.service.impl;
 import com.brokage.challenge.exception.BrokageFirmApiException;
 import com.brokage.challenge.exception.InvalidCustomerException;
 import com.brokage.challenge.dto.CreateOrder;
-import com.brokage.challenge.entity.Asset;
 import com.brokage.challenge.entity.Order;
 import com.brokage.challenge.enums.OrderSide;
 import com.brokage.challenge.enums.OrderStatus;
 import com.brokage.challenge.repository.AssetRepository;
 import com.brokage.challenge.repository.OrderRepository;
 import com.brokage.challenge.service.CreateOrderProcessor;
+import com.brokage.challenge.util.FixedPoint;
 import com.brokage.challenge.util.TimeUtil;
 
 import org.slf4j.Logger;
@@ -18,6 +18,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 @Service
 public class SellCreateOrderProcessor implements CreateOrderProcessor {
@@ -46,26 +47,22 @@ public class SellCreateOrderProcessor implements CreateOrderProcessor {
             log.info("Processing SELL order for customer: {}, asset: {}, size: {}, price: {}", 
                     request.customer(), request.asset(), request.size(), request.price());
             
-            Asset assetToSell = assetRepository.findByCustomerIdAndAssetName(request.customer(), request.asset())
-                    .orElseThrow(() -> new InvalidCustomerException(
-                            request.customer() + " does not have a " + request.asset() + " asset."
-                    ));
-
-            if (assetToSell.getUsableSize() < request.size()) {
+            int reserved = assetRepository.reserveUsableSize(request.customer(), request.asset(), request.size());
+            if (reserved == 0) {
+                if (!assetRepository.existsByCustomerIdAndAssetName(request.customer(), request.asset())) {
+                    throw new InvalidCustomerException(
+                            request.customer() + " does not have a " + request.asset() + " asset.");
+                }
                 String errorMsg = String.format("Insufficient %s balance for customer %s.",
                         request.asset(), request.customer());
                 log.warn("Insufficient asset balance: {}", errorMsg);
                 throw new InvalidCustomerException(errorMsg);
             }
 
-            Long oldUsableSize = assetToSell.getUsableSize();
-            assetToSell.setUsableSize(assetToSell.getUsableSize() - request.size());
-            assetRepository.save(assetToSell);
-            
-            log.info("Asset balance updated for customer: {} - asset: {}, old: {}, new: {}, deducted: {}", 
-                    request.customer(), request.asset(), oldUsableSize, assetToSell.getUsableSize(), request.size());
+            log.info("Asset balance reserved for customer: {} - asset: {}, deducted: {}",
+                    request.customer(), request.asset(), request.size());
 
-            Order order = saveOrder(request);
+            Order order = saveOrder(request, FixedPoint.toTicks(request.price()));
             log.info("SELL order created successfully with ID: {} for customer: {}", 
                     order.getId(), request.customer());
             
@@ -86,15 +83,17 @@ public class SellCreateOrderProcessor implements CreateOrderProcessor {
         }
     }
 
-    private Order saveOrder(CreateOrder request) {
+    private Order saveOrder(CreateOrder request, long priceTicks) {
         Order newOrder = Order.builder()
                 .customerId(request.customer())
                 .assetName(request.asset())
                 .orderSide(request.side())
-                .price(request.price())
+                .priceTicks(priceTicks)
                 .size(request.size())
+                .reservedAmount(request.size())
                 .status(OrderStatus.PENDING)
-                .createDate(Instant.now())
+                // Microseconds, as stored, so the read model and cursors use the same key as the row
+                .createDate(Instant.now().truncatedTo(ChronoUnit.MICROS))
                 .build();
 
         return orderRepository.save(newOrder);
@@ -22,7 +22,11 @@ public class SellOrderCancellationStrategy implements OrderCancellationStrategy
 
     @Override
     public void refundUsableBalance(Order order) {
-        Long reservedShares = order.getSize();
-        assetService.increaseUsableSize(order.getCustomerId(), order.getAssetName(), reservedShares);
+        assetService.increaseUsableSize(order.getCustomerId(), refundAssetName(order), order.getReservedAmount());
+    }
+
+    @Override
+    public String refundAssetName(Order order) {
+        return order.getAssetName();
     }
 }
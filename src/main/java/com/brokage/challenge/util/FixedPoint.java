@@ -0,0 +1,42 @@
+package com.brokage.challenge.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Prices as longs scaled by {@value #SCALE} decimal places ("ticks"), matching the {@code scale = 4} price column.
+ * BigDecimal is only used to convert at the JSON and JDBC edges; order arithmetic stays on longs.
+ */
+public final class FixedPoint {
+
+    public static final int SCALE = 4;
+    public static final long ONE = 10_000L;
+
+    private FixedPoint() {
+    }
+
+    /**
+     * Converts a decimal price to ticks. Throws IllegalArgumentException if it has more than
+     * {@value #SCALE} decimal places or does not fit in a long.
+     */
+    public static long toTicks(BigDecimal value) {
+        try {
+            return value.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(String.format("Price %s must have at most %d decimal places and fit the price range",
+                    value.toPlainString(), SCALE), e);
+        }
+    }
+
+    public static BigDecimal toDecimal(long ticks) {
+        return BigDecimal.valueOf(ticks, SCALE);
+    }
+
+    /**
+     * Whole currency units to reserve for {@code size} units at {@code priceTicks}. Fractions round up so the
+     * reservation always covers the notional. Throws ArithmeticException on overflow.
+     */
+    public static long notional(long priceTicks, long size) {
+        return Math.ceilDiv(Math.multiplyExact(priceTicks, size), ONE);
+    }
+}
@@ -0,0 +1,23 @@
+package com.brokage.challenge.util;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Stores tick-scaled longs in a {@code DECIMAL(19, 4)} column.
+ */
+@Converter
+public class FixedPointConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long ticks) {
+        return ticks == null ? null : FixedPoint.toDecimal(ticks);
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal value) {
+        return value == null ? null : FixedPoint.toTicks(value);
+    }
+}
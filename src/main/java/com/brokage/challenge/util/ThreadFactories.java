@@ -0,0 +1,25 @@
+package com.brokage.challenge.util;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factories for the service's internal executors. Virtual threads are used when
+ * {@code spring.threads.virtual.enabled} is set, so background work follows the same mode as request handling.
+ */
+public final class ThreadFactories {
+
+    private ThreadFactories() {
+    }
+
+    public static ThreadFactory named(String name, boolean virtual) {
+        return virtual
+                ? Thread.ofVirtual().name(name).factory()
+                : Thread.ofPlatform().name(name).factory();
+    }
+
+    public static ThreadFactory numbered(String prefix, boolean virtual) {
+        return virtual
+                ? Thread.ofVirtual().name(prefix, 0).factory()
+                : Thread.ofPlatform().name(prefix, 0).factory();
+    }
+}
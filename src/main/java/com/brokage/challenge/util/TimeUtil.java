@@ -1,60 +1,130 @@
 package com.brokage.challenge.util;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
-import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Times operations with {@link System#nanoTime()} into the {@code operation.duration} timer, tagged with the operation
+ * and its {@code outcome} ({@code success} or {@code error}) and publishing p50, p99 and p999. Start and finish log
+ * lines are only written with {@code timing.log} enabled.
+ * <p>
+ * Timers are started from static code all over the services, so the registry and the log switch are static and set
+ * once this component is created; until then (e.g. in plain unit tests) timings go to the empty global registry.
+ */
 @Component
 public class TimeUtil {
-    
+
     private static final Logger log = LoggerFactory.getLogger(TimeUtil.class);
-    
+
+    static final String TIMER_NAME = "operation.duration";
+    static final String SUCCESS = "success";
+    static final String ERROR = "error";
+
+    private static volatile MeterRegistry meterRegistry = Metrics.globalRegistry;
+    private static volatile boolean logEnabled;
+    // Looking a timer up in the registry builds a new meter id each time, so they are kept per operation
+    private static final Map<String, OperationTimers> timers = new ConcurrentHashMap<>();
+
+    private record OperationTimers(Timer success, Timer error) {
+    }
+
+    public TimeUtil(MeterRegistry meterRegistry, @Value("${timing.log:false}") boolean logEnabled) {
+        configure(meterRegistry, logEnabled);
+        log.info("Operation timing recorded to {}, start/finish logging {}", TIMER_NAME, logEnabled ? "on" : "off");
+    }
+
+    static void configure(MeterRegistry registry, boolean enabled) {
+        meterRegistry = registry;
+        logEnabled = enabled;
+        timers.clear();
+    }
+
+    private static OperationTimers timers(String operation) {
+        OperationTimers operationTimers = timers.get(operation);
+        if (operationTimers == null) {
+            operationTimers = timers.computeIfAbsent(operation,
+                    op -> new OperationTimers(timer(op, SUCCESS), timer(op, ERROR)));
+        }
+        return operationTimers;
+    }
+
+    private static Timer timer(String operation, String outcome) {
+        return Timer.builder(TIMER_NAME)
+                .description("Time spent in a timed operation")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+    }
+
     public static class ExecutionTimer {
-        private final Instant startTime;
+        private final long startNanos;
         private final String operation;
         private final Logger logger;
-        
+        // Callers finish with an error in catch and again in finally; only the first one counts
+        private boolean finished;
+
         public ExecutionTimer(String operation, Logger logger) {
-            this.startTime = Instant.now();
             this.operation = operation;
             this.logger = logger;
-            logger.info("Starting operation: {}", operation);
+            if (logEnabled) {
+                logger.info("Starting operation: {}", operation);
+            }
+            this.startNanos = System.nanoTime();
         }
-        
+
         public void finish() {
-            Instant endTime = Instant.now();
-            Duration duration = Duration.between(startTime, endTime);
-            logger.info("Operation '{}' completed in {}ms", operation, duration.toMillis());
+            if (finished) {
+                return;
+            }
+            finished = true;
+            long elapsed = System.nanoTime() - startNanos;
+            timers(operation).success().record(elapsed, TimeUnit.NANOSECONDS);
+            if (logEnabled) {
+                logger.info("Operation '{}' completed in {}ms", operation, TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
         }
-        
+
         public void finishWithError(String errorMessage) {
-            Instant endTime = Instant.now();
-            Duration duration = Duration.between(startTime, endTime);
-            logger.error("Operation '{}' failed after {}ms - Error: {}", 
-                        operation, duration.toMillis(), errorMessage);
+            if (finished) {
+                return;
+            }
+            finished = true;
+            long elapsed = System.nanoTime() - startNanos;
+            timers(operation).error().record(elapsed, TimeUnit.NANOSECONDS);
+            if (logEnabled) {
+                logger.error("Operation '{}' failed after {}ms - Error: {}",
+                        operation, TimeUnit.NANOSECONDS.toMillis(elapsed), errorMessage);
+            }
         }
-        
+
         public long getElapsedMillis() {
-            return Duration.between(startTime, Instant.now()).toMillis();
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
         }
     }
-    
+
     public static ExecutionTimer startTimer(String operation, Logger logger) {
         return new ExecutionTimer(operation, logger);
     }
-    
+
     public static ExecutionTimer startTimer(String operation, Class<?> clazz) {
         return new ExecutionTimer(operation, LoggerFactory.getLogger(clazz));
     }
-    
+
     public static void logExecutionTime(String operation, long startTime, Logger logger) {
         long duration = System.currentTimeMillis() - startTime;
         logger.info("Operation '{}' completed in {}ms", operation, duration);
     }
-    
+
     public static void logExecutionTimeWithError(String operation, long startTime, String error, Logger logger) {
         long duration = System.currentTimeMillis() - startTime;
         logger.error("Operation '{}' failed after {}ms - Error: {}", operation, duration, error);
@@ -5,5 +5,19 @@ CREATE TABLE asset (
                        asset_name VARCHAR(50) NOT NULL,
                        size DECIMAL(19,4) NOT NULL,
                        usable_size DECIMAL(19,4) NOT NULL,
+                       version BIGINT DEFAULT 0 NOT NULL,
                        CONSTRAINT uq_asset UNIQUE (customer_id, asset_name)
 );
+
+-- Daily order activity per customer, asset, side and status; maintained in the order transactions
+CREATE TABLE order_daily_rollup (
+                       customer_id VARCHAR(50) NOT NULL,
+                       trade_date DATE NOT NULL,
+                       asset_name VARCHAR(50) NOT NULL,
+                       side VARCHAR(4) NOT NULL,
+                       status VARCHAR(10) NOT NULL,
+                       order_count BIGINT NOT NULL,
+                       quantity BIGINT NOT NULL,
+                       notional BIGINT NOT NULL,
+                       CONSTRAINT pk_order_daily_rollup PRIMARY KEY (customer_id, trade_date, asset_name, side, status)
+);
@@ -0,0 +1,161 @@
+package com.brokage.challenge.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncAuditWriterTest {
+
+    // Static test data
+    private static final String TEST_OPERATION = "CREATE_ORDER";
+    private static final String TEST_CUSTOMER_ID = "cust1";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path spillDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> inserted = new ArrayList<>();
+    private AsyncAuditWriter writer;
+
+    private AsyncAuditWriter writer(int capacity, int batchSize, AsyncAuditWriter.OverflowPolicy overflow) {
+        writer = new AsyncAuditWriter(jdbcTemplate, new ObjectMapper().findAndRegisterModules(), meterRegistry,
+                capacity, batchSize, Duration.ofSeconds(30), overflow, spillDir.resolve("spill.ndjson"));
+        return writer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void recordInserts() {
+        when(jdbcTemplate.batchUpdate(eq(AsyncAuditWriter.INSERT_AUDIT_LOG), any(Collection.class), anyInt(), any()))
+                .thenAnswer(invocation -> {
+                    Collection<AuditLog> batch = invocation.getArgument(1);
+                    synchronized (inserted) {
+                        batch.forEach(auditLog -> inserted.add(auditLog.getDetails()));
+                    }
+                    return new int[0][];
+                });
+    }
+
+    private static AuditLog auditLog(String details) {
+        return AuditLog.builder()
+                .operation(TEST_OPERATION)
+                .entityType("Order")
+                .customerId(TEST_CUSTOMER_ID)
+                .details(details)
+                .status(AuditStatus.SUCCESS)
+                .timestamp(Instant.now())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.shutdown();
+    }
+
+    @Test
+    @DisplayName("a full batch is inserted without waiting for the flush interval")
+    void write_fullBatch_insertedInOneBatch() throws InterruptedException {
+        // arrange
+        recordInserts();
+        writer(100, 3, AsyncAuditWriter.OverflowPolicy.BLOCK).start();
+
+        // act
+        writer.write(auditLog("a"));
+        writer.write(auditLog("b"));
+        writer.write(auditLog("c"));
+
+        // assert
+        verify(jdbcTemplate, timeout(5000)).batchUpdate(eq(AsyncAuditWriter.INSERT_AUDIT_LOG), anyCollection(), eq(3), any());
+        // Mockito sees the call before the answer has recorded it; joining the writer waits for both
+        writer.shutdown();
+        synchronized (inserted) {
+            assertThat(inserted).containsExactly("a", "b", "c");
+        }
+    }
+
+    @Test
+    @DisplayName("DROP counts records that do not fit and shutdown still writes the queued ones")
+    void write_overflowDrop_countsAndDrains() throws InterruptedException {
+        // arrange
+        recordInserts();
+        writer(1, 10, AsyncAuditWriter.OverflowPolicy.DROP);
+
+        // act
+        writer.write(auditLog("kept"));
+        writer.write(auditLog("dropped"));
+        writer.shutdown();
+
+        // assert
+        assertThat(meterRegistry.get("audit.dropped").counter().count()).isEqualTo(1);
+        assertThat(inserted).containsExactly("kept");
+    }
+
+    @Test
+    @DisplayName("SPILL writes overflow to disk and shutdown re-inserts it")
+    void write_overflowSpill_replayedOnShutdown() throws Exception {
+        // arrange
+        recordInserts();
+        writer(1, 10, AsyncAuditWriter.OverflowPolicy.SPILL);
+
+        // act
+        writer.write(auditLog("queued"));
+        writer.write(auditLog("spilled"));
+        boolean spilledToDisk = Files.readString(spillDir.resolve("spill.ndjson")).contains("\"details\":\"spilled\"");
+        writer.shutdown();
+
+        // assert
+        assertThat(spilledToDisk).isTrue();
+        assertThat(meterRegistry.get("audit.spilled").counter().count()).isEqualTo(1);
+        assertThat(inserted).containsExactlyInAnyOrder("queued", "spilled");
+        assertThat(spillDir.resolve("spill.ndjson")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("a batch whose insert fails is spilled and inserted once the database is back")
+    @SuppressWarnings("unchecked")
+    void flush_insertFails_batchSpilledAndReplayed() throws InterruptedException {
+        // arrange
+        when(jdbcTemplate.batchUpdate(eq(AsyncAuditWriter.INSERT_AUDIT_LOG), any(Collection.class), anyInt(), any()))
+                .thenThrow(new DataAccessResourceFailureException("Database down"))
+                .thenAnswer(invocation -> {
+                    Collection<AuditLog> batch = invocation.getArgument(1);
+                    batch.forEach(auditLog -> inserted.add(auditLog.getDetails()));
+                    return new int[0][];
+                });
+        writer(10, 10, AsyncAuditWriter.OverflowPolicy.BLOCK);
+        writer.write(auditLog("retried"));
+
+        // act
+        writer.shutdown();
+
+        // assert
+        assertThat(inserted).containsExactly("retried");
+        assertThat(meterRegistry.get("audit.dropped").counter().count()).isZero();
+    }
+}
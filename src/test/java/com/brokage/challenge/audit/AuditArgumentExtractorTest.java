@@ -0,0 +1,112 @@
+package com.brokage.challenge.audit;
+
+import com.brokage.challenge.dto.CreateOrder;
+import com.brokage.challenge.entity.Order;
+import com.brokage.challenge.enums.OrderSide;
+import com.brokage.challenge.enums.OrderStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditArgumentExtractorTest {
+
+    // Static test data
+    private static final String TEST_CUSTOMER_ID = "cust1";
+    private static final CreateOrder TEST_CREATE_ORDER =
+            new CreateOrder(TEST_CUSTOMER_ID, OrderSide.BUY, "BTC", 2L, new BigDecimal("10.50"));
+
+    // Stand-ins for the audited service methods; only their signatures matter
+    @SuppressWarnings("unused")
+    static class Signatures {
+        Order createOrder(CreateOrder request) { return null; }
+        void deleteOrder(Long orderId) { }
+        void updateOrder(Long requestId, Order order) { }
+        void ping(String message) { }
+    }
+
+    private static AuditArgumentExtractor extractor(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return AuditArgumentExtractor.forMethod(Signatures.class.getDeclaredMethod(name, parameterTypes));
+    }
+
+    @Test
+    @DisplayName("a CreateOrder parameter supplies customer and details, the returned order the entity id")
+    void createOrder_customerDetailsAndResultId() throws Exception {
+        // arrange
+        AuditArgumentExtractor extractor = extractor("createOrder", CreateOrder.class);
+        Object[] args = {TEST_CREATE_ORDER};
+
+        // act & assert
+        assertThat(extractor.customerId(args)).isEqualTo(TEST_CUSTOMER_ID);
+        assertThat(extractor.entityId(args)).isNull();
+        assertThat(extractor.details(args).get()).isEqualTo(AuditDetails.describe(TEST_CREATE_ORDER));
+        assertThat(extractor.entityId(Order.builder().id(7L).build(), null)).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("a Long parameter supplies the entity id and details, the customer stays unknown")
+    void deleteOrder_entityIdOnly() throws Exception {
+        // arrange
+        AuditArgumentExtractor extractor = extractor("deleteOrder", Long.class);
+        Object[] args = {42L};
+
+        // act & assert
+        assertThat(extractor.customerId(args)).isEqualTo("unknown");
+        assertThat(extractor.entityId(args)).isEqualTo(42L);
+        assertThat(extractor.details(args).get()).isEqualTo("Entity ID: 42");
+        assertThat(extractor.entityId(null, 42L)).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("Long parameters before an order are joined into the details; the order is captured before the call")
+    void mixedParameters_orderCapturedUpFront() throws Exception {
+        // arrange
+        AuditArgumentExtractor extractor = extractor("updateOrder", Long.class, Order.class);
+        Order order = Order.builder().id(5L).customerId(TEST_CUSTOMER_ID).status(OrderStatus.PENDING).build();
+        Object[] args = {9L, order};
+
+        // act
+        Supplier<String> details = extractor.details(args);
+        order.setStatus(OrderStatus.CANCELLED);
+
+        // assert
+        assertThat(extractor.customerId(args)).isEqualTo(TEST_CUSTOMER_ID);
+        assertThat(extractor.entityId(args)).isEqualTo(9L);
+        assertThat(details.get()).isEqualTo("Entity ID: 9Order ID: 5 Status: PENDING");
+    }
+
+    @Test
+    @DisplayName("methods without order parameters audit an unknown customer and empty details")
+    void unrelatedParameters_defaults() throws Exception {
+        // arrange
+        AuditArgumentExtractor extractor = extractor("ping", String.class);
+        Object[] args = {"hello"};
+
+        // act & assert
+        assertThat(extractor.customerId(args)).isEqualTo("unknown");
+        assertThat(extractor.entityId(args)).isNull();
+        assertThat(extractor.details(args).get()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("deferred details are rendered once, on first read")
+    void auditLog_detailsRenderedOnFirstRead() {
+        // arrange
+        AtomicInteger renders = new AtomicInteger();
+        AuditLog auditLog = AuditLog.builder()
+                .detailsSource(() -> "rendered " + renders.incrementAndGet())
+                .build();
+
+        // act
+        String first = auditLog.getDetails();
+        String second = auditLog.getDetails();
+
+        // assert
+        assertThat(first).isEqualTo("rendered 1").isSameAs(second);
+        assertThat(renders).hasValue(1);
+    }
+}
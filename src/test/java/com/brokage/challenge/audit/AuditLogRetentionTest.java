@@ -0,0 +1,84 @@
+package com.brokage.challenge.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogRetentionTest {
+
+    // Static test data
+    private static final Instant TEST_CUTOFF = Instant.parse("2026-03-04T12:00:00Z");
+    private static final int TEST_BATCH_SIZE = 10;
+
+    @Mock
+    private AuditRepository auditRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuditLogRetention retention;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retention = new AuditLogRetention(auditRepository, transactionManager, meterRegistry, Duration.ofDays(90),
+                TEST_BATCH_SIZE);
+    }
+
+    @Test
+    @DisplayName("purgeBefore deletes bounded chunks, one transaction each, until a chunk comes back short")
+    void purgeBefore_deletesInChunks() {
+        // arrange
+        when(auditRepository.deleteTimestampBefore(TEST_CUTOFF, TEST_BATCH_SIZE)).thenReturn(10, 10, 5);
+
+        // act
+        long removed = retention.purgeBefore(TEST_CUTOFF);
+
+        // assert
+        verify(auditRepository, times(3)).deleteTimestampBefore(TEST_CUTOFF, TEST_BATCH_SIZE);
+        verify(transactionManager, times(3)).commit(any());
+        assertThat(removed).isEqualTo(25);
+        assertThat(meterRegistry.get("audit.table.deleted").counter().count()).isEqualTo(25.0);
+    }
+
+    @Test
+    @DisplayName("purgeBefore stops after one empty chunk when every record is within the retention")
+    void purgeBefore_nothingExpired() {
+        // arrange
+        when(auditRepository.deleteTimestampBefore(TEST_CUTOFF, TEST_BATCH_SIZE)).thenReturn(0);
+
+        // act
+        long removed = retention.purgeBefore(TEST_CUTOFF);
+
+        // assert
+        assertThat(removed).isZero();
+        verify(auditRepository).deleteTimestampBefore(TEST_CUTOFF, TEST_BATCH_SIZE);
+    }
+
+    @Test
+    @DisplayName("purgeExpired keeps everything with a zero retention")
+    void purgeExpired_zeroRetention_keepsAll() {
+        // arrange
+        retention = new AuditLogRetention(auditRepository, transactionManager, meterRegistry, Duration.ZERO, TEST_BATCH_SIZE);
+
+        // act
+        retention.purgeExpired();
+
+        // assert
+        verifyNoInteractions(auditRepository);
+    }
+}
@@ -0,0 +1,250 @@
+package com.brokage.challenge.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditPolicyServiceTest {
+
+    // Static test data
+    private static final String TEST_OPERATION = "CREATE_ORDER";
+    private static final String TEST_ENTITY_TYPE = "Order";
+    private static final String TEST_CUSTOMER_ID = "cust1";
+    private static final Supplier<String> TEST_DETAILS = () -> "Order: BUY BTC Size: 2 Price: 10.50";
+    private static final int TEST_THRESHOLD = 10;
+
+    @Mock
+    private AuditService auditService;
+
+    @Mock
+    private AuditWriter auditWriter;
+
+    private final MockEnvironment environment = new MockEnvironment();
+    private AuditPolicyService auditPolicyService;
+
+    private AuditPolicyService service() {
+        auditPolicyService = new AuditPolicyService(auditService, auditWriter, environment, new SimpleMeterRegistry(),
+                AuditMode.AGGREGATE, TEST_THRESHOLD, Duration.ofHours(1));
+        return auditPolicyService;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        auditPolicyService.shutdown();
+    }
+
+    @Test
+    @DisplayName("FULL records every success with its details supplier")
+    void recordSuccess_full_recordsEach() {
+        // arrange
+        service();
+
+        // act
+        for (long id = 1; id <= 3; id++) {
+            auditPolicyService.recordSuccess(TEST_OPERATION, TEST_ENTITY_TYPE, id, TEST_CUSTOMER_ID, TEST_DETAILS);
+        }
+
+        // assert
+        verify(auditService, times(3)).logSuccess(eq(TEST_OPERATION), eq(TEST_ENTITY_TYPE), anyLong(),
+                eq(TEST_CUSTOMER_ID), eq(TEST_DETAILS));
+    }
+
+    @Test
+    @DisplayName("SAMPLE from configuration records the first of every sample-every successes, marked as sampled")
+    @SuppressWarnings("unchecked")
+    void recordSuccess_sample_recordsOneInN() {
+        // arrange
+        environment.setProperty("audit.policy.operations.CREATE_ORDER.success", "SAMPLE");
+        environment.setProperty("audit.policy.operations.CREATE_ORDER.sample-every", "4");
+        service();
+
+        // act
+        for (long id = 1; id <= 10; id++) {
+            auditPolicyService.recordSuccess(TEST_OPERATION, TEST_ENTITY_TYPE, id, TEST_CUSTOMER_ID, TEST_DETAILS);
+        }
+
+        // assert
+        ArgumentCaptor<Long> ids = ArgumentCaptor.forClass(Long.class);
+        ArgumentCaptor<Supplier<String>> details = ArgumentCaptor.forClass(Supplier.class);
+        verify(auditService, times(3)).logSuccess(eq(TEST_OPERATION), eq(TEST_ENTITY_TYPE), ids.capture(),
+                eq(TEST_CUSTOMER_ID), details.capture());
+        assertThat(ids.getAllValues()).containsExactly(1L, 5L, 9L);
+        assertThat(details.getValue().get()).endsWith("(sampled 1 in 4)");
+    }
+
+    @Test
+    @DisplayName("AGGREGATE writes one count per customer at each flush and nothing for idle intervals")
+    void recordSuccess_aggregate_countsPerCustomer() {
+        // arrange
+        environment.setProperty("audit.policy.operations.CREATE_ORDER.success", "AGGREGATE");
+        service();
+
+        // act
+        for (long id = 1; id <= 5; id++) {
+            auditPolicyService.recordSuccess(TEST_OPERATION, TEST_ENTITY_TYPE, id, TEST_CUSTOMER_ID, TEST_DETAILS);
+        }
+        auditPolicyService.recordSuccess(TEST_OPERATION, TEST_ENTITY_TYPE, 6L, "cust2", TEST_DETAILS);
+        auditPolicyService.flushAggregates();
+        auditPolicyService.flushAggregates();
+
+        // assert
+        ArgumentCaptor<String> details = ArgumentCaptor.forClass(String.class);
+        verify(auditService).logSuccess(eq(TEST_OPERATION), eq(TEST_ENTITY_TYPE), isNull(), eq(TEST_CUSTOMER_ID),
+                details.capture());
+        verify(auditService).logSuccess(eq(TEST_OPERATION), eq(TEST_ENTITY_TYPE), isNull(), eq("cust2"), anyString());
+        assertThat(details.getValue()).startsWith("Aggregated 5 successful calls between ");
+        verify(auditService, never()).logSuccess(anyString(), anyString(), any(), anyString(), any(Supplier.class));
+    }
+
+    @Test
+    @DisplayName("a call whose transaction rolls back is recorded as a failure and not counted into the aggregate")
+    void recordSuccess_rolledBack_recordsFailure() {
+        // arrange
+        environment.setProperty("audit.policy.operations.CREATE_ORDER.success", "AGGREGATE");
+        service();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // act
+        auditPolicyService.recordSuccess(TEST_OPERATION, TEST_ENTITY_TYPE, 1L, TEST_CUSTOMER_ID, TEST_DETAILS);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        auditPolicyService.flushAggregates();
+
+        // assert
+        verify(auditService).logFailure(TEST_OPERATION, TEST_ENTITY_TYPE, 1L, TEST_CUSTOMER_ID, TEST_DETAILS,
+                AuditService.ROLLED_BACK);
+        verify(auditService, never()).logSuccess(anyString(), anyString(), any(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("a backlog over the threshold switches to the cheaper mode and back, recording both switches")
+    void recordSuccess_backlog_switchesAndRecords() {
+        // arrange
+        service();
+        when(auditWriter.backlog()).thenReturn(TEST_THRESHOLD, TEST_THRESHOLD - 1, TEST_THRESHOLD / 2 - 1);
+
+        // act: loaded, still loaded (hysteresis), drained
+        auditPolicyService.recordSuccess(TEST_OPERATION, TEST_ENTITY_TYPE, 1L, TEST_CUSTOMER_ID, TEST_DETAILS);
+        auditPolicyService.recordSuccess(TEST_OPERATION, TEST_ENTITY_TYPE, 2L, TEST_CUSTOMER_ID, TEST_DETAILS);
+        auditPolicyService.recordSuccess(TEST_OPERATION, TEST_ENTITY_TYPE, 3L, TEST_CUSTOMER_ID, TEST_DETAILS);
+
+        // assert
+        ArgumentCaptor<String> switches = ArgumentCaptor.forClass(String.class);
+        verify(auditService, times(2)).logSuccess(eq(AuditPolicyService.POLICY_OPERATION),
+                eq(AuditPolicyService.POLICY_ENTITY_TYPE), isNull(), isNull(), switches.capture());
+        assertThat(switches.getAllValues()).satisfiesExactly(
+                loaded -> assertThat(loaded).contains("reached 10").contains("AGGREGATE"),
+                drained -> assertThat(drained).contains("below 5"));
+        verify(auditService).logSuccess(TEST_OPERATION, TEST_ENTITY_TYPE, 3L, TEST_CUSTOMER_ID, TEST_DETAILS);
+        verify(auditService, never()).logSuccess(eq(TEST_OPERATION), any(), eq(1L), any(), any(Supplier.class));
+        verify(auditService, never()).logSuccess(eq(TEST_OPERATION), any(), eq(2L), any(), any(Supplier.class));
+    }
+
+    @Test
+    @DisplayName("the annotation's mode applies unless configuration overrides it")
+    void policyFor_annotationAndOverride() throws NoSuchMethodException {
+        // arrange
+        environment.setProperty("audit.policy.operations.DELETE_ORDER.success", "FULL");
+        service();
+        Auditable create = Annotated.class.getDeclaredMethod("create").getAnnotation(Auditable.class);
+        Auditable delete = Annotated.class.getDeclaredMethod("delete").getAnnotation(Auditable.class);
+
+        // act
+        List<AuditPolicy> policies = List.of(auditPolicyService.policyFor(create), auditPolicyService.policyFor(delete));
+
+        // assert
+        assertThat(policies.get(0).mode(false)).isEqualTo(AuditMode.SAMPLE);
+        assertThat(policies.get(0).sampleEvery()).isEqualTo(7);
+        assertThat(policies.get(1).mode(false)).isEqualTo(AuditMode.FULL);
+        assertThat(policies.get(1).mode(true)).isEqualTo(AuditMode.AGGREGATE);
+    }
+
+    @Test
+    @DisplayName("an operation audited by an annotated method and by a service shares one policy and sample counter")
+    void policyFor_sharedPerOperation() throws NoSuchMethodException {
+        // arrange
+        service();
+        AuditPolicy annotated = auditPolicyService.policyFor(
+                Annotated.class.getDeclaredMethod("create").getAnnotation(Auditable.class));
+
+        // act: the annotation resolved CREATE_ORDER first, so sample every 7 applies to the service's calls too
+        for (long id = 1; id <= 8; id++) {
+            auditPolicyService.recordSuccess(TEST_OPERATION, TEST_ENTITY_TYPE, id, TEST_CUSTOMER_ID, TEST_DETAILS);
+        }
+
+        // assert
+        assertThat(auditPolicyService.policyFor(
+                Annotated.class.getDeclaredMethod("createFull").getAnnotation(Auditable.class))).isSameAs(annotated);
+        ArgumentCaptor<Long> ids = ArgumentCaptor.forClass(Long.class);
+        verify(auditService, times(2)).logSuccess(eq(TEST_OPERATION), eq(TEST_ENTITY_TYPE), ids.capture(),
+                eq(TEST_CUSTOMER_ID), any(Supplier.class));
+        assertThat(ids.getAllValues()).containsExactly(1L, 8L);
+    }
+
+    @Test
+    @DisplayName("application.yml binds audit.policy and an operation configured there overrides the annotation")
+    void applicationYml_configuresPolicies() throws IOException, NoSuchMethodException {
+        // arrange
+        environment.setConversionService(new ApplicationConversionService());
+        new YamlPropertySourceLoader().load("application.yml", new ClassPathResource("application.yml"))
+                .forEach(source -> environment.getPropertySources().addLast(source));
+        environment.setProperty("audit.policy.operations.CREATE_ORDER.success", "SAMPLE");
+        environment.setProperty("audit.policy.operations.CREATE_ORDER.sample-every", "5");
+        auditPolicyService = new AuditPolicyService(auditService, auditWriter, environment, new SimpleMeterRegistry(),
+                environment.getRequiredProperty("audit.policy.under-load", AuditMode.class),
+                environment.getRequiredProperty("audit.policy.backlog-threshold", Integer.class),
+                environment.getRequiredProperty("audit.policy.aggregate-interval", Duration.class));
+        Auditable delete = Annotated.class.getDeclaredMethod("delete").getAnnotation(Auditable.class);
+
+        // act
+        AuditPolicy configured = auditPolicyService.policyFor(
+                Annotated.class.getDeclaredMethod("createFull").getAnnotation(Auditable.class));
+        AuditPolicy annotated = auditPolicyService.policyFor(delete);
+
+        // assert
+        assertThat(environment.containsProperty("order.policy.under-load")).isFalse();
+        assertThat(configured.mode(false)).isEqualTo(AuditMode.SAMPLE);
+        assertThat(configured.sampleEvery()).isEqualTo(5);
+        assertThat(configured.mode(true)).isEqualTo(AuditMode.AGGREGATE);
+        assertThat(annotated.mode(false)).isEqualTo(AuditMode.AGGREGATE);
+    }
+
+    @SuppressWarnings("unused")
+    static class Annotated {
+        @Auditable(operation = "CREATE_ORDER", entityType = "Order", success = AuditMode.SAMPLE, sampleEvery = 7)
+        void create() { }
+
+        @Auditable(operation = "CREATE_ORDER", entityType = "Order")
+        void createFull() { }
+
+        @Auditable(operation = "DELETE_ORDER", entityType = "Order", success = AuditMode.AGGREGATE)
+        void delete() { }
+    }
+}
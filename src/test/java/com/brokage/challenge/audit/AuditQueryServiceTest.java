@@ -0,0 +1,145 @@
+package com.brokage.challenge.audit;
+
+import com.brokage.challenge.audit.segment.AuditSegmentStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditQueryServiceTest {
+
+    // Static test data
+    private static final String TEST_CUSTOMER_ID = "cust1";
+    private static final Instant TEST_FROM = Instant.parse("2026-03-01T00:00:00Z");
+    private static final Instant TEST_TO = Instant.parse("2026-03-02T00:00:00Z");
+    private static final AuditQuery TEST_QUERY = new AuditQuery(TEST_CUSTOMER_ID, null, AuditStatus.FAILURE, TEST_FROM, TEST_TO);
+
+    @Mock
+    private AuditRepository auditRepository;
+
+    @Mock
+    private ObjectProvider<AuditSegmentStore> segmentStoreProvider;
+
+    @Mock
+    private AuditSegmentStore segmentStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AuditQueryService service(AuditSegmentStore store) {
+        when(segmentStoreProvider.getIfAvailable()).thenReturn(store);
+        return new AuditQueryService(auditRepository, segmentStoreProvider,
+                new ObjectMapper().findAndRegisterModules(), transactionManager, 50);
+    }
+
+    private static AuditLog auditLog(long id) {
+        return AuditLog.builder()
+                .id(id)
+                .operation("CREATE_ORDER")
+                .entityType("Order")
+                .customerId(TEST_CUSTOMER_ID)
+                .status(AuditStatus.FAILURE)
+                .timestamp(TEST_FROM.plusSeconds(id))
+                .errorMessage("Insufficient balance")
+                .build();
+    }
+
+    @Test
+    @DisplayName("findPage starts at the range start and caps the page size")
+    void findPage_firstPage_fromRangeStart() {
+        // arrange
+        Slice<AuditLog> page = new SliceImpl<>(List.of(auditLog(1)), PageRequest.of(0, 50), true);
+        when(auditRepository.findPage(TEST_QUERY, TEST_FROM, Long.MIN_VALUE, 50)).thenReturn(page);
+
+        // act
+        Slice<AuditLog> result = service(null).findPage(TEST_QUERY, null, 500);
+
+        // assert
+        assertThat(result).isSameAs(page);
+    }
+
+    @Test
+    @DisplayName("findPage continues after the cursor position")
+    void findPage_withCursor_continuesAfterIt() {
+        // arrange
+        AuditCursor after = new AuditCursor(TEST_FROM.plusSeconds(5), 5L);
+        Slice<AuditLog> page = new SliceImpl<>(List.of(auditLog(6)), PageRequest.of(0, 10), false);
+        when(auditRepository.findPage(TEST_QUERY, after.timestamp(), 5L, 10)).thenReturn(page);
+
+        // act
+        Slice<AuditLog> result = service(null).findPage(TEST_QUERY, AuditCursor.decode(after.encode()), 10);
+
+        // assert
+        assertThat(result.getContent()).extracting(AuditLog::getId).containsExactly(6L);
+    }
+
+    @Test
+    @DisplayName("findPage reads the segment store when it is active and pages by record id")
+    void findPage_segmentStore_pagesById() {
+        // arrange
+        when(segmentStore.find(TEST_QUERY, 7L, 3)).thenReturn(List.of(auditLog(8), auditLog(9), auditLog(10)));
+
+        // act
+        Slice<AuditLog> result = service(segmentStore).findPage(TEST_QUERY, new AuditCursor(TEST_FROM, 7L), 2);
+
+        // assert
+        assertThat(result.getContent()).extracting(AuditLog::getId).containsExactly(8L, 9L);
+        assertThat(result.hasNext()).isTrue();
+        verifyNoInteractions(auditRepository);
+    }
+
+    @Test
+    @DisplayName("queries without a bounded time range are rejected")
+    void findPage_openRange_rejected() {
+        // arrange
+        AuditQueryService auditQueryService = service(null);
+        AuditQuery open = new AuditQuery(TEST_CUSTOMER_ID, null, null, TEST_FROM, null);
+
+        // act & assert
+        assertThrows(IllegalArgumentException.class, () -> auditQueryService.findPage(open, null, 10));
+        verify(auditRepository, never()).findPage(any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("export writes one JSON object per line from the database cursor and closes it")
+    void export_writesNdjson() {
+        // arrange
+        AtomicBoolean closed = new AtomicBoolean();
+        when(auditRepository.stream(eq(TEST_QUERY)))
+                .thenReturn(Stream.of(auditLog(1), auditLog(2)).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // act
+        long written = service(null).export(TEST_QUERY, out);
+
+        // assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(written).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"id\":1").contains("\"status\":\"FAILURE\"");
+        assertThat(closed).isTrue();
+    }
+}
@@ -1,12 +1,19 @@
 package com.brokage.challenge.audit;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,7 +33,14 @@ class AuditServiceTest {
 
     @BeforeEach
     void setUp() {
-        auditService = new AuditService(auditRepository);
+        auditService = new AuditService(new JpaAuditWriter(auditRepository));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
@@ -65,4 +79,58 @@ class AuditServiceTest {
                 auditLog.getTimestamp() != null
         ));
     }
+
+    @Test
+    @DisplayName("logSuccess inside a transaction writes the record once it commits")
+    void logSuccess_inTransaction_writtenAfterCommit() {
+        // arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // act
+        auditService.logSuccess(TEST_OPERATION, TEST_ENTITY_TYPE, TEST_ENTITY_ID, TEST_CUSTOMER_ID, TEST_DETAILS);
+        verify(auditRepository, never()).save(any());
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        // assert
+        verify(auditRepository).save(org.mockito.ArgumentMatchers.argThat(auditLog ->
+                auditLog.getStatus() == AuditStatus.SUCCESS && auditLog.getErrorMessage() == null));
+    }
+
+    @Test
+    @DisplayName("logSuccess inside a transaction that rolls back writes a FAILURE record instead")
+    void logSuccess_rolledBack_writesFailure() {
+        // arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // act
+        auditService.logSuccess(TEST_OPERATION, TEST_ENTITY_TYPE, TEST_ENTITY_ID, TEST_CUSTOMER_ID, TEST_DETAILS);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // assert
+        verify(auditRepository).save(org.mockito.ArgumentMatchers.argThat(auditLog ->
+                auditLog.getOperation().equals(TEST_OPERATION) &&
+                auditLog.getStatus() == AuditStatus.FAILURE &&
+                auditLog.getErrorMessage().equals(AuditService.ROLLED_BACK)
+        ));
+    }
+
+    @Test
+    @DisplayName("logFailure inside a transaction writes the record right away")
+    void logFailure_inTransaction_writtenImmediately() {
+        // arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // act
+        auditService.logFailure(TEST_OPERATION, TEST_ENTITY_TYPE, TEST_ENTITY_ID, TEST_CUSTOMER_ID, TEST_DETAILS, TEST_ERROR_MESSAGE);
+
+        // assert
+        verify(auditRepository).save(any());
+    }
+
+    // As the transaction manager does: synchronizations are cleared before they are told the outcome
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
 }
@@ -0,0 +1,289 @@
+package com.brokage.challenge.audit.segment;
+
+import com.brokage.challenge.audit.AuditLog;
+import com.brokage.challenge.audit.AuditQuery;
+import com.brokage.challenge.audit.AuditService;
+import com.brokage.challenge.audit.AuditStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditSegmentStoreTest {
+
+    // Static test data
+    private static final Instant TEST_START = Instant.parse("2026-03-01T10:00:00.123456Z");
+    private static final String TEST_CUSTOMER = "cust1";
+    private static final String OTHER_CUSTOMER = "cust2";
+
+    @TempDir
+    private Path directory;
+
+    private AuditSegmentStore store;
+
+    private AuditSegmentStore open(DataSize segmentSize) throws IOException {
+        // Maintenance only runs when a test calls it
+        store = new AuditSegmentStore(new SimpleMeterRegistry(), directory, segmentSize, Duration.ofSeconds(1),
+                Duration.ofDays(1), Duration.ofDays(30), Duration.ofDays(2), Duration.ofDays(365));
+        return store;
+    }
+
+    private static AuditLog auditLog(int second, String customerId, AuditStatus status) {
+        return auditLog(TEST_START.plusSeconds(second), second, customerId, status);
+    }
+
+    private static AuditLog auditLog(Instant timestamp, long entityId, String customerId, AuditStatus status) {
+        return AuditLog.builder()
+                .operation("CREATE_ORDER")
+                .entityType("Order")
+                .entityId(entityId == 0 ? null : entityId)
+                .customerId(customerId)
+                .details("Order: BUY BTC Size: 2 Price: 10.50 / çğü")
+                .status(status)
+                .timestamp(timestamp)
+                .errorMessage(status == AuditStatus.FAILURE ? "Insufficient balance" : null)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        store.shutdown();
+    }
+
+    @Test
+    @DisplayName("a success whose transaction rolls back is appended as a failure only after completion")
+    void write_rolledBackSuccess_appendedAsFailure() throws IOException {
+        // arrange
+        open(DataSize.ofMegabytes(1));
+        AuditService auditService = new AuditService(store);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // act
+        auditService.logSuccess("CREATE_ORDER", "Order", 1L, TEST_CUSTOMER, "Order: BUY BTC Size: 2 Price: 10.50");
+        List<AuditLog> beforeCompletion = store.find(new AuditQuery(null, null, null, null, null), 10);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        List<AuditLog> afterCompletion = store.find(new AuditQuery(null, null, null, null, null), 10);
+
+        // assert
+        assertThat(beforeCompletion).isEmpty();
+        assertThat(afterCompletion).singleElement().satisfies(auditLog -> {
+            assertThat(auditLog.getStatus()).isEqualTo(AuditStatus.FAILURE);
+            assertThat(auditLog.getErrorMessage()).isEqualTo(AuditService.ROLLED_BACK);
+        });
+    }
+
+    @Test
+    @DisplayName("records round-trip through the binary format with every field intact")
+    void write_scan_roundTrip() throws IOException {
+        // arrange
+        open(DataSize.ofMegabytes(1));
+        AuditLog written = auditLog(0, TEST_CUSTOMER, AuditStatus.FAILURE);
+
+        // act
+        store.write(written);
+        List<AuditLog> found = store.find(new AuditQuery(null, null, null, null, null), 10);
+
+        // assert
+        assertThat(found).hasSize(1);
+        AuditLog read = found.getFirst();
+        assertThat(read.getId()).isNotNull();
+        assertThat(read).usingRecursiveComparison().ignoringFields("id").isEqualTo(written);
+    }
+
+    @Test
+    @DisplayName("scan filters by customer, status, operation and time range across rolled segments")
+    void scan_filters_acrossSegments() throws IOException {
+        // arrange
+        open(DataSize.ofKilobytes(8));
+        for (int i = 1; i <= 400; i++) {
+            store.write(auditLog(i, i % 4 == 0 ? OTHER_CUSTOMER : TEST_CUSTOMER,
+                    i % 10 == 0 ? AuditStatus.FAILURE : AuditStatus.SUCCESS));
+        }
+
+        // act
+        List<AuditLog> otherCustomer = store.find(new AuditQuery(OTHER_CUSTOMER, null, null, null, null), 1000);
+        List<AuditLog> failuresInRange = store.find(new AuditQuery(TEST_CUSTOMER, "CREATE_ORDER", AuditStatus.FAILURE,
+                TEST_START.plusSeconds(100), TEST_START.plusSeconds(200)), 1000);
+        List<AuditLog> wrongOperation = store.find(new AuditQuery(null, "DELETE_ORDER", null, null, null), 1000);
+
+        // assert
+        assertThat(segmentFiles()).hasSizeGreaterThan(1);
+        assertThat(otherCustomer).hasSize(100).allMatch(a -> a.getCustomerId().equals(OTHER_CUSTOMER));
+        assertThat(failuresInRange).extracting(AuditLog::getEntityId).containsExactly(110L, 130L, 150L, 170L, 190L);
+        assertThat(wrongOperation).isEmpty();
+    }
+
+    @Test
+    @DisplayName("reopening the directory rebuilds the index and appends after the last record")
+    void reopen_continuesSegments() throws Exception {
+        // arrange
+        open(DataSize.ofKilobytes(8));
+        for (int i = 1; i <= 100; i++) {
+            store.write(auditLog(i, TEST_CUSTOMER, AuditStatus.SUCCESS));
+        }
+        store.shutdown();
+
+        // act
+        open(DataSize.ofKilobytes(8));
+        store.write(auditLog(101, OTHER_CUSTOMER, AuditStatus.SUCCESS));
+        List<AuditLog> all = store.find(new AuditQuery(null, null, null, null, null), 1000);
+
+        // assert
+        assertThat(all).hasSize(101);
+        assertThat(all).extracting(AuditLog::getEntityId).isSorted();
+        assertThat(store.find(new AuditQuery(OTHER_CUSTOMER, null, null, null, null), 10))
+                .extracting(AuditLog::getEntityId).containsExactly(101L);
+    }
+
+    @Test
+    @DisplayName("scan stops as soon as the visitor has enough")
+    void find_limit_stopsEarly() throws IOException {
+        // arrange
+        open(DataSize.ofKilobytes(8));
+        for (int i = 1; i <= 50; i++) {
+            store.write(auditLog(i, TEST_CUSTOMER, AuditStatus.SUCCESS));
+        }
+
+        // act
+        List<AuditLog> firstThree = store.find(new AuditQuery(TEST_CUSTOMER, null, null, null, null), 3);
+
+        // assert
+        assertThat(firstThree).extracting(AuditLog::getEntityId).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("find resumes after a record id, also across segments")
+    void find_afterId_resumes() throws IOException {
+        // arrange
+        open(DataSize.ofKilobytes(8));
+        for (int i = 1; i <= 200; i++) {
+            store.write(auditLog(i, TEST_CUSTOMER, AuditStatus.SUCCESS));
+        }
+        AuditQuery query = new AuditQuery(TEST_CUSTOMER, null, null, null, null);
+        List<AuditLog> first = store.find(query, 120);
+
+        // act
+        List<AuditLog> rest = store.find(query, first.getLast().getId(), 1000);
+
+        // assert
+        assertThat(segmentFiles()).hasSizeGreaterThan(1);
+        assertThat(rest).extracting(AuditLog::getEntityId).first().isEqualTo(121L);
+        assertThat(rest).hasSize(80);
+    }
+
+    @Test
+    @DisplayName("segments are rolled onto the one created ahead, and an unused one is cleaned up on reopen")
+    void roll_usesSegmentCreatedAhead() throws Exception {
+        // arrange
+        open(DataSize.ofKilobytes(8));
+        for (int i = 1; i <= 200; i++) {
+            store.write(auditLog(i, TEST_CUSTOMER, AuditStatus.SUCCESS));
+        }
+        int segments = segmentFiles().size();
+        store.shutdown();
+
+        // act
+        open(DataSize.ofKilobytes(8));
+        List<AuditLog> all = store.find(new AuditQuery(null, null, null, null, null), 1000);
+
+        // assert
+        assertThat(segments).isGreaterThan(2);
+        assertThat(segmentFiles()).hasSize(segments);
+        assertThat(all).extracting(AuditLog::getEntityId).hasSize(200).isSorted();
+    }
+
+    @Test
+    @DisplayName("a new segment starts at each day boundary")
+    void write_nextDay_rollsSegment() throws IOException {
+        // arrange
+        open(DataSize.ofMegabytes(1));
+
+        // act
+        store.write(auditLog(TEST_START, 1, TEST_CUSTOMER, AuditStatus.SUCCESS));
+        store.write(auditLog(TEST_START.plusSeconds(60), 2, TEST_CUSTOMER, AuditStatus.SUCCESS));
+        store.write(auditLog(TEST_START.plus(Duration.ofDays(1)), 3, TEST_CUSTOMER, AuditStatus.SUCCESS));
+
+        // assert
+        assertThat(segmentFiles()).hasSize(2);
+        assertThat(store.find(new AuditQuery(null, null, null, null, null), 10))
+                .extracting(AuditLog::getEntityId).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("maintenance drops expired days, compacts older ones and both survive a restart")
+    void maintain_dropsAndCompacts() throws Exception {
+        // arrange
+        open(DataSize.ofMegabytes(1));
+        for (int day = 0; day < 5; day++) {
+            for (int i = 1; i <= 50; i++) {
+                store.write(auditLog(TEST_START.plus(Duration.ofDays(day)).plusSeconds(i), day * 100L + i,
+                        i % 2 == 0 ? OTHER_CUSTOMER : TEST_CUSTOMER, AuditStatus.SUCCESS));
+            }
+        }
+        List<AuditLog> before = store.find(new AuditQuery(TEST_CUSTOMER, null, null, null, null), 1000);
+
+        // act: day 0 is past the 30 day retention, days 1-3 past compact-after, day 4 is still being written
+        store.maintain(TEST_START.plus(Duration.ofDays(30)).plusSeconds(100));
+        List<AuditLog> after = store.find(new AuditQuery(TEST_CUSTOMER, null, null, null, null), 1000);
+        store.shutdown();
+        open(DataSize.ofMegabytes(1));
+        List<AuditLog> reopened = store.find(new AuditQuery(TEST_CUSTOMER, null, null, null, null), 1000);
+
+        // assert
+        assertThat(segmentFiles()).extracting(p -> p.getFileName().toString()).containsExactly(
+                "audit-00000000000000000002.seg.gz", "audit-00000000000000000003.seg.gz",
+                "audit-00000000000000000004.seg.gz", "audit-00000000000000000005.seg");
+        assertThat(after).hasSize(100);
+        assertThat(after).usingRecursiveFieldByFieldElementComparator().isEqualTo(before.subList(25, 125));
+        assertThat(reopened).usingRecursiveFieldByFieldElementComparator().isEqualTo(after);
+    }
+
+    @Test
+    @DisplayName("archived segments page by record id like mapped ones")
+    void find_afterId_inArchive() throws IOException {
+        // arrange
+        open(DataSize.ofMegabytes(1));
+        for (int i = 1; i <= 20; i++) {
+            store.write(auditLog(TEST_START.plusSeconds(i), i, TEST_CUSTOMER, AuditStatus.SUCCESS));
+        }
+        store.write(auditLog(TEST_START.plus(Duration.ofDays(3)), 21, TEST_CUSTOMER, AuditStatus.SUCCESS));
+        store.maintain(TEST_START.plus(Duration.ofDays(3)));
+        AuditQuery query = new AuditQuery(TEST_CUSTOMER, null, null, null, null);
+        List<AuditLog> first = store.find(query, 5);
+
+        // act
+        List<AuditLog> rest = store.find(query, first.getLast().getId(), 100);
+
+        // assert
+        assertThat(segmentFiles()).anyMatch(p -> p.toString().endsWith(".seg.gz"));
+        assertThat(rest).extracting(AuditLog::getEntityId).first().isEqualTo(6L);
+        assertThat(rest).hasSize(16);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        // Leaves out the next segment, created ahead under a temporary name
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> !p.toString().endsWith(".tmp")).sorted().toList();
+        }
+    }
+}
@@ -4,17 +4,26 @@ import com.brokage.challenge.dto.AssetResponse;
 import com.brokage.challenge.entity.Asset;
 import com.brokage.challenge.exception.BrokageFirmApiException;
 import com.brokage.challenge.service.AssetService;
+import com.brokage.challenge.service.impl.CustomerVersions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,9 +37,20 @@ class AssetControllerTest {
     @Mock
     private AssetService assetService;
 
+    @Spy
+    private CustomerVersions customerVersions = new CustomerVersions(100);
+
     @InjectMocks
     private AssetController assetController;
 
+    private static ServletWebRequest listRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/asset/list");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
     @Test
     @DisplayName("listAssets maps domain to response via mapper and returns list")
     void listAssets_success() {
@@ -44,9 +64,10 @@ class AssetControllerTest {
         when(assetService.listAssets(TEST_CUSTOMER)).thenReturn(List.of(asset));
 
         // act
-        List<AssetResponse> result = assetController.listAssets(TEST_CUSTOMER);
+        ResponseEntity<List<AssetResponse>> response = assetController.listAssets(TEST_CUSTOMER, listRequest(null));
 
         // assert
+        List<AssetResponse> result = response.getBody();
         assertThat(result).hasSize(1);
         AssetResponse resp = result.getFirst();
         assertThat(resp.customerId()).isEqualTo(TEST_CUSTOMER);
@@ -55,6 +76,44 @@ class AssetControllerTest {
         assertThat(resp.usableSize()).isEqualTo(TEST_USABLE);
     }
 
+    @Test
+    @DisplayName("listAssets answers 304 without reading assets while the customer's version is unchanged")
+    void listAssets_notModified() {
+        // arrange
+        ServletWebRequest first = listRequest(null);
+        when(assetService.listAssets(TEST_CUSTOMER)).thenReturn(List.of());
+        assetController.listAssets(TEST_CUSTOMER, first);
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        ServletWebRequest second = listRequest(etag);
+
+        // act
+        ResponseEntity<List<AssetResponse>> response = assetController.listAssets(TEST_CUSTOMER, second);
+
+        // assert
+        assertThat(etag).isNotNull();
+        assertThat(response).isNull();
+        assertThat(second.getResponse().getStatus()).isEqualTo(304);
+        verify(assetService, times(1)).listAssets(TEST_CUSTOMER);
+    }
+
+    @Test
+    @DisplayName("listAssets answers in full once a committed change bumps the customer's version")
+    void listAssets_modifiedAfterBump() {
+        // arrange
+        ServletWebRequest first = listRequest(null);
+        when(assetService.listAssets(TEST_CUSTOMER)).thenReturn(List.of());
+        assetController.listAssets(TEST_CUSTOMER, first);
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        customerVersions.bumpAfterCommit(TEST_CUSTOMER);
+
+        // act
+        ResponseEntity<List<AssetResponse>> response = assetController.listAssets(TEST_CUSTOMER, listRequest(etag));
+
+        // assert
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        verify(assetService, times(2)).listAssets(TEST_CUSTOMER);
+    }
+
     @Test
     @DisplayName("listAssets should throw BrokageFirmApiException when service throws exception")
     void listAssets_WhenServiceThrowsException_ShouldThrowBrokageFirmApiException() {
@@ -64,7 +123,7 @@ class AssetControllerTest {
 
         // act & assert
         BrokageFirmApiException exception = assertThrows(BrokageFirmApiException.class, 
-            () -> assetController.listAssets(TEST_CUSTOMER));
+            () -> assetController.listAssets(TEST_CUSTOMER, listRequest(null)));
         
         assertThat(exception.getMessage()).contains("Asset list request failed due to system error");
         assertThat(exception.getCause()).isEqualTo(serviceException);
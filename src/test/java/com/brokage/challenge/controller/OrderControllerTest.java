@@ -1,27 +1,60 @@
 package com.brokage.challenge.controller;
 
+import com.brokage.challenge.dto.BatchOrderItemResponse;
+import com.brokage.challenge.dto.BulkCancelResponse;
 import com.brokage.challenge.dto.CreateOrder;
+import com.brokage.challenge.dto.CustomerOrderView;
+import com.brokage.challenge.dto.OrderCursor;
+import com.brokage.challenge.dto.OrderDailySummary;
+import com.brokage.challenge.dto.OrderFilter;
+import com.brokage.challenge.dto.OrderPageResponse;
 import com.brokage.challenge.dto.OrderResponse;
+import com.brokage.challenge.dto.OrderTicketResponse;
 import com.brokage.challenge.entity.Order;
 import com.brokage.challenge.enums.OrderSide;
 import com.brokage.challenge.enums.OrderStatus;
 import com.brokage.challenge.exception.BrokageFirmApiException;
+import com.brokage.challenge.exception.InvalidOrderException;
+import com.brokage.challenge.exception.OrderIntakeRejectedException;
+import com.brokage.challenge.idempotency.IdempotencyService;
 import com.brokage.challenge.mapper.OrderResponseMapper;
+import com.brokage.challenge.readmodel.OrderReadModel;
+import com.brokage.challenge.service.impl.AsyncOrderIntake;
+import com.brokage.challenge.service.impl.CustomerVersions;
+import com.brokage.challenge.service.impl.OrderCommandGateway;
+import com.brokage.challenge.service.impl.OrderExportService;
+import com.brokage.challenge.service.impl.OrderRollupService;
 import com.brokage.challenge.service.impl.OrderServiceImpl;
+import com.brokage.challenge.util.FixedPoint;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,9 +63,34 @@ class OrderControllerTest {
     @Mock
     private OrderServiceImpl orderService;
 
+    @Mock
+    private OrderCommandGateway orderCommandGateway;
+
+    @Mock
+    private AsyncOrderIntake asyncOrderIntake;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private OrderExportService orderExportService;
+
+    @Mock
+    private OrderRollupService orderRollupService;
+
+    @Mock
+    private OrderReadModel orderReadModel;
+
+    @Spy
+    private CustomerVersions customerVersions = new CustomerVersions(100);
+
     @InjectMocks
     private OrderController orderController;
 
+    private static ServletWebRequest listRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/api/order/list"), new MockHttpServletResponse());
+    }
+
     @Test
     @DisplayName("create returns mapped response and 201 status")
     void create_success() {
@@ -44,28 +102,85 @@ class OrderControllerTest {
                 .assetName("BTC")
                 .orderSide(OrderSide.BUY)
                 .size(2L)
-                .price(new BigDecimal("10.50"))
+                .priceTicks(FixedPoint.toTicks(new BigDecimal("10.50")))
                 .status(OrderStatus.PENDING)
                 .createDate(Instant.parse("2026-01-01T00:00:00Z"))
                 .build();
 
-        when(orderService.createOrder(request)).thenReturn(order);
+        when(orderCommandGateway.createOrder(request)).thenReturn(order);
         // Act
-        OrderResponse response = orderController.create(request);
+        OrderResponse response = orderController.create(request, null);
         // Assert
         assertThat(response).isEqualTo(OrderResponseMapper.toOrderResponse(order));
-        verify(orderService, times(1)).createOrder(request);
+        verify(orderCommandGateway, times(1)).createOrder(request);
     }
 
     @Test
-    @DisplayName("delete returns 204 and delegates to service")
+    @DisplayName("delete returns 204 and delegates to command gateway")
     void delete_success() {
         // Arrange
         Long orderId = 42L;
         // Act
         orderController.deleteOrder(orderId);
         // Assert
-        verify(orderService, times(1)).deleteOrder(orderId);
+        verify(orderCommandGateway, times(1)).deleteOrder(orderId);
+    }
+
+    @Test
+    @DisplayName("cancelOrders returns the bulk cancel summary from the command gateway")
+    void cancelOrders_success() {
+        // Arrange
+        BulkCancelResponse expected = new BulkCancelResponse("cust1", 2, List.of(1L, 2L), Map.of("TRY", 42L));
+        when(orderCommandGateway.cancelOrders("cust1", null, OrderSide.BUY)).thenReturn(expected);
+        // Act
+        BulkCancelResponse response = orderController.cancelOrders("cust1", null, OrderSide.BUY);
+        // Assert
+        assertThat(response).isEqualTo(expected);
+        verify(orderCommandGateway, times(1)).cancelOrders("cust1", null, OrderSide.BUY);
+    }
+
+    @Test
+    @DisplayName("summary returns the rollup rows of the requested range")
+    void summary_delegatesToRollups() {
+        // Arrange
+        LocalDate day = LocalDate.of(2026, 1, 2);
+        OrderDailySummary row = new OrderDailySummary(day, "BTC", OrderSide.BUY, OrderStatus.PENDING, 2L, 4L, 42L);
+        when(orderRollupService.summarize("cust1", day, day, null)).thenReturn(List.of(row));
+        // Act
+        List<OrderDailySummary> summary = orderController.summarizeOrders("cust1", day, day, null);
+        // Assert
+        assertThat(summary).containsExactly(row);
+    }
+
+    @Test
+    @DisplayName("export streams NDJSON produced by the export service")
+    void export_streamsNdjson() throws Exception {
+        // Arrange
+        Instant startDate = Instant.parse("2026-01-01T00:00:00Z");
+        Instant endDate = Instant.parse("2026-12-31T23:59:59Z");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // Act
+        ResponseEntity<StreamingResponseBody> response = orderController.exportOrders("cust1", startDate, endDate);
+        response.getBody().writeTo(out);
+        // Assert
+        assertThat(response.getHeaders().getContentType()).hasToString("application/x-ndjson");
+        verify(orderExportService, times(1)).exportOrders("cust1", startDate, endDate, out);
+    }
+
+    @Test
+    @DisplayName("export failure while streaming is rethrown to the writer of the response")
+    void export_streamingFailure_rethrown() {
+        // Arrange
+        Instant startDate = Instant.parse("2026-01-01T00:00:00Z");
+        Instant endDate = Instant.parse("2026-12-31T23:59:59Z");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RuntimeException failure = new RuntimeException("cursor closed");
+        when(orderExportService.exportOrders("cust1", startDate, endDate, out)).thenThrow(failure);
+        // Act
+        ResponseEntity<StreamingResponseBody> response = orderController.exportOrders("cust1", startDate, endDate);
+        // Assert
+        RuntimeException thrown = assertThrows(RuntimeException.class, () -> response.getBody().writeTo(out));
+        assertEquals(failure, thrown);
     }
 
     @Test
@@ -73,23 +188,118 @@ class OrderControllerTest {
     void list_success() {
         // Arrange
         Order order = Order.builder()
+                .id(5L)
                 .customerId("cust1")
                 .assetName("BTC")
                 .orderSide(OrderSide.BUY)
                 .size(2L)
-                .price(new BigDecimal("10.50"))
+                .priceTicks(FixedPoint.toTicks(new BigDecimal("10.50")))
                 .status(OrderStatus.PENDING)
                 .createDate(Instant.parse("2026-01-01T00:00:00Z"))
                 .build();
 
-        when(orderService.listOrders("cust1", Instant.parse("2026-01-01T00:00:00Z"), Instant.parse("2026-01-31T23:59:59Z")))
-                .thenReturn(java.util.List.of(order));
+        when(orderService.listOrders("cust1", Instant.parse("2026-01-01T00:00:00Z"), Instant.parse("2026-01-31T23:59:59Z"), new OrderFilter(null, null, null), null, 100))
+                .thenReturn(new SliceImpl<>(List.of(OrderResponseMapper.toOrderResponse(order))));
         // Act
-        List<OrderResponse> orderList = orderController.listOrders("cust1", Instant.parse("2026-01-01T00:00:00Z"), Instant.parse("2026-01-31T23:59:59Z"));
+        OrderPageResponse page = orderController.listOrders("cust1", Instant.parse("2026-01-01T00:00:00Z"), Instant.parse("2026-01-31T23:59:59Z"), null, null, null, null, 100, listRequest()).getBody();
         // Assert
-        assertThat(orderList).hasSize(1);
-        assertEquals(orderList, java.util.List.of(OrderResponseMapper.toOrderResponse(order)));
-        verify(orderService, times(1)).listOrders("cust1", Instant.parse("2026-01-01T00:00:00Z"), Instant.parse("2026-01-31T23:59:59Z"));
+        assertThat(page.orders()).hasSize(1);
+        assertEquals(page.orders(), java.util.List.of(OrderResponseMapper.toOrderResponse(order)));
+        assertThat(page.nextCursor()).isNull();
+        verify(orderService, times(1)).listOrders("cust1", Instant.parse("2026-01-01T00:00:00Z"), Instant.parse("2026-01-31T23:59:59Z"), new OrderFilter(null, null, null), null, 100);
+    }
+
+    @Test
+    @DisplayName("list answers 304 without querying when If-None-Match carries the current version")
+    void list_notModified() {
+        // Arrange
+        Instant startDate = Instant.parse("2026-01-01T00:00:00Z");
+        Instant endDate = Instant.parse("2026-01-31T23:59:59Z");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/order/list");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + customerVersions.etag("cust1") + "\"");
+        ServletWebRequest webRequest = new ServletWebRequest(request, new MockHttpServletResponse());
+        // Act
+        ResponseEntity<OrderPageResponse> response = orderController.listOrders("cust1", startDate, endDate, null, null, null, null, 100, webRequest);
+        // Assert
+        assertThat(response).isNull();
+        assertThat(webRequest.getResponse().getStatus()).isEqualTo(304);
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    @DisplayName("list returns a cursor for the last order that continues where the page ended")
+    void list_nextCursor_roundTrips() {
+        // Arrange
+        Instant startDate = Instant.parse("2026-01-01T00:00:00Z");
+        Instant endDate = Instant.parse("2026-01-31T23:59:59Z");
+        Order order = Order.builder()
+                .id(7L)
+                .customerId("cust1")
+                .assetName("BTC")
+                .orderSide(OrderSide.BUY)
+                .size(2L)
+                .priceTicks(FixedPoint.toTicks(new BigDecimal("10.50")))
+                .status(OrderStatus.PENDING)
+                .createDate(Instant.parse("2026-01-02T10:15:30.123456Z"))
+                .build();
+        OrderCursor expectedCursor = new OrderCursor(order.getCreateDate(), 7L);
+        when(orderService.listOrders("cust1", startDate, endDate, new OrderFilter(null, null, null), null, 1))
+                .thenReturn(new SliceImpl<>(List.of(OrderResponseMapper.toOrderResponse(order)), PageRequest.of(0, 1), true));
+        when(orderService.listOrders("cust1", startDate, endDate, new OrderFilter(null, null, null), expectedCursor, 1))
+                .thenReturn(new SliceImpl<>(List.of()));
+        // Act
+        OrderPageResponse first = orderController.listOrders("cust1", startDate, endDate, null, null, null, null, 1, listRequest()).getBody();
+        OrderPageResponse second = orderController.listOrders("cust1", startDate, endDate, null, null, null, first.nextCursor(), 1, listRequest()).getBody();
+        // Assert
+        assertThat(first.nextCursor()).isNotNull();
+        assertThat(second.orders()).isEmpty();
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("list passes status, side and asset filters to the service")
+    void list_filters_passedToService() {
+        // Arrange
+        Instant startDate = Instant.parse("2026-01-01T00:00:00Z");
+        Instant endDate = Instant.parse("2026-01-31T23:59:59Z");
+        OrderFilter filter = new OrderFilter(OrderStatus.PENDING, OrderSide.SELL, "BTC");
+        when(orderService.listOrders("cust1", startDate, endDate, filter, null, 100)).thenReturn(new SliceImpl<>(List.of()));
+        // Act
+        OrderPageResponse page = orderController.listOrders("cust1", startDate, endDate,
+                OrderStatus.PENDING, OrderSide.SELL, "BTC", null, 100, listRequest()).getBody();
+        // Assert
+        assertThat(page.orders()).isEmpty();
+        verify(orderService, times(1)).listOrders("cust1", startDate, endDate, filter, null, 100);
+    }
+
+    @Test
+    @DisplayName("list rejects a cursor that was not issued by the service")
+    void list_invalidCursor_throws() {
+        // Act + Assert
+        assertThrows(IllegalArgumentException.class, () -> orderController.listOrders("cust1",
+                Instant.parse("2026-01-01T00:00:00Z"), Instant.parse("2026-01-31T23:59:59Z"), null, null, null, "not-a-cursor", 100, listRequest()));
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    @DisplayName("view answers from the read model and 304 once the client holds the current version")
+    void view_conditional() {
+        // Arrange
+        CustomerOrderView view = new CustomerOrderView("cust1", List.of(), List.of(), List.of());
+        when(orderReadModel.view("cust1")).thenReturn(view);
+        // Act
+        ServletWebRequest firstRequest = listRequest();
+        ResponseEntity<CustomerOrderView> first = orderController.viewOrders("cust1", firstRequest);
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/api/order/view");
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, firstRequest.getResponse().getHeader(HttpHeaders.ETAG));
+        MockHttpServletResponse notModified = new MockHttpServletResponse();
+        ResponseEntity<CustomerOrderView> second =
+                orderController.viewOrders("cust1", new ServletWebRequest(conditional, notModified));
+        // Assert
+        assertThat(first.getBody()).isEqualTo(view);
+        assertThat(second).isNull();
+        assertThat(notModified.getStatus()).isEqualTo(304);
+        verify(orderReadModel, times(1)).view("cust1");
     }
 
     @Test
@@ -99,11 +309,11 @@ class OrderControllerTest {
         CreateOrder request = new CreateOrder("cust1", OrderSide.BUY, "BTC", 2L, new BigDecimal("10.50"));
         RuntimeException serviceException = new RuntimeException("Service unavailable");
         
-        when(orderService.createOrder(request)).thenThrow(serviceException);
+        when(orderCommandGateway.createOrder(request)).thenThrow(serviceException);
 
         // act & assert
         BrokageFirmApiException exception = assertThrows(BrokageFirmApiException.class, 
-            () -> orderController.create(request));
+            () -> orderController.create(request, null));
         
         assertThat(exception.getMessage()).contains("Order creation request failed due to system error");
         assertThat(exception.getCause()).isEqualTo(serviceException);
@@ -117,11 +327,11 @@ class OrderControllerTest {
         Instant endDate = Instant.parse("2026-01-31T23:59:59Z");
         RuntimeException serviceException = new RuntimeException("Service error");
         
-        when(orderService.listOrders("cust1", startDate, endDate)).thenThrow(serviceException);
+        when(orderService.listOrders("cust1", startDate, endDate, new OrderFilter(null, null, null), null, 100)).thenThrow(serviceException);
 
         // act & assert
         BrokageFirmApiException exception = assertThrows(BrokageFirmApiException.class, 
-            () -> orderController.listOrders("cust1", startDate, endDate));
+            () -> orderController.listOrders("cust1", startDate, endDate, null, null, null, null, 100, listRequest()));
         
         assertThat(exception.getMessage()).contains("Order list request failed due to system error");
         assertThat(exception.getCause()).isEqualTo(serviceException);
@@ -134,7 +344,7 @@ class OrderControllerTest {
         Long orderId = 1L;
         RuntimeException serviceException = new RuntimeException("Service unavailable");
         
-        doThrow(serviceException).when(orderService).deleteOrder(orderId);
+        doThrow(serviceException).when(orderCommandGateway).deleteOrder(orderId);
 
         // act & assert
         BrokageFirmApiException exception = assertThrows(BrokageFirmApiException.class, 
@@ -143,6 +353,100 @@ class OrderControllerTest {
         assertThat(exception.getMessage()).contains("Order deletion request failed due to system error");
         assertThat(exception.getCause()).isEqualTo(serviceException);
     }
-}
 
+    @Test
+    @DisplayName("createBatch returns per-item results from the command gateway")
+    void createBatch_success() {
+        // arrange
+        List<CreateOrder> requests = List.of(
+                new CreateOrder("cust1", OrderSide.BUY, "BTC", 2L, new BigDecimal("10.50")),
+                new CreateOrder("cust1", OrderSide.SELL, "BTC", 2L, new BigDecimal("10.50")));
+        List<BatchOrderItemResponse> expected = List.of(
+                BatchOrderItemResponse.rejected(0, "Insufficient TRY balance for customer cust1."),
+                BatchOrderItemResponse.rejected(1, "Insufficient BTC balance for customer cust1."));
+        when(orderCommandGateway.createOrders(requests)).thenReturn(expected);
 
+        // act
+        List<BatchOrderItemResponse> result = orderController.createBatch(requests);
+
+        // assert
+        assertThat(result).isEqualTo(expected);
+        verify(orderCommandGateway, times(1)).createOrders(requests);
+    }
+
+    @Test
+    @DisplayName("createBatch rethrows IllegalArgumentException for oversized batches")
+    void createBatch_WhenBatchTooLarge_ShouldRethrow() {
+        // arrange
+        List<CreateOrder> requests = List.of(new CreateOrder("cust1", OrderSide.BUY, "BTC", 2L, new BigDecimal("10.50")));
+        IllegalArgumentException tooLarge = new IllegalArgumentException("Order batch size 1 exceeds the limit of 0");
+        when(orderCommandGateway.createOrders(requests)).thenThrow(tooLarge);
+
+        // act & assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> orderController.createBatch(requests));
+
+        assertThat(exception).isSameAs(tooLarge);
+    }
+
+    @Test
+    @DisplayName("submit returns the queued ticket from the async intake")
+    void submit_success() {
+        // arrange
+        CreateOrder request = new CreateOrder("cust1", OrderSide.BUY, "BTC", 2L, new BigDecimal("10.50"));
+        OrderTicketResponse ticket = OrderTicketResponse.queued("ticket-1", Instant.parse("2026-01-01T00:00:00Z"));
+        when(asyncOrderIntake.submit(request)).thenReturn(ticket);
+
+        // act
+        OrderTicketResponse result = orderController.submit(request);
+
+        // assert
+        assertThat(result).isEqualTo(ticket);
+        verifyNoInteractions(orderCommandGateway);
+    }
+
+    @Test
+    @DisplayName("submit rethrows OrderIntakeRejectedException when the queue is full")
+    void submit_WhenQueueFull_ShouldRethrow() {
+        // arrange
+        CreateOrder request = new CreateOrder("cust1", OrderSide.BUY, "BTC", 2L, new BigDecimal("10.50"));
+        OrderIntakeRejectedException full = new OrderIntakeRejectedException("Order intake queue is full, retry later");
+        when(asyncOrderIntake.submit(request)).thenThrow(full);
+
+        // act & assert
+        OrderIntakeRejectedException exception = assertThrows(OrderIntakeRejectedException.class,
+            () -> orderController.submit(request));
+
+        assertThat(exception).isSameAs(full);
+    }
+
+    @Test
+    @DisplayName("getTicket throws InvalidOrderException for unknown tickets")
+    void getTicket_unknown() {
+        // arrange
+        when(asyncOrderIntake.findTicket("missing")).thenReturn(Optional.empty());
+
+        // act & assert
+        InvalidOrderException exception = assertThrows(InvalidOrderException.class,
+            () -> orderController.getTicket("missing"));
+
+        assertEquals("Order ticket not found: missing", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("create with Idempotency-Key delegates to the idempotency service")
+    void create_withIdempotencyKey() {
+        // arrange
+        CreateOrder request = new CreateOrder("cust1", OrderSide.BUY, "BTC", 2L, new BigDecimal("10.50"));
+        OrderResponse expected = new OrderResponse(1L, "cust1", "BTC", OrderSide.BUY, 2L, new BigDecimal("10.5000"),
+                OrderStatus.PENDING, Instant.parse("2026-01-01T00:00:00Z"));
+        when(idempotencyService.execute(eq("key-1"), eq(request), any())).thenReturn(expected);
+
+        // act
+        OrderResponse response = orderController.create(request, "key-1");
+
+        // assert
+        assertThat(response).isEqualTo(expected);
+        verifyNoInteractions(orderCommandGateway);
+    }
+}
@@ -0,0 +1,314 @@
+package com.brokage.challenge.idempotency;
+
+import com.brokage.challenge.dto.CreateOrder;
+import com.brokage.challenge.dto.OrderResponse;
+import com.brokage.challenge.enums.OrderSide;
+import com.brokage.challenge.enums.OrderStatus;
+import com.brokage.challenge.exception.IdempotencyConflictException;
+import com.brokage.challenge.exception.InvalidCustomerException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class IdempotencyServiceTest {
+
+    // Static test data
+    private static final String TEST_KEY = "key-1";
+    private static final CreateOrder TEST_REQUEST =
+            new CreateOrder("cust1", OrderSide.BUY, "BTC", 2L, new BigDecimal("10.50"));
+    private static final OrderResponse TEST_RESPONSE = new OrderResponse(1L, "cust1", "BTC", OrderSide.BUY, 2L,
+            new BigDecimal("10.5000"), OrderStatus.PENDING, Instant.parse("2026-01-01T00:00:00Z"));
+    private static final Duration TEST_LEASE = Duration.ofMinutes(1);
+
+    @Mock
+    private IdempotencyRepository idempotencyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<String, IdempotencyRecord> table = new ConcurrentHashMap<>();
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        when(idempotencyRepository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            IdempotencyRecord record = invocation.getArgument(0);
+            if (table.putIfAbsent(record.getIdempotencyKey(), record) != null) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            return record;
+        });
+        when(idempotencyRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(table.get(invocation.<String>getArgument(0))));
+        when(idempotencyRepository.takeOver(anyString(), anyString(), any(), any(), any())).thenAnswer(invocation -> {
+            IdempotencyRecord record = table.get(invocation.<String>getArgument(0));
+            if (record == null || !record.getRequestHash().equals(invocation.getArgument(1))
+                    || record.getStatus() != invocation.getArgument(2)
+                    || !record.getClaimedAt().isBefore(invocation.getArgument(4))) {
+                return 0;
+            }
+            record.setClaimedAt(invocation.getArgument(3));
+            return 1;
+        });
+        when(idempotencyRepository.complete(anyString(), any(), any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            IdempotencyRecord record = ownClaim(invocation.getArgument(0), invocation.getArgument(1));
+            if (record == null) {
+                return 0;
+            }
+            record.setStatus(invocation.getArgument(2));
+            record.setResponseBody(invocation.getArgument(3));
+            record.setErrorType(invocation.getArgument(4));
+            record.setErrorMessage(invocation.getArgument(5));
+            record.setCompletedAt(invocation.getArgument(6));
+            return 1;
+        });
+        when(idempotencyRepository.deleteClaim(anyString(), any())).thenAnswer(invocation ->
+                ownClaim(invocation.getArgument(0), invocation.getArgument(1)) != null
+                        && table.remove(invocation.<String>getArgument(0)) != null ? 1 : 0);
+        idempotencyService = newService();
+    }
+
+    private IdempotencyRecord ownClaim(String key, Instant claimedAt) {
+        IdempotencyRecord record = table.get(key);
+        return record != null && record.getStatus() == IdempotencyStatus.IN_PROGRESS
+                && record.getClaimedAt().equals(claimedAt) ? record : null;
+    }
+
+    // Stands in for the order's transaction the gateway opens around the command
+    private static OrderResponse committed(Consumer<OrderResponse> recordOutcome, OrderResponse response) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            recordOutcome.accept(response);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        return response;
+    }
+
+    private IdempotencyService newService() {
+        return new IdempotencyService(idempotencyRepository, new ObjectMapper().findAndRegisterModules(),
+                transactionManager, 100, Duration.ofHours(1), Duration.ofSeconds(5), TEST_LEASE);
+    }
+
+    @Test
+    @DisplayName("execute runs the command once and replays the response for a retry with the same key")
+    void execute_retry_replaysResponse() {
+        // arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // act
+        OrderResponse first = idempotencyService.execute(TEST_KEY, TEST_REQUEST, recordOutcome -> {
+            calls.incrementAndGet();
+            return committed(recordOutcome, TEST_RESPONSE);
+        });
+        OrderResponse second = idempotencyService.execute(TEST_KEY, TEST_REQUEST, recordOutcome -> {
+            calls.incrementAndGet();
+            return committed(recordOutcome, TEST_RESPONSE);
+        });
+
+        // assert
+        assertThat(first).isEqualTo(TEST_RESPONSE);
+        assertThat(second).isEqualTo(TEST_RESPONSE);
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(table.get(TEST_KEY).getStatus()).isEqualTo(IdempotencyStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("execute makes a concurrent duplicate wait for the first execution")
+    void execute_concurrentDuplicate_waits() throws Exception {
+        // arrange
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // act
+        CompletableFuture<OrderResponse> first = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute(TEST_KEY, TEST_REQUEST, recordOutcome -> {
+                    calls.incrementAndGet();
+                    started.countDown();
+                    awaitQuietly(release);
+                    return committed(recordOutcome, TEST_RESPONSE);
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<OrderResponse> duplicate = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute(TEST_KEY, TEST_REQUEST, recordOutcome -> {
+                    calls.incrementAndGet();
+                    return committed(recordOutcome, TEST_RESPONSE);
+                }));
+        release.countDown();
+
+        // assert
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(TEST_RESPONSE);
+        assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEqualTo(TEST_RESPONSE);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("execute remembers business rejections and rethrows them on retry")
+    void execute_businessFailure_replayed() {
+        // arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // act + assert
+        for (int i = 0; i < 2; i++) {
+            InvalidCustomerException ex = assertThrows(InvalidCustomerException.class,
+                    () -> idempotencyService.execute(TEST_KEY, TEST_REQUEST, recordOutcome -> {
+                        calls.incrementAndGet();
+                        throw new InvalidCustomerException("Insufficient TRY balance for customer cust1.");
+                    }));
+            assertThat(ex.getMessage()).isEqualTo("Insufficient TRY balance for customer cust1.");
+        }
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(table.get(TEST_KEY).getStatus()).isEqualTo(IdempotencyStatus.FAILED);
+    }
+
+    @Test
+    @DisplayName("execute rejects a key reused for a different request")
+    void execute_differentRequest_conflict() {
+        // arrange
+        idempotencyService.execute(TEST_KEY, TEST_REQUEST, recordOutcome -> committed(recordOutcome, TEST_RESPONSE));
+        CreateOrder other = new CreateOrder("cust1", OrderSide.BUY, "BTC", 3L, new BigDecimal("10.50"));
+
+        // act + assert
+        assertThrows(IdempotencyConflictException.class,
+                () -> idempotencyService.execute(TEST_KEY, other, recordOutcome -> committed(recordOutcome, TEST_RESPONSE)));
+    }
+
+    @Test
+    @DisplayName("execute replays an outcome stored by a previous process without running the command")
+    void execute_storedOutcome_afterRestart() {
+        // arrange
+        idempotencyService.execute(TEST_KEY, TEST_REQUEST, recordOutcome -> committed(recordOutcome, TEST_RESPONSE));
+        IdempotencyService restarted = newService();
+
+        // act
+        OrderResponse result = restarted.execute(TEST_KEY, TEST_REQUEST, recordOutcome -> {
+            throw new AssertionError("command must not run again");
+        });
+
+        // assert
+        assertThat(result).isEqualTo(TEST_RESPONSE);
+    }
+
+    @Test
+    @DisplayName("execute releases the key when the command fails with a system error")
+    void execute_systemError_releasesKey() {
+        // act
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(TEST_KEY, TEST_REQUEST, recordOutcome -> {
+            throw new IllegalStateException("database down");
+        }));
+        OrderResponse retried = idempotencyService.execute(TEST_KEY, TEST_REQUEST, recordOutcome -> committed(recordOutcome, TEST_RESPONSE));
+
+        // assert
+        assertThat(retried).isEqualTo(TEST_RESPONSE);
+    }
+
+    @Test
+    @DisplayName("execute takes over a claim left in progress longer than the lease and runs the command")
+    void execute_staleClaim_takenOver() {
+        // arrange
+        claimedBy(Instant.now().minus(TEST_LEASE).minusSeconds(1));
+        AtomicInteger executions = new AtomicInteger();
+
+        // act
+        OrderResponse result = idempotencyService.execute(TEST_KEY, TEST_REQUEST, recordOutcome -> {
+            executions.incrementAndGet();
+            return committed(recordOutcome, TEST_RESPONSE);
+        });
+
+        // assert
+        assertThat(result).isEqualTo(TEST_RESPONSE);
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(table.get(TEST_KEY).getStatus()).isEqualTo(IdempotencyStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("execute answers a conflict while another node's claim is within the lease")
+    void execute_claimWithinLease_conflict() {
+        // arrange
+        claimedBy(Instant.now().minusSeconds(1));
+
+        // act
+        assertThrows(IdempotencyConflictException.class, () -> idempotencyService.execute(TEST_KEY, TEST_REQUEST, recordOutcome -> {
+            throw new AssertionError("command must not run while the claim is held");
+        }));
+
+        // assert
+        assertThat(table.get(TEST_KEY).getStatus()).isEqualTo(IdempotencyStatus.IN_PROGRESS);
+    }
+
+    @Test
+    @DisplayName("execute rolls the order back with a conflict when its claim was taken over before it committed")
+    void execute_claimTakenOver_conflict() {
+        // act
+        assertThrows(IdempotencyConflictException.class, () -> idempotencyService.execute(TEST_KEY, TEST_REQUEST, recordOutcome -> {
+            table.get(TEST_KEY).setClaimedAt(Instant.now().plusSeconds(1));
+            return committed(recordOutcome, TEST_RESPONSE);
+        }));
+
+        // assert
+        assertThat(table.get(TEST_KEY).getStatus()).isEqualTo(IdempotencyStatus.IN_PROGRESS);
+    }
+
+    @Test
+    @DisplayName("execute refuses an outcome recorded outside the order's transaction")
+    void execute_outcomeOutsideTransaction_rejected() {
+        // act
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(TEST_KEY, TEST_REQUEST, recordOutcome -> {
+            recordOutcome.accept(TEST_RESPONSE);
+            return TEST_RESPONSE;
+        }));
+
+        // assert
+        assertThat(table).doesNotContainKey(TEST_KEY);
+    }
+
+    private void claimedBy(Instant claimedAt) {
+        table.put(TEST_KEY, IdempotencyRecord.builder()
+                .idempotencyKey(TEST_KEY)
+                .requestHash(IdempotencyService.fingerprint(TEST_REQUEST))
+                .status(IdempotencyStatus.IN_PROGRESS)
+                .createdAt(claimedAt)
+                .claimedAt(claimedAt)
+                .newRecord(false)
+                .build());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
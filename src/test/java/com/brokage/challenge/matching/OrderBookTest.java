@@ -0,0 +1,213 @@
+package com.brokage.challenge.matching;
+
+import com.brokage.challenge.util.FixedPoint;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderBookTest {
+
+    // Static test data
+    private static final String TEST_ASSET = "TST";
+    private static final String TEST_BUYER = "buyer";
+    private static final String TEST_SELLER = "seller";
+    private static final long PRICE_10 = FixedPoint.toTicks(new BigDecimal("10"));
+    private static final long PRICE_10_50 = FixedPoint.toTicks(new BigDecimal("10.50"));
+    private static final long PRICE_11 = FixedPoint.toTicks(new BigDecimal("11"));
+
+    private OrderBook book;
+    private Fills fills;
+
+    @BeforeEach
+    void setUp() {
+        book = new OrderBook(TEST_ASSET, 4);
+        fills = new Fills(2);
+    }
+
+    private void buy(long orderId, long price, long size) {
+        book.add(orderId, TEST_BUYER, true, price, size, FixedPoint.notional(price, size), 0L);
+    }
+
+    private void sell(long orderId, long price, long size) {
+        book.add(orderId, TEST_SELLER, false, price, size, size, 0L);
+    }
+
+    @Test
+    @DisplayName("match fills the best price first and keeps time priority within a price level")
+    void match_priceTimePriority() {
+        // arrange
+        sell(1L, PRICE_11, 5);
+        sell(2L, PRICE_10, 5);
+        sell(3L, PRICE_10, 5);
+        buy(4L, PRICE_11, 12);
+
+        // act
+        int produced = book.match(fills, Integer.MAX_VALUE);
+
+        // assert
+        assertThat(produced).isEqualTo(3);
+        assertThat(fills.sellOrderId(0)).isEqualTo(2L);
+        assertThat(fills.sellOrderId(1)).isEqualTo(3L);
+        assertThat(fills.sellOrderId(2)).isEqualTo(1L);
+        assertThat(fills.quantity(2)).isEqualTo(2L);
+        assertThat(fills.sellRemaining(2)).isEqualTo(3L);
+        assertThat(book.contains(4L)).isFalse();
+        assertThat(book.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("match executes at the resting order's price and releases the buyer's unused reservation")
+    void match_restingPrice_settlementAmounts() {
+        // arrange: reserved ceil(11 * 3) = 33 TRY
+        buy(1L, PRICE_11, 3);
+        sell(2L, PRICE_10_50, 2);
+
+        // act
+        book.match(fills, Integer.MAX_VALUE);
+
+        // assert: trade 2 @ 11 (bid rested first), 11 TRY stays reserved for the open unit
+        assertThat(fills.size()).isEqualTo(1);
+        assertThat(fills.price(0)).isEqualTo(PRICE_11);
+        assertThat(fills.cost(0)).isEqualTo(22L);
+        assertThat(fills.buyerReleased(0)).isEqualTo(22L);
+        assertThat(fills.buyRemaining(0)).isEqualTo(1L);
+        assertThat(fills.sellRemaining(0)).isZero();
+        assertThat(book.bestBid()).isEqualTo(PRICE_11);
+        assertThat(book.bestAsk()).isZero();
+    }
+
+    @Test
+    @DisplayName("match leaves a book whose best bid is below the best ask untouched")
+    void match_noCross() {
+        // arrange
+        buy(1L, PRICE_10, 1);
+        sell(2L, PRICE_10_50, 1);
+
+        // act
+        int produced = book.match(fills, Integer.MAX_VALUE);
+
+        // assert
+        assertThat(produced).isZero();
+        assertThat(book.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("match never fills two orders of the same customer and moves on to the next ask")
+    void match_sameCustomer_skipped() {
+        // arrange
+        book.add(1L, TEST_BUYER, false, PRICE_10, 1, 1, 0L);
+        sell(2L, PRICE_10_50, 1);
+        buy(3L, PRICE_11, 1);
+
+        // act
+        int produced = book.match(fills, Integer.MAX_VALUE);
+
+        // assert
+        assertThat(produced).isEqualTo(1);
+        assertThat(fills.sellOrderId(0)).isEqualTo(2L);
+        assertThat(fills.price(0)).isEqualTo(PRICE_10_50);
+        assertThat(book.contains(1L)).isTrue();
+        assertThat(book.bestAsk()).isEqualTo(PRICE_10);
+        assertThat(book.bestBid()).isZero();
+    }
+
+    @Test
+    @DisplayName("rollbackMatch restores quantities and queue positions so the same fills are produced again")
+    void rollbackMatch_restoresBook() {
+        // arrange
+        sell(1L, PRICE_11, 5);
+        sell(2L, PRICE_10, 5);
+        sell(3L, PRICE_10, 5);
+        buy(4L, PRICE_11, 12);
+        book.match(fills, Integer.MAX_VALUE);
+
+        // act
+        book.rollbackMatch();
+        Fills again = new Fills(2);
+        int produced = book.match(again, Integer.MAX_VALUE);
+
+        // assert
+        assertThat(produced).isEqualTo(fills.size());
+        for (int i = 0; i < produced; i++) {
+            assertThat(again.sellOrderId(i)).isEqualTo(fills.sellOrderId(i));
+            assertThat(again.quantity(i)).isEqualTo(fills.quantity(i));
+            assertThat(again.cost(i)).isEqualTo(fills.cost(i));
+            assertThat(again.buyerReleased(i)).isEqualTo(fills.buyerReleased(i));
+        }
+        assertThat(book.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("commitMatch frees the slots of filled orders for reuse without touching resting ones")
+    void commitMatch_reusesFilledSlots() {
+        // arrange
+        buy(1L, PRICE_10, 1);
+        sell(2L, PRICE_10, 2);
+        book.match(fills, Integer.MAX_VALUE);
+
+        // act
+        book.commitMatch();
+        buy(3L, PRICE_10, 1);
+        buy(4L, PRICE_10, 1);
+        int produced = book.match(fills, Integer.MAX_VALUE);
+
+        // assert
+        assertThat(produced).isEqualTo(1);
+        assertThat(fills.buyOrderId(1)).isEqualTo(3L);
+        assertThat(book.contains(4L)).isTrue();
+        assertThat(book.contains(2L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("remove takes a cancelled order out of its queue so it never matches")
+    void remove_cancelledOrder_notMatched() {
+        // arrange
+        sell(1L, PRICE_10, 1);
+        sell(2L, PRICE_10, 1);
+        buy(3L, PRICE_10, 1);
+
+        // act
+        boolean removed = book.remove(1L);
+        book.match(fills, Integer.MAX_VALUE);
+
+        // assert
+        assertThat(removed).isTrue();
+        assertThat(book.remove(1L)).isFalse();
+        assertThat(fills.sellOrderId(0)).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("add ignores an order that is already resting in the book")
+    void add_duplicate_ignored() {
+        // arrange
+        buy(1L, PRICE_10, 1);
+
+        // act
+        boolean added = book.add(1L, TEST_BUYER, true, PRICE_10, 1, 10, 0L);
+
+        // assert
+        assertThat(added).isFalse();
+        assertThat(book.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("advanceVersion moves a resting order past the settled version once")
+    void advanceVersion_onlyOnce() {
+        // arrange
+        buy(1L, PRICE_10, 2);
+        sell(2L, PRICE_10, 1);
+        book.match(fills, Integer.MAX_VALUE);
+
+        // act
+        book.advanceVersion(1L, 0L);
+        book.advanceVersion(1L, 0L);
+
+        // assert
+        assertThat(book.version(1L)).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,154 @@
+package com.brokage.challenge.readmodel;
+
+import com.brokage.challenge.dto.CustomerOrderView;
+import com.brokage.challenge.dto.OrderAssetTotals;
+import com.brokage.challenge.dto.OrderResponse;
+import com.brokage.challenge.entity.Order;
+import com.brokage.challenge.enums.OrderSide;
+import com.brokage.challenge.enums.OrderStatus;
+import com.brokage.challenge.event.OrderCancelledEvent;
+import com.brokage.challenge.event.OrderCreatedEvent;
+import com.brokage.challenge.event.OrderExecutedEvent;
+import com.brokage.challenge.repository.OrderRepository;
+import com.brokage.challenge.service.impl.CustomerVersions;
+import com.brokage.challenge.util.FixedPoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderReadModelTest {
+
+    // Static test data
+    private static final String TEST_CUSTOMER = "cust1";
+    private static final String TEST_ASSET = "BTC";
+    private static final long TEST_PRICE_TICKS = FixedPoint.toTicks(new BigDecimal("10.50"));
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CustomerVersions customerVersions = new CustomerVersions(100);
+
+    private OrderReadModel orderReadModel;
+
+    @BeforeEach
+    void setUp() {
+        orderReadModel = new OrderReadModel(orderRepository, entityManager, transactionManager, customerVersions,
+                meterRegistry, Duration.ofHours(24), 2, Duration.ofMillis(5));
+    }
+
+    private static OrderCreatedEvent created(long id, OrderSide side, long size, Instant createDate) {
+        return new OrderCreatedEvent(id, TEST_CUSTOMER, TEST_ASSET, side, TEST_PRICE_TICKS, size, 0L, 0L, createDate);
+    }
+
+    @Test
+    @DisplayName("load fills the view with stored open orders and the latest orders, newest first")
+    void load_view() {
+        // arrange
+        Instant now = Instant.now();
+        Order first = Order.builder().id(1L).customerId(TEST_CUSTOMER).assetName(TEST_ASSET).orderSide(OrderSide.BUY)
+                .size(2L).priceTicks(TEST_PRICE_TICKS).status(OrderStatus.PENDING).createDate(now.minusSeconds(30)).build();
+        Order second = Order.builder().id(2L).customerId(TEST_CUSTOMER).assetName(TEST_ASSET).orderSide(OrderSide.SELL)
+                .size(3L).priceTicks(TEST_PRICE_TICKS).status(OrderStatus.EXECUTED).createDate(now.minusSeconds(20)).build();
+        when(orderRepository.streamByStatusOrCreatedSince(eq(OrderStatus.PENDING), any()))
+                .thenReturn(Stream.of(first, second));
+
+        // act
+        orderReadModel.load(now.minus(Duration.ofHours(24)));
+        CustomerOrderView view = orderReadModel.view(TEST_CUSTOMER);
+
+        // assert
+        assertThat(view.openOrders()).extracting(OrderResponse::id).containsExactly(1L);
+        assertThat(view.recentOrders()).extracting(OrderResponse::id).containsExactly(2L, 1L);
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+
+    @Test
+    @DisplayName("committed events keep open orders and per-asset totals current and record the lag")
+    void events_updateView() {
+        // arrange
+        Instant now = Instant.now();
+        String etagBefore = customerVersions.etag(TEST_CUSTOMER);
+        orderReadModel.onOrderCreated(created(1L, OrderSide.BUY, 5L, now.minusSeconds(2)));
+        orderReadModel.onOrderCreated(created(2L, OrderSide.SELL, 4L, now.minusSeconds(1)));
+        orderReadModel.onOrderExecuted(new OrderExecutedEvent(1L, TEST_CUSTOMER, TEST_ASSET, OrderSide.BUY, 2L, 21L, false, 3L));
+        orderReadModel.onOrderExecuted(new OrderExecutedEvent(2L, TEST_CUSTOMER, TEST_ASSET, OrderSide.SELL, 4L, 42L, true, 0L));
+
+        // act
+        orderReadModel.runCycle();
+        CustomerOrderView view = orderReadModel.view(TEST_CUSTOMER);
+
+        // assert
+        assertThat(view.openOrders()).extracting(OrderResponse::id).containsExactly(1L);
+        assertThat(view.recentOrders()).extracting(OrderResponse::id).containsExactly(2L, 1L);
+        assertThat(view.recentOrders().getFirst().status()).isEqualTo(OrderStatus.EXECUTED);
+        assertThat(view.assetTotals()).containsExactly(new OrderAssetTotals(TEST_ASSET, 1, 3, 0, 0));
+        assertThat(meterRegistry.get("order.read-model.lag").timer().count()).isEqualTo(4);
+        assertThat(customerVersions.etag(TEST_CUSTOMER)).isNotEqualTo(etagBefore);
+    }
+
+    @Test
+    @DisplayName("cancellations delete unfilled orders and keep partially filled ones as CANCELLED")
+    void cancellations() {
+        // arrange
+        Instant now = Instant.now();
+        orderReadModel.onOrderCreated(created(1L, OrderSide.BUY, 2L, now.minusSeconds(2)));
+        orderReadModel.onOrderCreated(created(2L, OrderSide.BUY, 2L, now.minusSeconds(1)));
+        orderReadModel.onOrderExecuted(new OrderExecutedEvent(2L, TEST_CUSTOMER, TEST_ASSET, OrderSide.BUY, 1L, 10L, false, 1L));
+        orderReadModel.onOrderCancelled(new OrderCancelledEvent(1L, TEST_CUSTOMER, TEST_ASSET, OrderSide.BUY, 21L, 2L, TEST_PRICE_TICKS));
+        orderReadModel.onOrderCancelled(new OrderCancelledEvent(2L, TEST_CUSTOMER, TEST_ASSET, OrderSide.BUY, 11L, 1L, TEST_PRICE_TICKS));
+
+        // act
+        orderReadModel.runCycle();
+        CustomerOrderView view = orderReadModel.view(TEST_CUSTOMER);
+
+        // assert
+        assertThat(view.openOrders()).isEmpty();
+        assertThat(view.assetTotals()).isEmpty();
+        assertThat(view.recentOrders()).extracting(OrderResponse::id, OrderResponse::status)
+                .containsExactly(tuple(2L, OrderStatus.CANCELLED));
+    }
+
+    @Test
+    @DisplayName("a change that overtakes the order's creation is applied once the creation arrives")
+    void changeBeforeCreation_appliedLater() {
+        // arrange
+        Instant now = Instant.now();
+        orderReadModel.onOrderExecuted(new OrderExecutedEvent(1L, TEST_CUSTOMER, TEST_ASSET, OrderSide.BUY, 2L, 21L, true, 0L));
+        orderReadModel.runCycle();
+        orderReadModel.onOrderCreated(created(1L, OrderSide.BUY, 2L, now));
+
+        // act
+        orderReadModel.runCycle();
+
+        // assert
+        CustomerOrderView view = orderReadModel.view(TEST_CUSTOMER);
+        assertThat(view.openOrders()).isEmpty();
+        assertThat(view.recentOrders()).extracting(OrderResponse::status).containsExactly(OrderStatus.EXECUTED);
+    }
+}
@@ -0,0 +1,154 @@
+package com.brokage.challenge.service.impl;
+
+import com.brokage.challenge.entity.Asset;
+import com.brokage.challenge.enums.OrderSide;
+import com.brokage.challenge.event.OrderCancelledEvent;
+import com.brokage.challenge.event.OrderCreatedEvent;
+import com.brokage.challenge.event.OrderExecutedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssetBalanceCacheTest {
+
+    // Static test data
+    private static final String TEST_CUSTOMER = "cust1";
+    private static final String TEST_ASSET = "TRY";
+
+    private SimpleMeterRegistry meterRegistry;
+    private AssetBalanceCache cache;
+    private AtomicInteger loads;
+    private Function<String, List<Asset>> loader;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new AssetBalanceCache(meterRegistry, 100);
+        loads = new AtomicInteger();
+        loader = customerId -> {
+            loads.incrementAndGet();
+            return new ArrayList<>(List.of(Asset.builder()
+                    .customerId(customerId)
+                    .assetName(TEST_ASSET)
+                    .size(100L)
+                    .usableSize(100L)
+                    .build()));
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("get loads once per customer and records hits and misses")
+    void get_recordsHitsAndMisses() {
+        // act
+        cache.get(TEST_CUSTOMER, loader);
+        List<Asset> cached = cache.get(TEST_CUSTOMER, loader);
+
+        // assert
+        assertThat(loads).hasValue(1);
+        assertThat(cached).hasSize(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "assets").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "assets").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("evictAfterCommit keeps the entry until the transaction commits")
+    void evictAfterCommit_waitsForCommit() {
+        // arrange
+        cache.get(TEST_CUSTOMER, loader);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // act
+        cache.evictAfterCommit(TEST_CUSTOMER);
+        cache.get(TEST_CUSTOMER, loader);
+        int loadsBeforeCommit = loads.get();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        cache.get(TEST_CUSTOMER, loader);
+
+        // assert
+        assertThat(loadsBeforeCommit).isEqualTo(1);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("an execution event evicts the customer whose order was filled")
+    void onOrderExecuted_evictsCustomer() {
+        // arrange
+        cache.get(TEST_CUSTOMER, loader);
+        cache.get("cust2", loader);
+
+        // act
+        cache.onOrderExecuted(new OrderExecutedEvent(1L, TEST_CUSTOMER, "TST", OrderSide.BUY, 1L, 10L, true, 0L));
+        cache.get(TEST_CUSTOMER, loader);
+        cache.get("cust2", loader);
+
+        // assert
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("evictAfterCommit runs before the ETag bump registered ahead of it")
+    void evictAfterCommit_runsBeforeVersionBump() {
+        // arrange
+        CustomerVersions versions = new CustomerVersions(100);
+        String etag = versions.etag(TEST_CUSTOMER);
+        cache.get(TEST_CUSTOMER, loader);
+        TransactionSynchronizationManager.initSynchronization();
+        versions.bumpAfterCommit(TEST_CUSTOMER);
+        cache.evictAfterCommit(TEST_CUSTOMER);
+
+        // act
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.get(0).afterCommit();
+        String etagAfterFirst = versions.etag(TEST_CUSTOMER);
+        cache.get(TEST_CUSTOMER, loader);
+
+        // assert
+        assertThat(etagAfterFirst).isEqualTo(etag);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("order event listeners evict balances before the ETag version is dropped")
+    void orderEventListeners_evictBeforeVersionBump() throws NoSuchMethodException {
+        for (Class<?> eventType : List.of(OrderCreatedEvent.class, OrderCancelledEvent.class, OrderExecutedEvent.class)) {
+            // arrange
+            String listener = "on" + eventType.getSimpleName().replace("Event", "");
+
+            // act
+            int eviction = listenerOrder(AssetBalanceCache.class.getMethod(listener, eventType));
+            int invalidation = listenerOrder(CustomerVersions.class.getMethod(listener, eventType));
+
+            // assert
+            assertThat(eviction).as(listener).isLessThan(invalidation);
+        }
+    }
+
+    private static int listenerOrder(Method listener) {
+        Order order = AnnotationUtils.findAnnotation(listener, Order.class);
+        assertThat(order).as(listener.getName()).isNotNull();
+        return order.value();
+    }
+}
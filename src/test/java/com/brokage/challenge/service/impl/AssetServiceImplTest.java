@@ -4,6 +4,7 @@ import com.brokage.challenge.entity.Asset;
 import com.brokage.challenge.exception.BrokageFirmApiException;
 import com.brokage.challenge.exception.InvalidAssetException;
 import com.brokage.challenge.repository.AssetRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,7 +13,6 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
-import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -25,7 +25,6 @@ class AssetServiceImplTest {
     private static final String TEST_CUSTOMER = "cust1";
     private static final String TEST_ASSET = "BTC";
     private static final Long TEST_AMOUNT = 5L;
-    private static final Long TEST_INITIAL = 10L;
     private static final String TEST_ASSET1 = "BTC";
     private static final String TEST_ASSET2 = "ETH";
     private static final Long TEST_SIZE = 10L;
@@ -38,42 +37,35 @@ class AssetServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        assertService = new AssetServiceImpl(assetRepository);
+        assertService = new AssetServiceImpl(assetRepository, new AssetBalanceCache(new SimpleMeterRegistry(), 100),
+                new CustomerVersions(100));
     }
 
     @Test
-    @DisplayName("increaseUsableSize adds amount and saves asset")
+    @DisplayName("increaseUsableSize adds amount with a single update statement")
     void increaseUsableSize_success() {
         // arrange
-        Asset asset = Asset.builder()
-                .customerId(TEST_CUSTOMER)
-                .assetName(TEST_ASSET)
-                .usableSize(TEST_INITIAL)
-                .build();
-
-        when(assetRepository.findByCustomerIdAndAssetName(TEST_CUSTOMER, TEST_ASSET))
-                .thenReturn(Optional.of(asset));
+        when(assetRepository.releaseUsableSize(TEST_CUSTOMER, TEST_ASSET, TEST_AMOUNT)).thenReturn(1);
 
         // act
         assertService.increaseUsableSize(TEST_CUSTOMER, TEST_ASSET, TEST_AMOUNT);
 
         // assert
-        assertThat(asset.getUsableSize()).isEqualTo(TEST_INITIAL + TEST_AMOUNT);
-        verify(assetRepository, times(1)).save(asset);
+        verify(assetRepository, times(1)).releaseUsableSize(TEST_CUSTOMER, TEST_ASSET, TEST_AMOUNT);
+        verify(assetRepository, never()).findByCustomerIdAndAssetName(any(), any());
+        verify(assetRepository, never()).save(any());
     }
 
     @Test
     @DisplayName("increaseUsableSize throws when asset not found")
     void increaseUsableSize_assetNotFound_throws() {
         // arrange
-        when(assetRepository.findByCustomerIdAndAssetName(TEST_CUSTOMER, TEST_ASSET))
-                .thenReturn(Optional.empty());
+        when(assetRepository.releaseUsableSize(TEST_CUSTOMER, TEST_ASSET, TEST_AMOUNT)).thenReturn(0);
 
         // act + assert
         InvalidAssetException ex = assertThrows(InvalidAssetException.class,
                 () -> assertService.increaseUsableSize(TEST_CUSTOMER, TEST_ASSET, TEST_AMOUNT));
         assertThat(ex.getMessage()).contains("Customer " + TEST_CUSTOMER + " does not have the asset: " + TEST_ASSET);
-        verify(assetRepository, never()).save(any());
     }
 
     @Test
@@ -103,12 +95,35 @@ class AssetServiceImplTest {
         assertThat(result.get(1).getCustomerId()).isEqualTo(TEST_CUSTOMER);
     }
 
+    @Test
+    @DisplayName("listAssets serves repeated reads from the cache until a write evicts the customer")
+    void listAssets_cachedUntilWrite() {
+        // arrange
+        Asset asset = Asset.builder()
+                .customerId(TEST_CUSTOMER)
+                .assetName(TEST_ASSET1)
+                .size(TEST_SIZE)
+                .usableSize(TEST_USABLE)
+                .build();
+        when(assetRepository.findByCustomerId(TEST_CUSTOMER)).thenReturn(List.of(asset));
+        when(assetRepository.releaseUsableSize(TEST_CUSTOMER, TEST_ASSET1, TEST_AMOUNT)).thenReturn(1);
+
+        // act
+        assertService.listAssets(TEST_CUSTOMER);
+        assertService.listAssets(TEST_CUSTOMER);
+        assertService.increaseUsableSize(TEST_CUSTOMER, TEST_ASSET1, TEST_AMOUNT);
+        assertService.listAssets(TEST_CUSTOMER);
+
+        // assert
+        verify(assetRepository, times(2)).findByCustomerId(TEST_CUSTOMER);
+    }
+
     @Test
     @DisplayName("increaseUsableSize should throw BrokageFirmApiException when repository throws unexpected exception")
     void increaseUsableSize_WhenRepositoryThrowsUnexpectedException_ShouldThrowBrokageFirmApiException() {
         // arrange
         RuntimeException repositoryException = new RuntimeException("Database connection failed");
-        when(assetRepository.findByCustomerIdAndAssetName(TEST_CUSTOMER, TEST_ASSET1))
+        when(assetRepository.releaseUsableSize(TEST_CUSTOMER, TEST_ASSET1, TEST_AMOUNT))
             .thenThrow(repositoryException);
 
         // act & assert
@@ -3,6 +3,7 @@ package com.brokage.challenge.service.impl;
 import com.brokage.challenge.entity.Order;
 import com.brokage.challenge.enums.OrderSide;
 import com.brokage.challenge.exception.InvalidOrderException;
+import com.brokage.challenge.service.AssetService;
 import com.brokage.challenge.service.OrderCancellationStrategy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,9 +14,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,13 +35,16 @@ class AssetUpdateManagerTest {
     @Mock
     private OrderCancellationStrategy sellStrategy;
 
+    @Mock
+    private AssetService assetService;
+
     private AssetUpdateManager assetUpdateManager;
 
     @BeforeEach
     void setUp() {
         when(buyStrategy.getSupportedSide()).thenReturn(OrderSide.BUY);
         when(sellStrategy.getSupportedSide()).thenReturn(OrderSide.SELL);
-        assetUpdateManager = new AssetUpdateManager(List.of(buyStrategy, sellStrategy));
+        assetUpdateManager = new AssetUpdateManager(List.of(buyStrategy, sellStrategy), assetService);
     }
 
     private Order buildOrder(OrderSide side) {
@@ -51,6 +57,46 @@ class AssetUpdateManagerTest {
                 .build();
     }
 
+    private Order buildOrder(OrderSide side, long reservedAmount) {
+        Order order = buildOrder(side);
+        order.setReservedAmount(reservedAmount);
+        return order;
+    }
+
+    @Test
+    @DisplayName("refundUsableBalanceForCancellation applies one refund per asset row for many orders")
+    void refundUsableBalanceForCancellation_many_aggregatesPerAsset() {
+        // arrange
+        when(buyStrategy.refundAssetName(any())).thenReturn("TRY");
+        when(sellStrategy.refundAssetName(any())).thenReturn(TEST_ASSET);
+        List<Order> orders = List.of(
+                buildOrder(OrderSide.BUY, 21L),
+                buildOrder(OrderSide.BUY, 30L),
+                buildOrder(OrderSide.SELL, 2L),
+                buildOrder(OrderSide.BUY, 9L));
+
+        // act
+        Map<String, Long> refunded = assetUpdateManager.refundUsableBalanceForCancellation(TEST_CUSTOMER, orders);
+
+        // assert
+        assertThat(refunded).containsExactly(Map.entry("TRY", 60L), Map.entry(TEST_ASSET, 2L));
+        verify(assetService, times(1)).increaseUsableSize(TEST_CUSTOMER, "TRY", 60L);
+        verify(assetService, times(1)).increaseUsableSize(TEST_CUSTOMER, TEST_ASSET, 2L);
+        verify(buyStrategy, never()).refundUsableBalance(any());
+    }
+
+    @Test
+    @DisplayName("refundUsableBalanceForCancellation rejects orders of another customer")
+    void refundUsableBalanceForCancellation_otherCustomer_throws() {
+        // arrange
+        Order order = buildOrder(OrderSide.BUY, 21L);
+
+        // act + assert
+        assertThrows(IllegalArgumentException.class,
+                () -> assetUpdateManager.refundUsableBalanceForCancellation("other", List.of(order)));
+        verifyNoInteractions(assetService);
+    }
+
     @Test
     @DisplayName("refundUsableBalanceForCancellation delegates to BUY strategy")
     void refundUsableBalanceForCancellation_buy_delegates() {
@@ -81,7 +127,7 @@ class AssetUpdateManagerTest {
     @DisplayName("refundUsableBalanceForCancellation throws when strategy missing")
     void refundUsableBalanceForCancellation_missingStrategy_throws() {
         // arrange: manager with only BUY strategy
-        assetUpdateManager = new AssetUpdateManager(List.of(buyStrategy));
+        assetUpdateManager = new AssetUpdateManager(List.of(buyStrategy), assetService);
         Order order = buildOrder(OrderSide.SELL);
 
         // act + assert
@@ -0,0 +1,158 @@
+package com.brokage.challenge.service.impl;
+
+import com.brokage.challenge.dto.CreateOrder;
+import com.brokage.challenge.dto.OrderTicketResponse;
+import com.brokage.challenge.entity.Order;
+import com.brokage.challenge.enums.OrderSide;
+import com.brokage.challenge.enums.OrderStatus;
+import com.brokage.challenge.enums.OrderTicketStatus;
+import com.brokage.challenge.exception.InvalidAssetException;
+import com.brokage.challenge.exception.OrderIntakeRejectedException;
+import com.brokage.challenge.util.FixedPoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncOrderIntakeTest {
+
+    // Static test data
+    private static final String TEST_CUSTOMER = "cust1";
+    private static final int TEST_CAPACITY = 1;
+    private static final int TEST_WORKERS = 1;
+
+    @Mock
+    private OrderCommandGateway orderCommandGateway;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AsyncOrderIntake intake;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        intake = new AsyncOrderIntake(orderCommandGateway, meterRegistry, TEST_CAPACITY, TEST_WORKERS, Duration.ofMinutes(10), false);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        intake.shutdown();
+    }
+
+    private CreateOrder prepareCreateOrder() {
+        return new CreateOrder(TEST_CUSTOMER, OrderSide.BUY, "BTC", 2L, new BigDecimal("10.50"));
+    }
+
+    private Order prepareOrder(long id) {
+        return Order.builder()
+                .id(id)
+                .customerId(TEST_CUSTOMER)
+                .assetName("BTC")
+                .orderSide(OrderSide.BUY)
+                .size(2L)
+                .priceTicks(FixedPoint.toTicks(new BigDecimal("10.50")))
+                .status(OrderStatus.PENDING)
+                .createDate(Instant.parse("2026-01-01T00:00:00Z"))
+                .build();
+    }
+
+    private OrderTicketResponse awaitFinished(String ticketId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            OrderTicketResponse ticket = intake.findTicket(ticketId).orElseThrow();
+            if (ticket.status() != OrderTicketStatus.QUEUED) {
+                return ticket;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Ticket did not finish: " + ticketId);
+    }
+
+    @Test
+    @DisplayName("submit returns a queued ticket that resolves to the created order")
+    void submit_completes() throws InterruptedException {
+        // arrange
+        CreateOrder request = prepareCreateOrder();
+        when(orderCommandGateway.createOrder(request)).thenReturn(prepareOrder(7L));
+
+        // act
+        OrderTicketResponse queued = intake.submit(request);
+        OrderTicketResponse finished = awaitFinished(queued.ticketId());
+
+        // assert
+        assertThat(queued.status()).isEqualTo(OrderTicketStatus.QUEUED);
+        assertThat(finished.status()).isEqualTo(OrderTicketStatus.COMPLETED);
+        assertThat(finished.order().id()).isEqualTo(7L);
+        assertThat(finished.completedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("submit records the business rejection reason on the ticket")
+    void submit_rejected() throws InterruptedException {
+        // arrange
+        CreateOrder request = prepareCreateOrder();
+        when(orderCommandGateway.createOrder(request))
+                .thenThrow(new InvalidAssetException("Insufficient TRY balance for customer cust1."));
+
+        // act
+        OrderTicketResponse finished = awaitFinished(intake.submit(request).ticketId());
+
+        // assert
+        assertThat(finished.status()).isEqualTo(OrderTicketStatus.REJECTED);
+        assertThat(finished.error()).isEqualTo("Insufficient TRY balance for customer cust1.");
+    }
+
+    @Test
+    @DisplayName("submit throws OrderIntakeRejectedException once the queue is full and keeps the accepted tickets")
+    void submit_queueFull_throws() throws InterruptedException {
+        // arrange
+        CountDownLatch release = new CountDownLatch(1);
+        CreateOrder request = prepareCreateOrder();
+        when(orderCommandGateway.createOrder(request)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return prepareOrder(1L);
+        });
+
+        OrderTicketResponse first;
+        OrderTicketResponse second;
+        try {
+            // act: one order occupies the worker, one fills the queue
+            first = intake.submit(request);
+            awaitWorkerBusy();
+            second = intake.submit(request);
+
+            // assert
+            assertThrows(OrderIntakeRejectedException.class, () -> intake.submit(request));
+            assertThat(meterRegistry.get("order.intake.rejected").counter().count()).isEqualTo(1.0);
+            assertThat(intake.findTicket(first.ticketId()).orElseThrow().status()).isEqualTo(OrderTicketStatus.QUEUED);
+        } finally {
+            release.countDown();
+        }
+        OrderTicketResponse firstFinished = awaitFinished(first.ticketId());
+        assertThat(firstFinished.status()).isEqualTo(OrderTicketStatus.COMPLETED);
+        assertThat(firstFinished.order().id()).isEqualTo(1L);
+        assertThat(awaitFinished(second.ticketId()).status()).isEqualTo(OrderTicketStatus.COMPLETED);
+    }
+
+    private void awaitWorkerBusy() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("order.intake.queue.depth").gauge().value() > 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
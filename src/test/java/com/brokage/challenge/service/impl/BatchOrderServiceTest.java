@@ -0,0 +1,184 @@
+package com.brokage.challenge.service.impl;
+
+import com.brokage.challenge.audit.AuditPolicyService;
+import com.brokage.challenge.audit.AuditService;
+import com.brokage.challenge.dto.BatchOrderItemResponse;
+import com.brokage.challenge.dto.CreateOrder;
+import com.brokage.challenge.entity.Asset;
+import com.brokage.challenge.entity.Order;
+import com.brokage.challenge.enums.OrderSide;
+import com.brokage.challenge.repository.AssetRepository;
+import com.brokage.challenge.repository.OrderRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchOrderServiceTest {
+
+    // Static test data
+    private static final String TEST_CUSTOMER = "cust1";
+    private static final String TEST_ASSET = "BTC";
+    private static final BigDecimal TEST_PRICE = new BigDecimal("10.50");
+    private static final int TEST_MAX_BATCH_SIZE = 3;
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private AuditService auditService;
+
+    @Mock
+    private AuditPolicyService auditPolicyService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ValidatorFactory validatorFactory;
+
+    private BatchOrderService batchOrderService;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        batchOrderService = new BatchOrderService(assetRepository, orderRepository, auditService, auditPolicyService,
+                validatorFactory.getValidator(), eventPublisher, TEST_MAX_BATCH_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    private void stubSaveAllAssigningIds() {
+        AtomicLong ids = new AtomicLong();
+        when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Order> orders = new ArrayList<>(invocation.getArgument(0));
+            orders.forEach(order -> order.setId(ids.incrementAndGet()));
+            return orders;
+        });
+    }
+
+    @Test
+    @DisplayName("createOrders reserves once per asset row and saves all orders in one call")
+    void createOrders_groupsReservations() {
+        // arrange
+        List<CreateOrder> requests = List.of(
+                new CreateOrder(TEST_CUSTOMER, OrderSide.BUY, TEST_ASSET, 2L, TEST_PRICE),
+                new CreateOrder(TEST_CUSTOMER, OrderSide.BUY, "ETH", 2L, TEST_PRICE),
+                new CreateOrder(TEST_CUSTOMER, OrderSide.SELL, TEST_ASSET, 3L, TEST_PRICE));
+        when(assetRepository.reserveUsableSize(TEST_CUSTOMER, "TRY", 42L)).thenReturn(1);
+        when(assetRepository.reserveUsableSize(TEST_CUSTOMER, TEST_ASSET, 3L)).thenReturn(1);
+        stubSaveAllAssigningIds();
+
+        // act
+        List<BatchOrderItemResponse> result = batchOrderService.createOrders(requests);
+
+        // assert
+        assertThat(result).hasSize(3).allMatch(BatchOrderItemResponse::created);
+        assertThat(result).extracting(BatchOrderItemResponse::index).containsExactly(0, 1, 2);
+        verify(assetRepository, times(2)).reserveUsableSize(anyString(), anyString(), any());
+        verify(orderRepository, times(1)).saveAll(anyList());
+        verify(auditPolicyService, times(3)).recordSuccess(eq("CREATE_ORDER"), eq("Order"), any(), eq(TEST_CUSTOMER), any());
+    }
+
+    @Test
+    @DisplayName("createOrders accepts items in order while the balance lasts and rejects the rest")
+    void createOrders_partialBalance() {
+        // arrange
+        List<CreateOrder> requests = List.of(
+                new CreateOrder(TEST_CUSTOMER, OrderSide.SELL, TEST_ASSET, 3L, TEST_PRICE),
+                new CreateOrder(TEST_CUSTOMER, OrderSide.SELL, TEST_ASSET, 3L, TEST_PRICE));
+        Asset asset = Asset.builder()
+                .customerId(TEST_CUSTOMER)
+                .assetName(TEST_ASSET)
+                .usableSize(4L)
+                .build();
+        when(assetRepository.reserveUsableSize(TEST_CUSTOMER, TEST_ASSET, 6L)).thenReturn(0);
+        when(assetRepository.findByCustomerIdAndAssetName(TEST_CUSTOMER, TEST_ASSET)).thenReturn(Optional.of(asset));
+        when(assetRepository.reserveUsableSize(TEST_CUSTOMER, TEST_ASSET, 3L)).thenReturn(1);
+        stubSaveAllAssigningIds();
+
+        // act
+        List<BatchOrderItemResponse> result = batchOrderService.createOrders(requests);
+
+        // assert
+        assertThat(result.get(0).created()).isTrue();
+        assertThat(result.get(1).created()).isFalse();
+        assertThat(result.get(1).error()).isEqualTo("Insufficient " + TEST_ASSET + " balance for customer " + TEST_CUSTOMER + ".");
+        verify(auditService, times(1)).logFailure(eq("CREATE_ORDER"), eq("Order"), isNull(), eq(TEST_CUSTOMER),
+                anyString(), eq(result.get(1).error()));
+    }
+
+    @Test
+    @DisplayName("createOrders rejects the whole group when the asset does not exist")
+    void createOrders_missingAsset() {
+        // arrange
+        List<CreateOrder> requests = List.of(new CreateOrder(TEST_CUSTOMER, OrderSide.BUY, TEST_ASSET, 2L, TEST_PRICE));
+        when(assetRepository.reserveUsableSize(TEST_CUSTOMER, "TRY", 21L)).thenReturn(0);
+        when(assetRepository.findByCustomerIdAndAssetName(TEST_CUSTOMER, "TRY")).thenReturn(Optional.empty());
+        when(orderRepository.saveAll(anyList())).thenReturn(List.of());
+
+        // act
+        List<BatchOrderItemResponse> result = batchOrderService.createOrders(requests);
+
+        // assert
+        assertThat(result.getFirst().created()).isFalse();
+        assertThat(result.getFirst().error()).isEqualTo(TEST_CUSTOMER + " does not have a TRY asset.");
+    }
+
+    @Test
+    @DisplayName("createOrders rejects invalid items without touching balances")
+    void createOrders_invalidItem() {
+        // arrange
+        List<CreateOrder> requests = List.of(new CreateOrder(TEST_CUSTOMER, OrderSide.BUY, TEST_ASSET, 0L, TEST_PRICE));
+        when(orderRepository.saveAll(anyList())).thenReturn(List.of());
+
+        // act
+        List<BatchOrderItemResponse> result = batchOrderService.createOrders(requests);
+
+        // assert
+        assertThat(result.getFirst().created()).isFalse();
+        assertThat(result.getFirst().error()).contains("size: Size must be at least 1");
+        verifyNoInteractions(assetRepository);
+    }
+
+    @Test
+    @DisplayName("createOrders throws when the batch exceeds the configured limit")
+    void createOrders_tooLarge_throws() {
+        // arrange
+        CreateOrder request = new CreateOrder(TEST_CUSTOMER, OrderSide.BUY, TEST_ASSET, 1L, TEST_PRICE);
+        List<CreateOrder> requests = List.of(request, request, request, request);
+
+        // act + assert
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> batchOrderService.createOrders(requests));
+        assertThat(ex.getMessage()).contains("exceeds the limit of " + TEST_MAX_BATCH_SIZE);
+        verifyNoInteractions(assetRepository, orderRepository);
+    }
+}
@@ -0,0 +1,145 @@
+package com.brokage.challenge.service.impl;
+
+import com.brokage.challenge.audit.AuditPolicyService;
+import com.brokage.challenge.dto.BulkCancelResponse;
+import com.brokage.challenge.entity.Order;
+import com.brokage.challenge.enums.OrderSide;
+import com.brokage.challenge.enums.OrderStatus;
+import com.brokage.challenge.event.OrderCancelledEvent;
+import com.brokage.challenge.exception.BrokageFirmApiException;
+import com.brokage.challenge.repository.OrderRepository;
+import com.brokage.challenge.util.FixedPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkOrderCancellationServiceTest {
+
+    // Static test data
+    private static final String TEST_CUSTOMER = "cust1";
+    private static final String TEST_ASSET = "BTC";
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private AssetUpdateManager assetUpdateManager;
+
+    @Mock
+    private AuditPolicyService auditPolicyService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BulkOrderCancellationService bulkCancellationService;
+
+    @BeforeEach
+    void setUp() {
+        bulkCancellationService = new BulkOrderCancellationService(orderRepository, assetUpdateManager,
+                auditPolicyService, eventPublisher);
+    }
+
+    private Order buildOrder(long id, long reservedAmount) {
+        return Order.builder()
+                .id(id)
+                .customerId(TEST_CUSTOMER)
+                .assetName(TEST_ASSET)
+                .orderSide(OrderSide.BUY)
+                .size(2L)
+                .priceTicks(FixedPoint.toTicks(new BigDecimal("10.50")))
+                .reservedAmount(reservedAmount)
+                .status(OrderStatus.PENDING)
+                .createDate(Instant.now())
+                .build();
+    }
+
+    @Test
+    @DisplayName("cancelOrders refunds all matching orders at once and deletes them")
+    void cancelOrders_success() {
+        // arrange
+        Order first = buildOrder(1L, 21L);
+        Order second = buildOrder(2L, 21L);
+        when(orderRepository.findForCancellation(TEST_CUSTOMER, null, OrderSide.BUY, OrderStatus.PENDING))
+                .thenReturn(List.of(first, second));
+        when(assetUpdateManager.refundUsableBalanceForCancellation(TEST_CUSTOMER, List.of(first, second)))
+                .thenReturn(Map.of("TRY", 42L));
+
+        // act
+        BulkCancelResponse response = bulkCancellationService.cancelOrders(TEST_CUSTOMER, null, OrderSide.BUY);
+
+        // assert
+        assertThat(response.cancelledCount()).isEqualTo(2);
+        assertThat(response.cancelledOrderIds()).containsExactly(1L, 2L);
+        assertThat(response.refunded()).containsEntry("TRY", 42L);
+        verify(orderRepository, times(1)).deleteAll(List.of(first, second));
+        verify(eventPublisher, times(1)).publishEvent(
+                new OrderCancelledEvent(1L, TEST_CUSTOMER, TEST_ASSET, OrderSide.BUY, 21L, 2L,
+                        FixedPoint.toTicks(new BigDecimal("10.50"))));
+        verify(auditPolicyService, times(2)).recordSuccess(eq("DELETE_ORDER"), eq("Order"), any(), eq(TEST_CUSTOMER), any());
+    }
+
+    @Test
+    @DisplayName("cancelOrders keeps partially filled orders as CANCELLED")
+    void cancelOrders_partiallyFilled_markedCancelled() {
+        // arrange
+        Order partiallyFilled = buildOrder(1L, 11L);
+        partiallyFilled.setFilledSize(1L);
+        when(orderRepository.findForCancellation(TEST_CUSTOMER, TEST_ASSET, null, OrderStatus.PENDING))
+                .thenReturn(List.of(partiallyFilled));
+        when(assetUpdateManager.refundUsableBalanceForCancellation(eq(TEST_CUSTOMER), anyList()))
+                .thenReturn(Map.of("TRY", 11L));
+
+        // act
+        bulkCancellationService.cancelOrders(TEST_CUSTOMER, TEST_ASSET, null);
+
+        // assert
+        verify(orderRepository, times(1)).deleteAll(List.of());
+        assertThat(partiallyFilled.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(partiallyFilled.getReservedAmount()).isZero();
+    }
+
+    @Test
+    @DisplayName("cancelOrders returns an empty summary when nothing is PENDING")
+    void cancelOrders_nothingPending() {
+        // arrange
+        when(orderRepository.findForCancellation(TEST_CUSTOMER, null, null, OrderStatus.PENDING)).thenReturn(List.of());
+
+        // act
+        BulkCancelResponse response = bulkCancellationService.cancelOrders(TEST_CUSTOMER, null, null);
+
+        // assert
+        assertThat(response.cancelledCount()).isZero();
+        verifyNoInteractions(assetUpdateManager, eventPublisher, auditPolicyService);
+    }
+
+    @Test
+    @DisplayName("cancelOrders wraps unexpected failures in BrokageFirmApiException")
+    void cancelOrders_systemError_wrapped() {
+        // arrange
+        RuntimeException failure = new RuntimeException("Database down");
+        when(orderRepository.findForCancellation(TEST_CUSTOMER, null, null, OrderStatus.PENDING)).thenThrow(failure);
+
+        // act + assert
+        BrokageFirmApiException ex = assertThrows(BrokageFirmApiException.class,
+                () -> bulkCancellationService.cancelOrders(TEST_CUSTOMER, null, null));
+        assertThat(ex.getCause()).isEqualTo(failure);
+    }
+}
@@ -7,8 +7,10 @@ import com.brokage.challenge.enums.OrderSide;
 import com.brokage.challenge.enums.OrderStatus;
 import com.brokage.challenge.exception.BrokageFirmApiException;
 import com.brokage.challenge.exception.InvalidCustomerException;
+import com.brokage.challenge.exception.InvalidOrderException;
 import com.brokage.challenge.repository.AssetRepository;
 import com.brokage.challenge.repository.OrderRepository;
+import com.brokage.challenge.util.FixedPoint;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,7 +20,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -34,8 +35,6 @@ class BuyCreateOrderProcessorTest {
     private static final Long TEST_SIZE = 2L;
     private static final BigDecimal TEST_PRICE = new BigDecimal("10.50");
     private static final BigDecimal TEST_TOTAL_COST = new BigDecimal("21.00");
-    private static final Long TEST_TRY_BALANCE = 100L;
-    private static final Long TEST_INSUFFICIENT_BALANCE = 10L;
 
     @Mock
     private AssetRepository assetRepository;
@@ -65,22 +64,17 @@ class BuyCreateOrderProcessorTest {
     void process_success_sufficientBalance() {
         // arrange
         CreateOrder request = new CreateOrder(TEST_CUSTOMER, OrderSide.BUY, TEST_ASSET, TEST_SIZE, TEST_PRICE);
-        Asset tryAsset = Asset.builder()
-                .customerId(TEST_CUSTOMER)
-                .assetName("TRY")
-                .usableSize(TEST_TRY_BALANCE)
-                .build();
         Order expectedOrder = Order.builder()
                 .customerId(TEST_CUSTOMER)
                 .assetName(TEST_ASSET)
                 .orderSide(OrderSide.BUY)
                 .size(TEST_SIZE)
-                .price(TEST_PRICE)
+                .priceTicks(FixedPoint.toTicks(TEST_PRICE))
                 .status(OrderStatus.PENDING)
                 .createDate(Instant.now())
                 .build();
 
-        when(assetRepository.findByCustomerIdAndAssetName(TEST_CUSTOMER, "TRY")).thenReturn(Optional.of(tryAsset));
+        when(assetRepository.reserveUsableSize(TEST_CUSTOMER, "TRY", TEST_TOTAL_COST.longValue())).thenReturn(1);
         when(orderRepository.save(any(Order.class))).thenReturn(expectedOrder);
 
         // act
@@ -88,8 +82,9 @@ class BuyCreateOrderProcessorTest {
 
         // assert
         assertThat(result).isEqualTo(expectedOrder);
-        assertThat(tryAsset.getUsableSize()).isEqualTo(TEST_TRY_BALANCE - TEST_TOTAL_COST.longValue());
-        verify(assetRepository, times(1)).save(tryAsset);
+        verify(assetRepository, times(1)).reserveUsableSize(TEST_CUSTOMER, "TRY", TEST_TOTAL_COST.longValue());
+        verify(assetRepository, never()).findByCustomerIdAndAssetName(any(), any());
+        verify(assetRepository, never()).save(any(Asset.class));
         verify(orderRepository, times(1)).save(any(Order.class));
     }
 
@@ -98,7 +93,8 @@ class BuyCreateOrderProcessorTest {
     void process_throws_whenTryAssetNotFound() {
         // arrange
         CreateOrder request = new CreateOrder(TEST_CUSTOMER, OrderSide.BUY, TEST_ASSET, TEST_SIZE, TEST_PRICE);
-        when(assetRepository.findByCustomerIdAndAssetName(TEST_CUSTOMER, "TRY")).thenReturn(Optional.empty());
+        when(assetRepository.reserveUsableSize(TEST_CUSTOMER, "TRY", TEST_TOTAL_COST.longValue())).thenReturn(0);
+        when(assetRepository.existsByCustomerIdAndAssetName(TEST_CUSTOMER, "TRY")).thenReturn(false);
 
         // act + assert
         InvalidCustomerException ex = assertThrows(InvalidCustomerException.class, () -> processor.process(request));
@@ -111,13 +107,8 @@ class BuyCreateOrderProcessorTest {
     void process_throws_insufficientBalance() {
         // arrange
         CreateOrder request = new CreateOrder(TEST_CUSTOMER, OrderSide.BUY, TEST_ASSET, TEST_SIZE, TEST_PRICE);
-        Asset tryAsset = Asset.builder()
-                .customerId(TEST_CUSTOMER)
-                .assetName("TRY")
-                .usableSize(TEST_INSUFFICIENT_BALANCE)
-                .build();
-
-        when(assetRepository.findByCustomerIdAndAssetName(TEST_CUSTOMER, "TRY")).thenReturn(Optional.of(tryAsset));
+        when(assetRepository.reserveUsableSize(TEST_CUSTOMER, "TRY", TEST_TOTAL_COST.longValue())).thenReturn(0);
+        when(assetRepository.existsByCustomerIdAndAssetName(TEST_CUSTOMER, "TRY")).thenReturn(true);
 
         // act + assert
         InvalidCustomerException ex = assertThrows(InvalidCustomerException.class, () -> processor.process(request));
@@ -130,16 +121,8 @@ class BuyCreateOrderProcessorTest {
     void process_WhenRepositoryThrowsUnexpectedException_ShouldThrowBrokageFirmApiException() {
         // arrange
         CreateOrder request = new CreateOrder(TEST_CUSTOMER, OrderSide.BUY, TEST_ASSET, TEST_SIZE, TEST_PRICE);
-        Asset tryAsset = Asset.builder()
-                .customerId(TEST_CUSTOMER)
-                .assetName("TRY")
-                .size(TEST_TRY_BALANCE)
-                .usableSize(TEST_TRY_BALANCE)
-                .build();
-        
-        when(assetRepository.findByCustomerIdAndAssetName(TEST_CUSTOMER, "TRY")).thenReturn(Optional.of(tryAsset));
         RuntimeException repositoryException = new RuntimeException("Database connection failed");
-        when(assetRepository.save(any(Asset.class))).thenThrow(repositoryException);
+        when(assetRepository.reserveUsableSize(TEST_CUSTOMER, "TRY", TEST_TOTAL_COST.longValue())).thenThrow(repositoryException);
 
         // act & assert
         BrokageFirmApiException exception = assertThrows(BrokageFirmApiException.class, 
@@ -154,15 +137,7 @@ class BuyCreateOrderProcessorTest {
     void process_WhenOrderRepositoryThrowsException_ShouldThrowBrokageFirmApiException() {
         // arrange
         CreateOrder request = new CreateOrder(TEST_CUSTOMER, OrderSide.BUY, TEST_ASSET, TEST_SIZE, TEST_PRICE);
-        Asset tryAsset = Asset.builder()
-                .customerId(TEST_CUSTOMER)
-                .assetName("TRY")
-                .size(TEST_TRY_BALANCE)
-                .usableSize(TEST_TRY_BALANCE)
-                .build();
-        
-        when(assetRepository.findByCustomerIdAndAssetName(TEST_CUSTOMER, "TRY")).thenReturn(Optional.of(tryAsset));
-        when(assetRepository.save(any(Asset.class))).thenReturn(tryAsset);
+        when(assetRepository.reserveUsableSize(TEST_CUSTOMER, "TRY", TEST_TOTAL_COST.longValue())).thenReturn(1);
         RuntimeException orderRepositoryException = new RuntimeException("Order repository error");
         when(orderRepository.save(any(Order.class))).thenThrow(orderRepositoryException);
 
@@ -173,4 +148,32 @@ class BuyCreateOrderProcessorTest {
         assertThat(exception.getMessage()).contains("BUY order processing failed due to system error");
         assertThat(exception.getCause()).isEqualTo(orderRepositoryException);
     }
+
+    @Test
+    @DisplayName("process rounds a fractional notional up and stores the reserved amount on the order")
+    void process_fractionalNotional_roundsUp() {
+        // arrange
+        CreateOrder request = new CreateOrder(TEST_CUSTOMER, OrderSide.BUY, TEST_ASSET, 3L, new BigDecimal("10.3333"));
+        when(assetRepository.reserveUsableSize(TEST_CUSTOMER, "TRY", 31L)).thenReturn(1);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // act
+        Order result = processor.process(request);
+
+        // assert
+        assertThat(result.getPriceTicks()).isEqualTo(103_333L);
+        assertThat(result.getReservedAmount()).isEqualTo(31L);
+    }
+
+    @Test
+    @DisplayName("process throws InvalidOrderException when the notional overflows")
+    void process_notionalOverflow_throws() {
+        // arrange
+        CreateOrder request = new CreateOrder(TEST_CUSTOMER, OrderSide.BUY, TEST_ASSET, Long.MAX_VALUE / 2, TEST_PRICE);
+
+        // act + assert
+        InvalidOrderException ex = assertThrows(InvalidOrderException.class, () -> processor.process(request));
+        assertThat(ex.getMessage()).isEqualTo("Order notional exceeds the supported range.");
+        verifyNoInteractions(assetRepository, orderRepository);
+    }
 }
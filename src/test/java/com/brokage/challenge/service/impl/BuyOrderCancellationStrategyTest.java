@@ -3,6 +3,7 @@ package com.brokage.challenge.service.impl;
 import com.brokage.challenge.entity.Order;
 import com.brokage.challenge.enums.OrderSide;
 import com.brokage.challenge.service.AssetService;
+import com.brokage.challenge.util.FixedPoint;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -54,7 +55,8 @@ class BuyOrderCancellationStrategyTest {
                 .assetName(TEST_ASSET)
                 .orderSide(OrderSide.BUY)
                 .size(TEST_SIZE)
-                .price(TEST_PRICE)
+                .priceTicks(FixedPoint.toTicks(TEST_PRICE))
+                .reservedAmount(TEST_RESERVED_AMOUNT)
                 .build();
 
         // act
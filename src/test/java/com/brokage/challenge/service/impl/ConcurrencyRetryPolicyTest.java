@@ -0,0 +1,94 @@
+package com.brokage.challenge.service.impl;
+
+import com.brokage.challenge.entity.Asset;
+import com.brokage.challenge.exception.BrokageFirmApiException;
+import com.brokage.challenge.exception.InvalidOrderException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConcurrencyRetryPolicyTest {
+
+    // Static test data
+    private static final String TEST_OPERATION = "CREATE_ORDER";
+    private static final String TEST_TARGET = "customer cust1";
+    private static final int TEST_MAX_ATTEMPTS = 3;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ConcurrencyRetryPolicy retryPolicy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retryPolicy = new ConcurrencyRetryPolicy(TEST_MAX_ATTEMPTS, Duration.ofMillis(1), Duration.ofMillis(2), meterRegistry);
+    }
+
+    private static RuntimeException wrappedConflict() {
+        return new BrokageFirmApiException("Order creation failed due to system error",
+                new ObjectOptimisticLockingFailureException(Asset.class, 1L));
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).tag("operation", TEST_OPERATION).counter().count();
+    }
+
+    @Test
+    @DisplayName("execute retries a wrapped optimistic locking failure and returns the later result")
+    void execute_retriesConflict() {
+        // arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // act
+        String result = retryPolicy.execute(TEST_OPERATION, TEST_TARGET, () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw wrappedConflict();
+            }
+            return "done";
+        });
+
+        // assert
+        assertThat(result).isEqualTo("done");
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(count("order.retry.conflicts")).isEqualTo(1.0);
+        assertThat(count("order.retry.retries")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("execute gives up after the configured attempts and rethrows the last conflict")
+    void execute_exhausted_rethrows() {
+        // arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // act + assert
+        assertThrows(BrokageFirmApiException.class, () -> retryPolicy.execute(TEST_OPERATION, TEST_TARGET, () -> {
+            calls.incrementAndGet();
+            throw wrappedConflict();
+        }));
+        assertThat(calls.get()).isEqualTo(TEST_MAX_ATTEMPTS);
+        assertThat(count("order.retry.conflicts")).isEqualTo(3.0);
+        assertThat(count("order.retry.exhausted")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("execute does not retry business exceptions")
+    void execute_businessException_notRetried() {
+        // arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // act + assert
+        assertThrows(InvalidOrderException.class, () -> retryPolicy.execute(TEST_OPERATION, TEST_TARGET, () -> {
+            calls.incrementAndGet();
+            throw new InvalidOrderException("Order not found for this order id: 1");
+        }));
+        assertThat(calls.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,120 @@
+package com.brokage.challenge.service.impl;
+
+import com.brokage.challenge.exception.InvalidOrderException;
+import com.brokage.challenge.exception.OrderIntakeRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CustomerShardExecutorTest {
+
+    // Static test data
+    private static final String TEST_CUSTOMER = "cust1";
+    private static final int TEST_SHARDS = 4;
+    private static final int TEST_QUEUE_CAPACITY = 1;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CustomerShardExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new CustomerShardExecutor(TEST_SHARDS, TEST_QUEUE_CAPACITY, false, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("execute runs every command of a customer on the same shard thread")
+    void execute_sameCustomer_sameThread() {
+        // act
+        String first = executor.execute(TEST_CUSTOMER, () -> Thread.currentThread().getName());
+        String second = executor.execute(TEST_CUSTOMER, () -> Thread.currentThread().getName());
+
+        // assert
+        assertThat(first).isEqualTo("order-shard-" + executor.shardFor(TEST_CUSTOMER));
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    @DisplayName("execute rethrows business exceptions unchanged")
+    void execute_propagatesRuntimeException() {
+        // act + assert
+        InvalidOrderException ex = assertThrows(InvalidOrderException.class,
+                () -> executor.execute(TEST_CUSTOMER, () -> {
+                    throw new InvalidOrderException("Order not found");
+                }));
+        assertThat(ex.getMessage()).isEqualTo("Order not found");
+    }
+
+    @Test
+    @DisplayName("execute runs nested commands for the same shard inline instead of deadlocking")
+    void execute_nestedOnSameShard_runsInline() {
+        // act
+        String nested = executor.execute(TEST_CUSTOMER,
+                () -> executor.execute(TEST_CUSTOMER, () -> Thread.currentThread().getName()));
+
+        // assert
+        assertThat(nested).isEqualTo("order-shard-" + executor.shardFor(TEST_CUSTOMER));
+    }
+
+    @Test
+    @DisplayName("execute records per-shard queue and execution metrics")
+    void execute_recordsMetrics() {
+        // act
+        executor.execute(TEST_CUSTOMER, () -> null);
+
+        // assert
+        String shard = String.valueOf(executor.shardFor(TEST_CUSTOMER));
+        assertThat(meterRegistry.get("order.shard.queue.wait").tag("shard", shard).timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("order.shard.execution").tag("shard", shard).timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("order.shard.queue.depth").gauges()).hasSize(TEST_SHARDS);
+    }
+
+    @Test
+    @DisplayName("execute rejects with 429 once the shard queue is full and runs the queued commands")
+    void execute_queueFull_rejects() throws Exception {
+        // arrange: one command running on the shard, one waiting in its queue
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> running = CompletableFuture.supplyAsync(() -> executor.execute(TEST_CUSTOMER, () -> {
+            started.countDown();
+            await(release);
+            return "running";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() -> executor.execute(TEST_CUSTOMER, () -> "queued"));
+        String shard = String.valueOf(executor.shardFor(TEST_CUSTOMER));
+        while (meterRegistry.get("order.shard.queue.depth").tag("shard", shard).gauge().value() < TEST_QUEUE_CAPACITY) {
+            Thread.sleep(1);
+        }
+
+        // act + assert
+        assertThrows(OrderIntakeRejectedException.class, () -> executor.execute(TEST_CUSTOMER, () -> "rejected"));
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("running");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+        assertThat(meterRegistry.get("order.shard.rejected").tag("shard", shard).counter().count()).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
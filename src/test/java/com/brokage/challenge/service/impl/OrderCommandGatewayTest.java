@@ -0,0 +1,201 @@
+package com.brokage.challenge.service.impl;
+
+import com.brokage.challenge.dto.CreateOrder;
+import com.brokage.challenge.entity.Asset;
+import com.brokage.challenge.entity.Order;
+import com.brokage.challenge.enums.OrderSide;
+import com.brokage.challenge.exception.BrokageFirmApiException;
+import com.brokage.challenge.repository.OrderRepository;
+import com.brokage.challenge.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderCommandGatewayTest {
+
+    // Static test data
+    private static final String TEST_CUSTOMER = "cust1";
+    private static final Long TEST_ORDER_ID = 1L;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private BatchOrderService batchOrderService;
+
+    @Mock
+    private BulkOrderCancellationService bulkCancellationService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ObjectProvider<CustomerShardExecutor> shardExecutorProvider;
+
+    private final ConcurrencyRetryPolicy retryPolicy =
+            new ConcurrencyRetryPolicy(3, Duration.ZERO, Duration.ZERO, new SimpleMeterRegistry());
+
+    @Mock
+    private CustomerShardExecutor shardExecutor;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CreateOrder prepareCreateOrder() {
+        return new CreateOrder(TEST_CUSTOMER, OrderSide.BUY, "BTC", 2L, new BigDecimal("10.50"));
+    }
+
+    @Test
+    @DisplayName("createOrder runs inline when sharding is disabled")
+    void createOrder_direct() {
+        // arrange
+        CreateOrder request = prepareCreateOrder();
+        Order expected = Order.builder().id(TEST_ORDER_ID).build();
+        when(shardExecutorProvider.getIfAvailable()).thenReturn(null);
+        when(orderService.createOrder(request)).thenReturn(expected);
+        OrderCommandGateway gateway = new OrderCommandGateway(orderService, batchOrderService, bulkCancellationService, orderRepository, retryPolicy, shardExecutorProvider, transactionManager);
+
+        // act
+        Order result = gateway.createOrder(request);
+
+        // assert
+        assertThat(result).isEqualTo(expected);
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    @DisplayName("createOrder is routed to the customer's shard when sharding is enabled")
+    void createOrder_sharded() {
+        // arrange
+        CreateOrder request = prepareCreateOrder();
+        Order expected = Order.builder().id(TEST_ORDER_ID).build();
+        when(shardExecutorProvider.getIfAvailable()).thenReturn(shardExecutor);
+        when(shardExecutor.execute(eq(TEST_CUSTOMER), any())).thenReturn(expected);
+        OrderCommandGateway gateway = new OrderCommandGateway(orderService, batchOrderService, bulkCancellationService, orderRepository, retryPolicy, shardExecutorProvider, transactionManager);
+
+        // act
+        Order result = gateway.createOrder(request);
+
+        // assert
+        assertThat(result).isEqualTo(expected);
+        verify(shardExecutor, times(1)).execute(eq(TEST_CUSTOMER), any());
+    }
+
+    @Test
+    @DisplayName("deleteOrder resolves the owning customer and routes to its shard")
+    void deleteOrder_sharded() {
+        // arrange
+        when(shardExecutorProvider.getIfAvailable()).thenReturn(shardExecutor);
+        when(orderRepository.findCustomerIdById(TEST_ORDER_ID)).thenReturn(Optional.of(TEST_CUSTOMER));
+        OrderCommandGateway gateway = new OrderCommandGateway(orderService, batchOrderService, bulkCancellationService, orderRepository, retryPolicy, shardExecutorProvider, transactionManager);
+
+        // act
+        gateway.deleteOrder(TEST_ORDER_ID);
+
+        // assert
+        verify(shardExecutor, times(1)).execute(eq(TEST_CUSTOMER), any());
+    }
+
+    @Test
+    @DisplayName("deleteOrder runs inline through the retry policy when the order's customer is not found")
+    void deleteOrder_sharded_unknownOrder() {
+        // arrange
+        when(shardExecutorProvider.getIfAvailable()).thenReturn(shardExecutor);
+        when(orderRepository.findCustomerIdById(TEST_ORDER_ID)).thenReturn(Optional.empty());
+        doThrow(new BrokageFirmApiException("Order deletion failed due to system error",
+                new ObjectOptimisticLockingFailureException(Asset.class, 1L)))
+                .doNothing()
+                .when(orderService).deleteOrder(TEST_ORDER_ID);
+        OrderCommandGateway gateway = new OrderCommandGateway(orderService, batchOrderService, bulkCancellationService, orderRepository, retryPolicy, shardExecutorProvider, transactionManager);
+
+        // act
+        gateway.deleteOrder(TEST_ORDER_ID);
+
+        // assert
+        verify(orderService, times(2)).deleteOrder(TEST_ORDER_ID);
+        verifyNoInteractions(shardExecutor);
+    }
+
+    @Test
+    @DisplayName("createOrder re-runs the transaction after an optimistic locking conflict")
+    void createOrder_retriesOnConflict() {
+        // arrange
+        CreateOrder request = prepareCreateOrder();
+        Order expected = Order.builder().id(TEST_ORDER_ID).build();
+        when(shardExecutorProvider.getIfAvailable()).thenReturn(null);
+        when(orderService.createOrder(request))
+                .thenThrow(new BrokageFirmApiException("Order creation failed due to system error",
+                        new ObjectOptimisticLockingFailureException(Asset.class, 1L)))
+                .thenReturn(expected);
+        OrderCommandGateway gateway = new OrderCommandGateway(orderService, batchOrderService, bulkCancellationService, orderRepository, retryPolicy, shardExecutorProvider, transactionManager);
+
+        // act
+        Order result = gateway.createOrder(request);
+
+        // assert
+        assertThat(result).isEqualTo(expected);
+        verify(orderService, times(2)).createOrder(request);
+    }
+
+    @Test
+    @DisplayName("with sharding, a conflicting command is queued on the shard again instead of backing off on it")
+    @SuppressWarnings("unchecked")
+    void createOrder_sharded_retriesThroughShard() {
+        // arrange
+        CreateOrder request = prepareCreateOrder();
+        Order expected = Order.builder().id(TEST_ORDER_ID).build();
+        when(shardExecutorProvider.getIfAvailable()).thenReturn(shardExecutor);
+        when(shardExecutor.execute(eq(TEST_CUSTOMER), any()))
+                .thenAnswer(invocation -> ((Supplier<Order>) invocation.getArgument(1)).get());
+        when(orderService.createOrder(request))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Asset.class, 1L))
+                .thenReturn(expected);
+        OrderCommandGateway gateway = new OrderCommandGateway(orderService, batchOrderService, bulkCancellationService, orderRepository, retryPolicy, shardExecutorProvider, transactionManager);
+
+        // act
+        Order result = gateway.createOrder(request);
+
+        // assert
+        assertThat(result).isEqualTo(expected);
+        verify(shardExecutor, times(2)).execute(eq(TEST_CUSTOMER), any());
+    }
+
+    @Test
+    @DisplayName("createOrder hands the order to the callback before its transaction commits")
+    void createOrder_inTransaction_beforeCommit() {
+        // arrange
+        CreateOrder request = prepareCreateOrder();
+        Order expected = Order.builder().id(TEST_ORDER_ID).build();
+        List<String> steps = new ArrayList<>();
+        when(shardExecutorProvider.getIfAvailable()).thenReturn(null);
+        when(orderService.createOrder(request)).thenReturn(expected);
+        doAnswer(invocation -> steps.add("commit")).when(transactionManager).commit(any());
+        OrderCommandGateway gateway = new OrderCommandGateway(orderService, batchOrderService, bulkCancellationService, orderRepository, retryPolicy, shardExecutorProvider, transactionManager);
+
+        // act
+        Order result = gateway.createOrder(request, order -> steps.add("callback " + order.getId()));
+
+        // assert
+        assertThat(result).isEqualTo(expected);
+        assertThat(steps).containsExactly("callback " + TEST_ORDER_ID, "commit");
+    }
+}
@@ -0,0 +1,120 @@
+package com.brokage.challenge.service.impl;
+
+import com.brokage.challenge.entity.Order;
+import com.brokage.challenge.enums.OrderSide;
+import com.brokage.challenge.enums.OrderStatus;
+import com.brokage.challenge.exception.BrokageFirmApiException;
+import com.brokage.challenge.repository.OrderRepository;
+import com.brokage.challenge.util.FixedPoint;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExportServiceTest {
+
+    // Static test data
+    private static final String TEST_CUSTOMER = "cust1";
+    private static final Instant TEST_START = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Instant TEST_END = Instant.parse("2026-12-31T23:59:59Z");
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderExportService orderExportService;
+
+    @BeforeEach
+    void setUp() {
+        orderExportService = new OrderExportService(orderRepository, entityManager,
+                new ObjectMapper().findAndRegisterModules(), transactionManager);
+    }
+
+    private Order buildOrder(long id) {
+        return Order.builder()
+                .id(id)
+                .customerId(TEST_CUSTOMER)
+                .assetName("BTC")
+                .orderSide(OrderSide.BUY)
+                .size(2L)
+                .priceTicks(FixedPoint.toTicks(new BigDecimal("10.50")))
+                .status(OrderStatus.PENDING)
+                .createDate(Instant.parse("2026-03-01T00:00:00Z"))
+                .build();
+    }
+
+    @Test
+    @DisplayName("exportOrders writes one JSON object per line and detaches every row")
+    void exportOrders_writesNdjson() {
+        // arrange
+        Order first = buildOrder(1L);
+        Order second = buildOrder(2L);
+        AtomicBoolean closed = new AtomicBoolean();
+        when(orderRepository.streamByCustomer(TEST_CUSTOMER, TEST_START, TEST_END))
+                .thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // act
+        long written = orderExportService.exportOrders(TEST_CUSTOMER, TEST_START, TEST_END, out);
+
+        // assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(written).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{\"id\":1,").contains("\"price\":10.5");
+        assertThat(lines[1]).startsWith("{\"id\":2,");
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    @DisplayName("exportOrders writes nothing for an empty range")
+    void exportOrders_empty() {
+        // arrange
+        when(orderRepository.streamByCustomer(TEST_CUSTOMER, TEST_START, TEST_END)).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // act
+        long written = orderExportService.exportOrders(TEST_CUSTOMER, TEST_START, TEST_END, out);
+
+        // assert
+        assertThat(written).isZero();
+        assertThat(out.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("exportOrders wraps database failures in BrokageFirmApiException")
+    void exportOrders_systemError_wrapped() {
+        // arrange
+        RuntimeException failure = new RuntimeException("Database down");
+        when(orderRepository.streamByCustomer(TEST_CUSTOMER, TEST_START, TEST_END)).thenThrow(failure);
+
+        // act + assert
+        BrokageFirmApiException ex = assertThrows(BrokageFirmApiException.class,
+                () -> orderExportService.exportOrders(TEST_CUSTOMER, TEST_START, TEST_END, new ByteArrayOutputStream()));
+        assertThat(ex.getCause()).isEqualTo(failure);
+    }
+}
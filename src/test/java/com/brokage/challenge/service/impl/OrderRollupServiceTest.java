@@ -0,0 +1,133 @@
+package com.brokage.challenge.service.impl;
+
+import com.brokage.challenge.enums.OrderSide;
+import com.brokage.challenge.event.OrderCancelledEvent;
+import com.brokage.challenge.event.OrderCreatedEvent;
+import com.brokage.challenge.event.OrderExecutedEvent;
+import com.brokage.challenge.util.FixedPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderRollupServiceTest {
+
+    // Static test data
+    private static final String TEST_CUSTOMER = "cust1";
+    private static final String TEST_ASSET = "BTC";
+    private static final long TEST_PRICE_TICKS = FixedPoint.toTicks(new BigDecimal("10.50"));
+    private static final Instant TEST_CREATE_DATE = Instant.parse("2026-03-01T23:59:59Z");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private OrderRollupService orderRollupService;
+
+    @BeforeEach
+    void setUp() {
+        orderRollupService = new OrderRollupService(jdbcTemplate, 31);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(orderRollupService);
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.beforeCommit(false));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    @Test
+    @DisplayName("a created order is counted as PENDING on its UTC creation day")
+    void onOrderCreated_outsideTransaction_mergedRightAway() {
+        // act
+        orderRollupService.onOrderCreated(new OrderCreatedEvent(1L, TEST_CUSTOMER, TEST_ASSET, OrderSide.BUY,
+                TEST_PRICE_TICKS, 3L, 32L, 0L, TEST_CREATE_DATE));
+
+        // assert: ceil(10.50 * 3) = 32 TRY
+        verify(jdbcTemplate, times(1)).update(anyString(), eq(new Object[]{TEST_CUSTOMER,
+                LocalDate.of(2026, 3, 1), TEST_ASSET, "BUY", "PENDING", 1L, 3L, 32L}));
+    }
+
+    @Test
+    @DisplayName("deltas of one transaction are summed per row and merged once before commit")
+    void onOrderCancelled_inTransaction_mergedOnceBeforeCommit() {
+        // arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // act
+        orderRollupService.onOrderCancelled(new OrderCancelledEvent(1L, TEST_CUSTOMER, TEST_ASSET, OrderSide.SELL,
+                2L, 2L, TEST_PRICE_TICKS));
+        orderRollupService.onOrderCancelled(new OrderCancelledEvent(2L, TEST_CUSTOMER, TEST_ASSET, OrderSide.SELL,
+                1L, 1L, TEST_PRICE_TICKS));
+        verifyNoInteractions(jdbcTemplate);
+        commit();
+
+        // assert
+        verify(jdbcTemplate, times(1)).update(anyString(), eq(new Object[]{TEST_CUSTOMER,
+                LocalDate.now(ZoneOffset.UTC), TEST_ASSET, "SELL", "CANCELLED", 2L, 3L, 32L}));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("a partial fill adds quantity and notional without counting the order as executed")
+    void onOrderExecuted_partialFill_notCounted() {
+        // act
+        orderRollupService.onOrderExecuted(new OrderExecutedEvent(1L, TEST_CUSTOMER, TEST_ASSET, OrderSide.BUY,
+                2L, 21L, false, 1L));
+
+        // assert
+        verify(jdbcTemplate, times(1)).update(anyString(), eq(new Object[]{TEST_CUSTOMER,
+                LocalDate.now(ZoneOffset.UTC), TEST_ASSET, "BUY", "EXECUTED", 0L, 2L, 21L}));
+    }
+
+    @Test
+    @DisplayName("a row inserted concurrently by another transaction is merged into on retry")
+    void merge_duplicateKey_retried() {
+        // arrange
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DuplicateKeyException("pk_order_daily_rollup"))
+                .thenReturn(1);
+
+        // act
+        orderRollupService.onOrderExecuted(new OrderExecutedEvent(1L, TEST_CUSTOMER, TEST_ASSET, OrderSide.BUY,
+                2L, 21L, true, 0L));
+
+        // assert
+        verify(jdbcTemplate, times(2)).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("summarize rejects inverted and too long ranges")
+    void summarize_invalidRange_throws() {
+        // act + assert
+        assertThrows(IllegalArgumentException.class, () -> orderRollupService.summarize(TEST_CUSTOMER,
+                LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 1), null));
+        assertThrows(IllegalArgumentException.class, () -> orderRollupService.summarize(TEST_CUSTOMER,
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 3, 1), null));
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
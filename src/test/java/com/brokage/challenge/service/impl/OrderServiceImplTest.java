@@ -1,13 +1,19 @@
 package com.brokage.challenge.service.impl;
 
 import com.brokage.challenge.dto.CreateOrder;
+import com.brokage.challenge.dto.OrderCursor;
+import com.brokage.challenge.dto.OrderFilter;
+import com.brokage.challenge.dto.OrderResponse;
 import com.brokage.challenge.entity.Order;
 import com.brokage.challenge.enums.OrderSide;
 import com.brokage.challenge.enums.OrderStatus;
+import com.brokage.challenge.event.OrderCancelledEvent;
+import com.brokage.challenge.event.OrderCreatedEvent;
 import com.brokage.challenge.exception.BrokageFirmApiException;
 import com.brokage.challenge.exception.InvalidOrderException;
 import com.brokage.challenge.repository.OrderRepository;
 import com.brokage.challenge.service.CreateOrderProcessor;
+import com.brokage.challenge.util.FixedPoint;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,6 +21,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -31,11 +40,13 @@ class OrderServiceImplTest {
     // Static test data
     private static final String TEST_CUSTOMER = "cust1";
     private static final String TEST_ASSET = "BTC";
+    private static final OrderFilter TEST_NO_FILTER = new OrderFilter(null, null, null);
     private static final Long TEST_SIZE = 2L;
     private static final BigDecimal TEST_PRICE = new BigDecimal("10.50");
     private static final Long TEST_ORDER_ID = 1L;
     private static final Long TEST_ORDER_ID_NOT_FOUND = 99L;
     private static final Long TEST_ORDER_ID_NOT_PENDING = 11L;
+    private static final int TEST_MAX_PAGE_SIZE = 50;
 
     @Mock
     private OrderRepository orderRepository;
@@ -49,13 +60,17 @@ class OrderServiceImplTest {
     @Mock
     private CreateOrderProcessor sellProcessor;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private OrderServiceImpl orderService;
 
     @BeforeEach
     void setUp() {
         when(buyProcessor.getSupportedSide()).thenReturn(OrderSide.BUY);
         when(sellProcessor.getSupportedSide()).thenReturn(OrderSide.SELL);
-        orderService = new OrderServiceImpl(List.of(buyProcessor, sellProcessor), orderRepository, assetUpdateManager);
+        orderService = new OrderServiceImpl(List.of(buyProcessor, sellProcessor), orderRepository, assetUpdateManager, eventPublisher,
+                TEST_MAX_PAGE_SIZE);
     }
 
     private CreateOrder prepareCreateOrder(String customer, OrderSide side, String asset, Long size, BigDecimal price) {
@@ -77,7 +92,8 @@ class OrderServiceImplTest {
                 .assetName(TEST_ASSET)
                 .orderSide(OrderSide.BUY)
                 .size(TEST_SIZE)
-                .price(TEST_PRICE)
+                .priceTicks(FixedPoint.toTicks(TEST_PRICE))
+                .reservedAmount(21L)
                 .status(OrderStatus.PENDING)
                 .createDate(Instant.now())
                 .build();
@@ -90,6 +106,7 @@ class OrderServiceImplTest {
         // assert
         assertThat(result).isEqualTo(expected);
         verify(buyProcessor, times(1)).process(request);
+        verify(eventPublisher, times(1)).publishEvent(OrderCreatedEvent.of(expected));
         verifyNoInteractions(orderRepository);
     }
 
@@ -109,10 +126,7 @@ class OrderServiceImplTest {
     @DisplayName("deleteOrder deletes PENDING order and refunds usable balance")
     void deleteOrder_pending_success() {
         // arrange
-        Order pending = Order.builder()
-                .id(TEST_ORDER_ID)
-                .status(OrderStatus.PENDING)
-                .build();
+        Order pending = prepareOrder();
 
         when(orderRepository.findById(TEST_ORDER_ID)).thenReturn(Optional.of(pending));
         
@@ -122,6 +136,29 @@ class OrderServiceImplTest {
         // assert
         verify(assetUpdateManager, times(1)).refundUsableBalanceForCancellation(pending);
         verify(orderRepository, times(1)).delete(pending);
+        verify(eventPublisher, times(1)).publishEvent(new OrderCancelledEvent(TEST_ORDER_ID, TEST_CUSTOMER,
+                TEST_ASSET, OrderSide.BUY, 21L, TEST_SIZE, FixedPoint.toTicks(TEST_PRICE)));
+    }
+
+    @Test
+    @DisplayName("deleteOrder keeps a partially filled order as CANCELLED instead of deleting it")
+    void deleteOrder_partiallyFilled_markedCancelled() {
+        // arrange
+        Order partiallyFilled = prepareOrder();
+        partiallyFilled.setFilledSize(1L);
+        partiallyFilled.setReservedAmount(11L);
+
+        when(orderRepository.findById(TEST_ORDER_ID)).thenReturn(Optional.of(partiallyFilled));
+
+        // act
+        orderService.deleteOrder(TEST_ORDER_ID);
+
+        // assert
+        verify(assetUpdateManager, times(1)).refundUsableBalanceForCancellation(partiallyFilled);
+        verify(orderRepository, never()).delete(any());
+        verify(orderRepository, times(1)).save(partiallyFilled);
+        assertThat(partiallyFilled.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(partiallyFilled.getReservedAmount()).isZero();
     }
 
     @Test
@@ -162,20 +199,84 @@ class OrderServiceImplTest {
         Instant startDate = Instant.parse("2023-01-01T00:00:00Z");
         Instant endDate = Instant.parse("2023-12-31T23:59:59Z");
 
-        List<Order> expectedOrders = List.of(
-                Order.builder().id(1L).customerId(TEST_CUSTOMER).createDate(Instant.parse("2023-06-15T10:00:00Z")).build(),
-                Order.builder().id(2L).customerId(TEST_CUSTOMER).createDate(Instant.parse("2023-07-20T15:30:00Z")).build()
+        List<OrderResponse> expectedOrders = List.of(
+                new OrderResponse(1L, TEST_CUSTOMER, TEST_ASSET, OrderSide.BUY, 2L, TEST_PRICE,
+                        OrderStatus.PENDING, Instant.parse("2023-06-15T10:00:00Z")),
+                new OrderResponse(2L, TEST_CUSTOMER, TEST_ASSET, OrderSide.SELL, 2L, TEST_PRICE,
+                        OrderStatus.PENDING, Instant.parse("2023-07-20T15:30:00Z"))
         );
 
-        when(orderRepository.findByCustomerIdAndCreateDateBetween(TEST_CUSTOMER, startDate, endDate))
-                .thenReturn(expectedOrders);
+        when(orderRepository.findPage(TEST_CUSTOMER, startDate, endDate, TEST_NO_FILTER, startDate, Long.MIN_VALUE, 10))
+                .thenReturn(new SliceImpl<>(expectedOrders));
+
+        // act
+        Slice<OrderResponse> result = orderService.listOrders(TEST_CUSTOMER, startDate, endDate, TEST_NO_FILTER, null, 10);
+
+        // assert
+        assertThat(result.getContent()).isEqualTo(expectedOrders);
+        verify(orderRepository, times(1)).findPage(TEST_CUSTOMER, startDate, endDate, TEST_NO_FILTER, startDate, Long.MIN_VALUE, 10);
+    }
+
+    @Test
+    @DisplayName("listOrders reads recent ranges from the database, so an order is listed as soon as it commits")
+    void listOrders_recentRange_queriesRepository() {
+        // arrange
+        Instant startDate = Instant.now().minusSeconds(60);
+        Instant endDate = Instant.now().plusSeconds(60);
+        Slice<OrderResponse> page = new SliceImpl<>(List.of(new OrderResponse(1L, TEST_CUSTOMER, TEST_ASSET,
+                OrderSide.BUY, 2L, TEST_PRICE, OrderStatus.PENDING, Instant.now())));
+        when(orderRepository.findPage(TEST_CUSTOMER, startDate, endDate, TEST_NO_FILTER, startDate, Long.MIN_VALUE, 10))
+                .thenReturn(page);
+
+        // act
+        Slice<OrderResponse> result = orderService.listOrders(TEST_CUSTOMER, startDate, endDate, TEST_NO_FILTER, null, 10);
+
+        // assert
+        assertThat(result).isSameAs(page);
+    }
+
+    @Test
+    @DisplayName("listOrders continues after the cursor and caps the page size")
+    void listOrders_afterCursor_capsPageSize() {
+        // arrange
+        Instant startDate = Instant.parse("2023-01-01T00:00:00Z");
+        Instant endDate = Instant.parse("2023-12-31T23:59:59Z");
+        OrderCursor after = new OrderCursor(Instant.parse("2023-06-15T10:00:00Z"), 1L);
+
+        when(orderRepository.findPage(TEST_CUSTOMER, startDate, endDate, TEST_NO_FILTER, after.createDate(), 1L,
+                TEST_MAX_PAGE_SIZE)).thenReturn(new SliceImpl<>(List.of()));
 
         // act
-        List<Order> result = orderService.listOrders(TEST_CUSTOMER, startDate, endDate);
+        Slice<OrderResponse> result = orderService.listOrders(TEST_CUSTOMER, startDate, endDate, TEST_NO_FILTER, after, 10_000);
 
         // assert
-        assertThat(result).isEqualTo(expectedOrders);
-        verify(orderRepository, times(1)).findByCustomerIdAndCreateDateBetween(TEST_CUSTOMER, startDate, endDate);
+        assertThat(result.getContent()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("listOrders pushes filters down to the query")
+    void listOrders_filtered_queriesRepository() {
+        // arrange
+        Instant startDate = Instant.parse("2023-01-01T00:00:00Z");
+        Instant endDate = Instant.parse("2023-12-31T23:59:59Z");
+        OrderFilter filter = new OrderFilter(OrderStatus.CANCELLED, OrderSide.BUY, TEST_ASSET);
+        when(orderRepository.findPage(TEST_CUSTOMER, startDate, endDate, filter, startDate, Long.MIN_VALUE, 10))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        // act
+        orderService.listOrders(TEST_CUSTOMER, startDate, endDate, filter, null, 10);
+
+        // assert
+        verify(orderRepository, times(1)).findPage(TEST_CUSTOMER, startDate, endDate, filter, startDate, Long.MIN_VALUE, 10);
+    }
+
+    @Test
+    @DisplayName("listOrders rejects a page size below 1")
+    void listOrders_invalidPageSize_throws() {
+        // act + assert
+        assertThrows(IllegalArgumentException.class, () -> orderService.listOrders(TEST_CUSTOMER,
+                Instant.parse("2023-01-01T00:00:00Z"), Instant.parse("2023-12-31T23:59:59Z"), TEST_NO_FILTER, null, 0));
+        verifyNoInteractions(orderRepository);
     }
 
     private Order prepareOrder() {
@@ -185,7 +286,8 @@ class OrderServiceImplTest {
                 .assetName(TEST_ASSET)
                 .orderSide(OrderSide.BUY)
                 .size(TEST_SIZE)
-                .price(TEST_PRICE)
+                .priceTicks(FixedPoint.toTicks(TEST_PRICE))
+                .reservedAmount(21L)
                 .status(OrderStatus.PENDING)
                 .createDate(Instant.now())
                 .build();
@@ -230,12 +332,12 @@ class OrderServiceImplTest {
         Instant endDate = Instant.now();
         RuntimeException repositoryException = new RuntimeException("Database error");
         
-        when(orderRepository.findByCustomerIdAndCreateDateBetween(TEST_CUSTOMER, startDate, endDate))
+        when(orderRepository.findPage(TEST_CUSTOMER, startDate, endDate, TEST_NO_FILTER, startDate, Long.MIN_VALUE, 10))
             .thenThrow(repositoryException);
 
         // act & assert
         BrokageFirmApiException exception = assertThrows(BrokageFirmApiException.class, 
-            () -> orderService.listOrders(TEST_CUSTOMER, startDate, endDate));
+            () -> orderService.listOrders(TEST_CUSTOMER, startDate, endDate, TEST_NO_FILTER, null, 10));
         
         assertThat(exception.getMessage()).contains("Failed to list orders due to system error");
         assertThat(exception.getCause()).isEqualTo(repositoryException);
@@ -9,6 +9,7 @@ import com.brokage.challenge.exception.BrokageFirmApiException;
 import com.brokage.challenge.exception.InvalidCustomerException;
 import com.brokage.challenge.repository.AssetRepository;
 import com.brokage.challenge.repository.OrderRepository;
+import com.brokage.challenge.util.FixedPoint;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,7 +19,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -33,8 +33,6 @@ class SellCreateOrderProcessorTest {
     private static final String TEST_ASSET = "BTC";
     private static final Long TEST_SIZE = 2L;
     private static final BigDecimal TEST_PRICE = new BigDecimal("10.50");
-    private static final Long TEST_ASSET_BALANCE = 5L;
-    private static final Long TEST_INSUFFICIENT_BALANCE = 1L;
 
     @Mock
     private AssetRepository assetRepository;
@@ -64,22 +62,17 @@ class SellCreateOrderProcessorTest {
     void process_success_sufficientBalance() {
         // arrange
         CreateOrder request = new CreateOrder(TEST_CUSTOMER, OrderSide.SELL, TEST_ASSET, TEST_SIZE, TEST_PRICE);
-        Asset assetToSell = Asset.builder()
-                .customerId(TEST_CUSTOMER)
-                .assetName(TEST_ASSET)
-                .usableSize(TEST_ASSET_BALANCE)
-                .build();
         Order expectedOrder = Order.builder()
                 .customerId(TEST_CUSTOMER)
                 .assetName(TEST_ASSET)
                 .orderSide(OrderSide.SELL)
                 .size(TEST_SIZE)
-                .price(TEST_PRICE)
+                .priceTicks(FixedPoint.toTicks(TEST_PRICE))
                 .status(OrderStatus.PENDING)
                 .createDate(Instant.now())
                 .build();
 
-        when(assetRepository.findByCustomerIdAndAssetName(TEST_CUSTOMER, TEST_ASSET)).thenReturn(Optional.of(assetToSell));
+        when(assetRepository.reserveUsableSize(TEST_CUSTOMER, TEST_ASSET, TEST_SIZE)).thenReturn(1);
         when(orderRepository.save(any(Order.class))).thenReturn(expectedOrder);
 
         // act
@@ -87,8 +80,9 @@ class SellCreateOrderProcessorTest {
 
         // assert
         assertThat(result).isEqualTo(expectedOrder);
-        assertThat(assetToSell.getUsableSize()).isEqualTo(TEST_ASSET_BALANCE - TEST_SIZE);
-        verify(assetRepository, times(1)).save(assetToSell);
+        verify(assetRepository, times(1)).reserveUsableSize(TEST_CUSTOMER, TEST_ASSET, TEST_SIZE);
+        verify(assetRepository, never()).findByCustomerIdAndAssetName(any(), any());
+        verify(assetRepository, never()).save(any(Asset.class));
         verify(orderRepository, times(1)).save(any(Order.class));
     }
 
@@ -97,7 +91,8 @@ class SellCreateOrderProcessorTest {
     void process_throws_whenAssetNotFound() {
         // arrange
         CreateOrder request = new CreateOrder(TEST_CUSTOMER, OrderSide.SELL, TEST_ASSET, TEST_SIZE, TEST_PRICE);
-        when(assetRepository.findByCustomerIdAndAssetName(TEST_CUSTOMER, TEST_ASSET)).thenReturn(Optional.empty());
+        when(assetRepository.reserveUsableSize(TEST_CUSTOMER, TEST_ASSET, TEST_SIZE)).thenReturn(0);
+        when(assetRepository.existsByCustomerIdAndAssetName(TEST_CUSTOMER, TEST_ASSET)).thenReturn(false);
 
         // act + assert
         InvalidCustomerException ex = assertThrows(InvalidCustomerException.class, () -> processor.process(request));
@@ -110,13 +105,8 @@ class SellCreateOrderProcessorTest {
     void process_throws_insufficientBalance() {
         // arrange
         CreateOrder request = new CreateOrder(TEST_CUSTOMER, OrderSide.SELL, TEST_ASSET, TEST_SIZE, TEST_PRICE);
-        Asset assetToSell = Asset.builder()
-                .customerId(TEST_CUSTOMER)
-                .assetName(TEST_ASSET)
-                .usableSize(TEST_INSUFFICIENT_BALANCE)
-                .build();
-
-        when(assetRepository.findByCustomerIdAndAssetName(TEST_CUSTOMER, TEST_ASSET)).thenReturn(Optional.of(assetToSell));
+        when(assetRepository.reserveUsableSize(TEST_CUSTOMER, TEST_ASSET, TEST_SIZE)).thenReturn(0);
+        when(assetRepository.existsByCustomerIdAndAssetName(TEST_CUSTOMER, TEST_ASSET)).thenReturn(true);
 
         // act + assert
         InvalidCustomerException ex = assertThrows(InvalidCustomerException.class, () -> processor.process(request));
@@ -129,16 +119,8 @@ class SellCreateOrderProcessorTest {
     void process_WhenRepositoryThrowsUnexpectedException_ShouldThrowBrokageFirmApiException() {
         // arrange
         CreateOrder request = new CreateOrder(TEST_CUSTOMER, OrderSide.SELL, TEST_ASSET, TEST_SIZE, TEST_PRICE);
-        Asset assetToSell = Asset.builder()
-                .customerId(TEST_CUSTOMER)
-                .assetName(TEST_ASSET)
-                .size(TEST_ASSET_BALANCE)
-                .usableSize(TEST_ASSET_BALANCE)
-                .build();
-        
-        when(assetRepository.findByCustomerIdAndAssetName(TEST_CUSTOMER, TEST_ASSET)).thenReturn(Optional.of(assetToSell));
         RuntimeException repositoryException = new RuntimeException("Database connection failed");
-        when(assetRepository.save(any(Asset.class))).thenThrow(repositoryException);
+        when(assetRepository.reserveUsableSize(TEST_CUSTOMER, TEST_ASSET, TEST_SIZE)).thenThrow(repositoryException);
 
         // act & assert
         BrokageFirmApiException exception = assertThrows(BrokageFirmApiException.class, 
@@ -153,15 +135,7 @@ class SellCreateOrderProcessorTest {
     void process_WhenOrderRepositoryThrowsException_ShouldThrowBrokageFirmApiException() {
         // arrange
         CreateOrder request = new CreateOrder(TEST_CUSTOMER, OrderSide.SELL, TEST_ASSET, TEST_SIZE, TEST_PRICE);
-        Asset assetToSell = Asset.builder()
-                .customerId(TEST_CUSTOMER)
-                .assetName(TEST_ASSET)
-                .size(TEST_ASSET_BALANCE)
-                .usableSize(TEST_ASSET_BALANCE)
-                .build();
-        
-        when(assetRepository.findByCustomerIdAndAssetName(TEST_CUSTOMER, TEST_ASSET)).thenReturn(Optional.of(assetToSell));
-        when(assetRepository.save(any(Asset.class))).thenReturn(assetToSell);
+        when(assetRepository.reserveUsableSize(TEST_CUSTOMER, TEST_ASSET, TEST_SIZE)).thenReturn(1);
         RuntimeException orderRepositoryException = new RuntimeException("Order repository error");
         when(orderRepository.save(any(Order.class))).thenThrow(orderRepositoryException);
 
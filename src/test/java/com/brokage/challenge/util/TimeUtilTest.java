@@ -0,0 +1,90 @@
+package com.brokage.challenge.util;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TimeUtilTest {
+
+    // Static test data
+    private static final String TEST_OPERATION = "CREATE_ORDER";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TimeUtil.configure(Metrics.globalRegistry, false);
+    }
+
+    private Timer timer(String outcome) {
+        return meterRegistry.find(TimeUtil.TIMER_NAME).tag("operation", TEST_OPERATION).tag("outcome", outcome).timer();
+    }
+
+    @Test
+    @DisplayName("finish records into the success timer with p50/p99/p999 and logs nothing by default")
+    void finish_recordsSuccess() {
+        // arrange
+        TimeUtil.configure(meterRegistry, false);
+        Logger logger = mock(Logger.class);
+
+        // act
+        TimeUtil.startTimer(TEST_OPERATION, logger).finish();
+        TimeUtil.startTimer(TEST_OPERATION, logger).finish();
+
+        // assert
+        assertThat(timer(TimeUtil.SUCCESS).count()).isEqualTo(2);
+        assertThat(timer(TimeUtil.ERROR).count()).isZero();
+        assertThat(Arrays.stream(timer(TimeUtil.SUCCESS).takeSnapshot().percentileValues())
+                .map(ValueAtPercentile::percentile)).containsExactly(0.5, 0.99, 0.999);
+        verifyNoInteractions(logger);
+    }
+
+    @Test
+    @DisplayName("an error followed by finish in finally is recorded once, as an error")
+    void finishWithError_thenFinish_recordsErrorOnce() {
+        // arrange
+        TimeUtil.configure(meterRegistry, false);
+
+        // act
+        TimeUtil.ExecutionTimer timer = TimeUtil.startTimer(TEST_OPERATION, TimeUtilTest.class);
+        timer.finishWithError("Insufficient balance");
+        timer.finish();
+
+        // assert
+        assertThat(timer(TimeUtil.ERROR).count()).isEqualTo(1);
+        assertThat(timer(TimeUtil.SUCCESS).count()).isZero();
+    }
+
+    @Test
+    @DisplayName("with timing.log enabled start and finish are logged")
+    void logEnabled_logsStartAndFinish() {
+        // arrange
+        TimeUtil.configure(meterRegistry, true);
+        Logger logger = mock(Logger.class);
+
+        // act
+        TimeUtil.startTimer(TEST_OPERATION, logger).finishWithError("Insufficient balance");
+
+        // assert
+        verify(logger).info("Starting operation: {}", TEST_OPERATION);
+        verify(logger).error(anyString(), any(), any(), any());
+    }
+}